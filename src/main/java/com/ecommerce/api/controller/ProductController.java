@@ -1,16 +1,26 @@
 package com.ecommerce.api.controller;
 
+import com.ecommerce.api.dto.BulkAdjustResultDTO;
+import com.ecommerce.api.dto.ProductBatchDTO;
+import com.ecommerce.api.dto.ProductBulkAdjustDTO;
 import com.ecommerce.api.dto.ProductDTO;
+import com.ecommerce.api.dto.RelatedProductDTO;
 import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.domain.product.ProductBulkService;
+import com.ecommerce.domain.product.ProductField;
 import com.ecommerce.domain.product.ProductService;
 import com.ecommerce.domain.product.ProductSearchService;
+import com.ecommerce.domain.recommendation.CoOccurrenceEngine;
 import com.ecommerce.search.product.ProductDocument;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -20,7 +30,9 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductSearchService searchService;
+    private final ProductBulkService bulkService;
     private final ProductMapper mapper;
+    private final CoOccurrenceEngine coOccurrenceEngine;
 
     // 🧩 Criar produto — apenas ADMIN
     @PostMapping
@@ -34,6 +46,12 @@ public class ProductController {
         return productService.update(id, dto);
     }
 
+    // 📊 Ajuste em massa de preço/estoque por categoria ou lista de ids — apenas ADMIN
+    @PostMapping("/bulk-adjust")
+    public BulkAdjustResultDTO bulkAdjust(@Valid @RequestBody ProductBulkAdjustDTO dto) {
+        return bulkService.adjust(dto);
+    }
+
     // 🗑️ Deletar produto — apenas ADMIN
     @DeleteMapping("/{id}")
     public void delete(@PathVariable UUID id) {
@@ -48,13 +66,12 @@ public class ProductController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Set<String> fields
     ) {
-        return searchService.search(name, category, minPrice, maxPrice, page, size)
-        .map(mapper::toDTO);
-
-
-
+        Set<ProductField> selected = ProductField.parse(fields);
+        return searchService.search(name, category, minPrice, maxPrice, page, size, selected)
+                .map(doc -> mapper.toDTO(doc, selected));
     }
 
     // 📦 Buscar produto por ID — aberta para todos
@@ -62,4 +79,19 @@ public class ProductController {
     public ProductDTO findById(@PathVariable UUID id) {
         return productService.findById(id);
     }
+
+    // 🤝 Comprados juntos — servido da memória; detalhes dos produtos via /batch
+    // (limit < 1 → 400 pela validação de parâmetros do Spring MVC)
+    @GetMapping("/{id}/related")
+    public List<RelatedProductDTO> related(@PathVariable UUID id, @RequestParam(defaultValue = "10") @Min(1) int limit) {
+        return coOccurrenceEngine.related(id, limit).stream()
+                .map(related -> new RelatedProductDTO(related.productId(), related.count()))
+                .toList();
+    }
+
+    // 🧺 Buscar vários produtos por ID (carrinho, wishlist) — aberta para todos
+    @PostMapping("/batch")
+    public ProductBatchDTO findByIds(@RequestBody List<UUID> ids) {
+        return productService.findByIds(ids);
+    }
 }
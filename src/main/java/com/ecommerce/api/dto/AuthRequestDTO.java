@@ -0,0 +1,18 @@
+package com.ecommerce.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Credenciais de cadastro/login.
+ * Exemplo: {"username": "maria", "password": "..."}
+ */
+public record AuthRequestDTO(
+        @NotBlank @Size(max = 255)
+        String username,
+
+        // BCrypt só considera os primeiros 72 bytes: o limite aqui é em caracteres (barato, vale
+        // também no login); o cadastro confere os bytes em UTF-8 (AuthService)
+        @NotBlank @Size(min = 8, max = 72)
+        String password
+) {}
@@ -0,0 +1,5 @@
+package com.ecommerce.api.dto;
+
+public record AuthResponseDTO(
+        String token
+) {}
@@ -0,0 +1,12 @@
+package com.ecommerce.api.dto;
+
+/**
+ * Resumo de um ajuste em massa.
+ */
+public record BulkAdjustResultDTO(
+        long matched,
+        long updated,
+        // Encontrados cujo preço ficou como estava porque o novo arredondaria para zero
+        long priceSkipped,
+        long durationMs
+) {}
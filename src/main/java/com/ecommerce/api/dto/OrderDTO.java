@@ -0,0 +1,17 @@
+package com.ecommerce.api.dto;
+
+import com.ecommerce.domain.order.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record OrderDTO(
+        UUID id,
+        OrderStatus status,
+        BigDecimal totalValue,
+        List<OrderItemDTO> items,
+        Instant createdAt,
+        Instant updatedAt
+) {}
@@ -0,0 +1,12 @@
+package com.ecommerce.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado da busca em lote: produtos na ordem pedida e ids não encontrados.
+ */
+public record ProductBatchDTO(
+        List<ProductDTO> products,
+        List<UUID> missing
+) {}
@@ -0,0 +1,30 @@
+package com.ecommerce.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ajuste em massa de preço e/ou estoque.
+ * Alvo: uma categoria inteira ou uma lista de ids (exatamente um dos dois).
+ * Exemplo: {"category": "Eletrônicos", "pricePercent": -15}
+ */
+public record ProductBulkAdjustDTO(
+        String category,
+
+        List<UUID> ids,
+
+        // Variação percentual do preço (ex.: -15 = 15% de desconto)
+        @DecimalMin(value = "-100", inclusive = false)
+        BigDecimal pricePercent,
+
+        // Soma ao estoque atual (nunca fica negativo)
+        Integer stockDelta,
+
+        // Define o estoque absoluto (sincronização com o depósito)
+        @Min(0)
+        Integer stockQuantity
+) {}
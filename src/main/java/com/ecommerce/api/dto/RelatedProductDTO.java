@@ -0,0 +1,11 @@
+package com.ecommerce.api.dto;
+
+import java.util.UUID;
+
+/**
+ * Produto comprado junto; {@code count} é o número (aproximado) de pedidos pagos com os dois.
+ */
+public record RelatedProductDTO(
+        UUID productId,
+        int count
+) {}
@@ -0,0 +1,14 @@
+package com.ecommerce.api.dto;
+
+import com.ecommerce.domain.reservation.ReservationStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ReservationDTO(
+        UUID id,
+        UUID productId,
+        Integer quantity,
+        ReservationStatus status,
+        Instant expiresAt
+) {}
@@ -0,0 +1,18 @@
+package com.ecommerce.api.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Reserva de estoque ao adicionar um produto ao carrinho.
+ * Exemplo: {"productId": "...", "quantity": 2}
+ */
+public record ReservationRequestDTO(
+        @NotNull
+        UUID productId,
+
+        @NotNull @Min(1)
+        Integer quantity
+) {}
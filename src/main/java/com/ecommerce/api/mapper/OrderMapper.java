@@ -0,0 +1,45 @@
+package com.ecommerce.api.mapper;
+
+import com.ecommerce.api.dto.OrderDTO;
+import com.ecommerce.api.dto.OrderItemDTO;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Order → DTO. A resposta não expõe a entidade: evita o ciclo Order ↔ OrderItem,
+ * o carregamento lazy fora da transação e o vazamento dos dados do usuário.
+ */
+@Component
+public class OrderMapper {
+
+    public OrderDTO toDTO(Order order) {
+        if (order == null) return null;
+        return new OrderDTO(
+                order.getId(),
+                order.getStatus(),
+                order.getTotalValue().toBigDecimal(),
+                order.getItems().stream().map(this::toDTO).toList(),
+                order.getCreatedAt(),
+                order.getUpdatedAt()
+        );
+    }
+
+    public List<OrderDTO> toDTO(List<Order> orders) {
+        return orders.stream().map(this::toDTO).toList();
+    }
+
+    // O id do produto vem do proxy lazy sem disparar consulta
+    private OrderItemDTO toDTO(OrderItem item) {
+        return new OrderItemDTO(
+                item.getId(),
+                item.getProduct().getId(),
+                item.getProductName(),
+                item.getUnitPrice().toBigDecimal(),
+                item.getQuantity(),
+                item.getSubtotal().toBigDecimal()
+        );
+    }
+}
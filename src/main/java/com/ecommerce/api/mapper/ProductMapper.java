@@ -2,12 +2,13 @@ package com.ecommerce.api.mapper;
 
 import com.ecommerce.api.dto.ProductDTO;
 import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductChecksum;
+import com.ecommerce.domain.product.ProductField;
 import com.ecommerce.search.product.ProductDocument;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.Set;
 import java.util.UUID;
 
 @Component
@@ -49,14 +50,6 @@ public class ProductMapper {
 
         String id = entity.getId() != null ? entity.getId().toString() : null;
 
-        LocalDateTime createdAt = entity.getCreatedAt() != null
-                ? LocalDateTime.ofInstant(entity.getCreatedAt(), ZoneOffset.UTC)
-                : null;
-
-        LocalDateTime updatedAt = entity.getUpdatedAt() != null
-                ? LocalDateTime.ofInstant(entity.getUpdatedAt(), ZoneOffset.UTC)
-                : null;
-
         return ProductDocument.builder()
                 .id(id)
                 .name(entity.getName())
@@ -64,40 +57,43 @@ public class ProductMapper {
                 .category(entity.getCategory())
                 .price(entity.getPrice())
                 .stockQuantity(entity.getStockQuantity())
-                .createdAt(createdAt)
-                .updatedAt(updatedAt)
+                .createdAt(entity.getCreatedAt() != null ? entity.getCreatedAt().toEpochMilli() : null)
+                .updatedAt(entity.getUpdatedAt() != null ? entity.getUpdatedAt().toEpochMilli() : null)
+                .checksum(ProductChecksum.of(entity))
                 .build();
     }
 
     // ProductDocument → DTO (Elasticsearch → API)
     public ProductDTO toDTO(ProductDocument document) {
-        if (document == null) return null;
-
-        UUID uuid = null;
-        if (document.getId() != null && !document.getId().isBlank()) {
-            try {
-                uuid = UUID.fromString(document.getId());
-            } catch (IllegalArgumentException ignored) {
-            }
-        }
-
-        Instant createdAt = document.getCreatedAt() != null
-                ? document.getCreatedAt().toInstant(ZoneOffset.UTC)
-                : null;
+        return toDTO(document, ProductField.ALL);
+    }
 
-        Instant updatedAt = document.getUpdatedAt() != null
-                ? document.getUpdatedAt().toInstant(ZoneOffset.UTC)
-                : null;
+    // ProductDocument → DTO, preenchendo apenas os campos pedidos (sparse fieldset)
+    public ProductDTO toDTO(ProductDocument document, Set<ProductField> fields) {
+        if (document == null) return null;
 
         return new ProductDTO(
-                uuid,
-                document.getName(),
-                document.getDescription(),
-                document.getCategory(),
-                document.getPrice(),
-                document.getStockQuantity(),
-                createdAt,
-                updatedAt
+                parseId(document.getId()),
+                fields.contains(ProductField.NAME) ? document.getName() : null,
+                fields.contains(ProductField.DESCRIPTION) ? document.getDescription() : null,
+                fields.contains(ProductField.CATEGORY) ? document.getCategory() : null,
+                fields.contains(ProductField.PRICE) ? document.getPrice() : null,
+                fields.contains(ProductField.STOCK_QUANTITY) ? document.getStockQuantity() : null,
+                fields.contains(ProductField.CREATED_AT) ? toInstant(document.getCreatedAt()) : null,
+                fields.contains(ProductField.UPDATED_AT) ? toInstant(document.getUpdatedAt()) : null
         );
     }
+
+    private static UUID parseId(String id) {
+        if (id == null || id.isBlank()) return null;
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private static Instant toInstant(Long epochMillis) {
+        return epochMillis != null ? Instant.ofEpochMilli(epochMillis) : null;
+    }
 }
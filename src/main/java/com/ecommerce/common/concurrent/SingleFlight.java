@@ -0,0 +1,99 @@
+package com.ecommerce.common.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesce chamadas idênticas e concorrentes: a primeira thread com uma chave executa o
+ * {@code loader} e as que chegam enquanto ela está em andamento esperam e recebem o mesmo
+ * resultado (ou a mesma exceção). Nada fica em cache: ao terminar, a chave é removida.
+ * <p>
+ * Quem espera desiste após {@code timeout} com {@link SingleFlightTimeoutException}. Uma chamada
+ * em andamento há mais que {@code timeout} é considerada presa e a próxima thread assume
+ * uma chamada nova, para que um backend travado não bloqueie a chave para sempre.
+ * <p>
+ * O líder recebe o valor carregado; cada seguidor recebe {@code share(valor)}. Para valores
+ * imutáveis (records de campos imutáveis) a identidade basta; valores mutáveis precisam de
+ * uma cópia, senão um chamador enxerga as alterações de outro.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final UnaryOperator<V> share;
+
+    /**
+     * Para valores imutáveis: todos os chamadores recebem a mesma instância.
+     */
+    public SingleFlight(Duration timeout) {
+        this(timeout, UnaryOperator.identity());
+    }
+
+    public SingleFlight(Duration timeout, UnaryOperator<V> share) {
+        this.timeoutNanos = timeout.toNanos();
+        this.share = share;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        Call<V> call = new Call<>(System.nanoTime());
+        while (true) {
+            Call<V> existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) return lead(key, call, loader);
+
+            long elapsed = System.nanoTime() - existing.startedAt;
+            if (elapsed < timeoutNanos) return follow(existing, timeoutNanos - elapsed);
+
+            // Chamada presa: tenta assumir a chave; se outra thread assumiu antes, segue a dela
+            if (inFlight.replace(key, existing, call)) return lead(key, call, loader);
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, Call<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            call.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V follow(Call<V> call, long waitNanos) {
+        try {
+            return share.apply(call.result.get(waitNanos, TimeUnit.NANOSECONDS));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new SingleFlightTimeoutException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SingleFlightTimeoutException();
+        }
+    }
+
+    // Identidade importa: remove/replace no mapa só afetam a chamada exata
+    private static final class Call<V> {
+        final long startedAt;
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        Call(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
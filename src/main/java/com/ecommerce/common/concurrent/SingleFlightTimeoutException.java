@@ -0,0 +1,12 @@
+package com.ecommerce.common.concurrent;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SingleFlightTimeoutException extends RuntimeException {
+
+    public SingleFlightTimeoutException() {
+        super("Timed out waiting for an identical request already in progress.");
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Negociação de conteúdo binária, opcional para o cliente:
+ * {@code Accept: application/cbor} ou {@code Accept: application/x-jackson-smile}
+ * recebem os mesmos DTOs em CBOR/Smile (e podem enviar corpos nesses formatos).
+ * O ganho de tamanho e de CPU em relação ao JSON ainda não foi medido
+ * (ver {@code SerializationBenchmark} nos testes).
+ * <p>
+ * Os mappers saem do {@link Jackson2ObjectMapperBuilder} do Spring Boot, com as mesmas
+ * configurações do JSON. Os conversores ficam depois do JSON, então requisições sem Accept
+ * ou com curinga continuam recebendo JSON.
+ */
+@Configuration
+public class BinaryContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public BinaryContentNegotiationConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Os conversores padrão do Spring MVC usam mappers sem a configuração do Boot
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int afterJson = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) afterJson = i + 1;
+        }
+
+        converters.add(afterJson, new MappingJackson2SmileHttpMessageConverter(
+                builders.getObject().factory(new SmileFactory()).build()));
+        converters.add(afterJson, new MappingJackson2CborHttpMessageConverter(
+                builders.getObject().factory(new CBORFactory()).build()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Profile {@code fast-start}: beans não críticos (springdoc, Kafka) viram lazy, então o
+ * custo deles sai da subida e vai para o primeiro uso. O resto do contexto continua eager:
+ * lazy global atrasaria a primeira requisição real e desligaria os beans com {@code @Scheduled}.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    static BeanFactoryPostProcessor nonCriticalLazyInit() {
+        return new NonCriticalLazyInit();
+    }
+
+    static class NonCriticalLazyInit implements BeanFactoryPostProcessor, EnvironmentAware {
+
+        private List<String> packages = List.of();
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            packages = List.of(environment.getProperty("ecommerce.fast-start.lazy-packages", String[].class, new String[0]));
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String type = declaringClass(beanFactory, definition);
+                if (type != null && packages.stream().anyMatch(type::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        }
+
+        // Beans de @Bean não têm classe própria na definição: vale a classe de configuração que os declara
+        private static String declaringClass(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+            if (definition.getBeanClassName() != null) return definition.getBeanClassName();
+            String factoryBean = definition.getFactoryBeanName();
+            if (factoryBean == null || !beanFactory.containsBeanDefinition(factoryBean)) return null;
+            return beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+        }
+    }
+}
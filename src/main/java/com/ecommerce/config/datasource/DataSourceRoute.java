@@ -0,0 +1,6 @@
+package com.ecommerce.config.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
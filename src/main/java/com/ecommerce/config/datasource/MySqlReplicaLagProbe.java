@@ -0,0 +1,31 @@
+package com.ecommerce.config.datasource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Lê {@code Seconds_Behind_Source} de {@code SHOW REPLICA STATUS} (MySQL 8.0.22+).
+ */
+public class MySqlReplicaLagProbe implements ReplicaLagProbe {
+
+    // Réplica que aceita a conexão mas não responde não pode segurar o monitor
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    @Override
+    public Duration lag(DataSource replica) throws Exception {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!status.next()) throw new IllegalStateException("O servidor não está configurado como réplica.");
+
+                long seconds = status.getLong("Seconds_Behind_Source");
+                if (status.wasNull()) throw new IllegalStateException("Replicação parada (Seconds_Behind_Source = NULL).");
+                return Duration.ofSeconds(seconds);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.config.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lembra, por usuário, até quando as leituras devem ficar no primário depois de uma escrita,
+ * para que o usuário sempre enxergue o que acabou de gravar mesmo com a réplica atrasada.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite(String user) {
+        stickyUntil.put(user, System.nanoTime() + windowNanos);
+    }
+
+    public boolean recentlyWrote(String user) {
+        Long until = stickyUntil.get(user);
+        if (until == null) return false;
+        if (until - System.nanoTime() > 0) return true;
+        stickyUntil.remove(user, until);
+        return false;
+    }
+
+    /** Remove entradas vencidas de usuários que não voltaram a ler. */
+    @Scheduled(fixedDelayString = "PT1M")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
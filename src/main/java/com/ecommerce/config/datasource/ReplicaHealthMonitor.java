@@ -0,0 +1,70 @@
+package com.ecommerce.config.datasource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica periodicamente se a réplica responde e está dentro do atraso tolerado.
+ * Enquanto não estiver, as leituras voltam automaticamente para o primário.
+ * <p>
+ * O probe roda numa thread própria: com a réplica fora do ar ele espera o timeout de conexão,
+ * o que no scheduler compartilhado travaria os outros jobs (e, na criação do bean, o startup).
+ * Até a primeira verificação terminar, as leituras ficam no primário.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final DataSource replica;
+    private final ReplicaLagProbe probe;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "replica-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean usable;
+
+    public ReplicaHealthMonitor(DataSource replica, ReplicaLagProbe probe, Duration maxLag, Duration checkInterval) {
+        this.replica = replica;
+        this.probe = probe;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @PostConstruct
+    void start() {
+        checker.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checker.shutdownNow();
+    }
+
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Duration lag = probe.lag(replica);
+            usable = lag.compareTo(maxLag) <= 0;
+            if (!usable && wasUsable) log.warn("Réplica com atraso de {} (máximo {}); leituras no primário.", lag, maxLag);
+        } catch (Exception e) {
+            usable = false;
+            if (wasUsable) log.warn("Réplica indisponível; leituras no primário: {}", e.getMessage());
+        }
+        if (usable && !wasUsable) log.info("Réplica disponível; leituras read-only roteadas para ela.");
+    }
+}
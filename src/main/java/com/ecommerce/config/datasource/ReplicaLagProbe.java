@@ -0,0 +1,14 @@
+package com.ecommerce.config.datasource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Mede o atraso de replicação da réplica. Lança exceção se a réplica não responder
+ * ou se a replicação estiver parada.
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    Duration lag(DataSource replica) throws Exception;
+}
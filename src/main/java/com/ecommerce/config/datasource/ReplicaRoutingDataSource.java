@@ -0,0 +1,74 @@
+package com.ecommerce.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envia transações {@code readOnly} para a réplica e todo o resto para o primário.
+ * As leituras ficam no primário quando a réplica está fora do ar/atrasada ou quando o
+ * usuário atual escreveu há pouco (read-your-writes).
+ *
+ * Deve ficar atrás de um {@code LazyConnectionDataSourceProxy}, para que a rota seja decidida
+ * no primeiro statement, quando a flag read-only da transação já está definida.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    private final ReplicaHealthMonitor health;
+    private final ReadYourWritesTracker tracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicaHealthMonitor health, ReadYourWritesTracker tracker) {
+        this.health = health;
+        this.tracker = tracker;
+        setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite(user);
+            return DataSourceRoute.PRIMARY;
+        }
+
+        if (!health.isReplicaUsable()) return DataSourceRoute.PRIMARY;
+        if (user != null && tracker.recentlyWrote(user)) return DataSourceRoute.PRIMARY;
+        return DataSourceRoute.REPLICA;
+    }
+
+    private void trackWrite(String user) {
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        if (TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) return;
+
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tracker.recordWrite(user);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) return null;
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,267 @@
+package com.ecommerce.config.warmup;
+
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.security.JwtService;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Aquece a instância antes de ela se declarar pronta. O Spring Boot só muda o readiness para
+ * ACCEPTING_TRAFFIC depois que todos os {@link ApplicationRunner} retornam, então enquanto este
+ * runner trabalha o pod fica fora do load balancer.
+ * <p>
+ * Passos: preenche os pools do Hikari e depois repete, em rodadas, uma mistura ponderada de buscas
+ * de produto, lookups por id (HTTP em loopback pela stack inteira) e ciclos de emissão/validação
+ * de JWT, até o p99 das últimas rodadas estabilizar ou {@code max-duration} acabar.
+ * A parte de busca/lookup pode ser trocada por uma lista gravada de paths GET.
+ * <p>
+ * Toda requisição em loopback leva {@link WarmupTraffic#HEADER}, então as buscas sintéticas
+ * ficam fora das estatísticas de busca e não direcionam o pré-aquecimento do ES.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "ecommerce.warmup", name = "enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+    private final Environment environment;
+    private final ProductRepository productRepository;
+    private final JwtService jwtService;
+    private final ObjectProvider<DataSource> dataSources;
+
+    private final Duration maxDuration;
+    private final int concurrency;
+    private final int roundSize;
+    private final int stableRounds;
+    private final double tolerance;
+    private final Map<String, Integer> mix;
+    private final String recordedRequests;
+    private final int sampleSize;
+
+    public WarmupRunner(Environment environment,
+                        ProductRepository productRepository,
+                        JwtService jwtService,
+                        ObjectProvider<DataSource> dataSources,
+                        @Value("${ecommerce.warmup.max-duration:PT60S}") Duration maxDuration,
+                        @Value("${ecommerce.warmup.concurrency:8}") int concurrency,
+                        @Value("${ecommerce.warmup.round-size:200}") int roundSize,
+                        @Value("${ecommerce.warmup.stable-rounds:3}") int stableRounds,
+                        @Value("${ecommerce.warmup.tolerance:0.15}") double tolerance,
+                        @Value("${ecommerce.warmup.mix:search:4,lookup:4,token:2}") String mix,
+                        @Value("${ecommerce.warmup.recorded-requests:}") String recordedRequests,
+                        @Value("${ecommerce.warmup.sample-size:200}") int sampleSize) {
+        this.environment = environment;
+        this.productRepository = productRepository;
+        this.jwtService = jwtService;
+        this.dataSources = dataSources;
+        this.maxDuration = maxDuration;
+        this.concurrency = concurrency;
+        this.roundSize = roundSize;
+        this.stableRounds = stableRounds;
+        this.tolerance = tolerance;
+        this.mix = parseMix(mix);
+        this.recordedRequests = recordedRequests;
+        this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        prefillPools();
+
+        List<Callable<?>> operations = operations();
+        if (operations.isEmpty()) {
+            log.info("Warm-up ignorado: nenhuma operação configurada");
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            Deque<Long> recentP99 = new ArrayDeque<>();
+            int rounds = 0;
+            while (System.nanoTime() - started < maxDuration.toNanos()) {
+                long p99 = round(executor, operations);
+                rounds++;
+
+                recentP99.addLast(p99);
+                if (recentP99.size() > stableRounds) recentP99.removeFirst();
+                if (isStable(recentP99)) {
+                    log.info("Warm-up concluído após {} rodadas em {} ms, p99 {} µs",
+                            rounds, (System.nanoTime() - started) / 1_000_000, p99 / 1_000);
+                    return;
+                }
+            }
+            log.warn("Warm-up atingiu max-duration {} antes de a latência estabilizar (últimos p99 {} µs); pronto mesmo assim",
+                    maxDuration, recentP99.stream().map(n -> n / 1_000).toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean isStable(Deque<Long> recentP99) {
+        if (recentP99.size() < stableRounds) return false;
+        long min = Collections.min(recentP99);
+        long max = Collections.max(recentP99);
+        return max <= min * (1 + tolerance);
+    }
+
+    private long round(ExecutorService executor, List<Callable<?>> operations) throws InterruptedException {
+        List<Callable<Long>> timed = new ArrayList<>(roundSize);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < roundSize; i++) {
+            Callable<?> operation = operations.get(random.nextInt(operations.size()));
+            timed.add(() -> {
+                long start = System.nanoTime();
+                try {
+                    operation.call();
+                } catch (Exception e) {
+                    log.debug("Operação de warm-up falhou", e);
+                }
+                return System.nanoTime() - start;
+            });
+        }
+
+        long[] latencies = new long[roundSize];
+        List<Future<Long>> results = executor.invokeAll(timed);
+        for (int i = 0; i < latencies.length; i++) {
+            try {
+                latencies[i] = results.get(i).get();
+            } catch (ExecutionException e) {
+                latencies[i] = Long.MAX_VALUE;
+            }
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)];
+    }
+
+    /**
+     * Lista ponderada: cada operação aparece tantas vezes quanto o seu peso em {@code mix}.
+     */
+    private List<Callable<?>> operations() throws IOException {
+        String port = environment.getProperty("local.server.port");
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+        List<Callable<?>> weighted = new ArrayList<>();
+        if (port != null) {
+            String base = "http://localhost:" + port;
+            if (!recordedRequests.isBlank()) {
+                for (String path : recordedPaths()) {
+                    weighted.add(() -> get(http, base + path));
+                }
+            } else {
+                List<Product> sample = productRepository.findAll(PageRequest.of(0, sampleSize)).getContent();
+                List<UUID> ids = sample.stream().map(Product::getId).toList();
+                List<String> categories = sample.stream().map(Product::getCategory).distinct().toList();
+
+                addWeighted(weighted, "search", () -> get(http, base + "/api/products?size=10"
+                        + (categories.isEmpty() ? "" : "&category=" + URLEncoder.encode(pick(categories), StandardCharsets.UTF_8))));
+                addWeighted(weighted, "lookup", () -> get(http, base + "/api/products/"
+                        + (ids.isEmpty() ? UUID.randomUUID() : pick(ids))));
+            }
+        }
+
+        User user = User.builder().username("warmup").password("").role(Role.USER).build();
+        addWeighted(weighted, "token", () -> jwtService.isTokenValid(jwtService.generateToken(user), user));
+        return weighted;
+    }
+
+    // "search:4,lookup:4,token:2"
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Entrada inválida em ecommerce.warmup.mix: " + entry);
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    private void addWeighted(List<Callable<?>> weighted, String name, Callable<?> operation) {
+        for (int i = 0; i < mix.getOrDefault(name, 0); i++) weighted.add(operation);
+    }
+
+    // Um path GET por linha, ex. tirado do access log; linhas em branco e comentários com # são ignorados
+    private List<String> recordedPaths() throws IOException {
+        return Files.readAllLines(Path.of(recordedRequests)).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+    }
+
+    private static int get(HttpClient http, String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header(WarmupTraffic.HEADER, WarmupTraffic.TOKEN)
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    /**
+     * O Hikari abre as conexões de minimumIdle em background; segurar várias ao mesmo tempo
+     * obriga o pool a abri-las agora, e não no primeiro pico de tráfego.
+     * Os DataSources podem estar embrulhados (proxy do tracing, roteador da réplica), então os
+     * pools são desembrulhados e cada um é preenchido uma vez.
+     */
+    private void prefillPools() {
+        Set<HikariDataSource> pools = Collections.newSetFromMap(new IdentityHashMap<>());
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            if (pool != null) pools.add(pool);
+        });
+
+        pools.forEach(pool -> {
+            int target = Math.min(pool.getMaximumPoolSize(), Math.max(pool.getMinimumIdle(), concurrency));
+            List<Connection> held = new ArrayList<>(target);
+            try {
+                for (int i = 0; i < target; i++) held.add(pool.getConnection());
+                log.info("Pool {} preenchido com {} conexões", pool.getPoolName(), target);
+            } catch (SQLException e) {
+                log.warn("Não foi possível preencher o pool {}", pool.getPoolName(), e);
+            } finally {
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException ignored) {
+                        // volta para o pool de qualquer forma
+                    }
+                }
+            }
+        });
+    }
+}
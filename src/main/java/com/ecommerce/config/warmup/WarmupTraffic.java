@@ -0,0 +1,46 @@
+package com.ecommerce.config.warmup;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Marca as requisições de aquecimento do {@link WarmupRunner} para que não entrem nas
+ * estatísticas de busca (top queries, heavy hitters, pré-aquecimento do ES).
+ * <p>
+ * O runner envia {@link #HEADER} com um token aleatório gerado a cada start; o
+ * {@link WarmupTrafficFilter} só reconhece esse token, então um cliente externo não consegue
+ * esconder as suas buscas das métricas. Fora do aquecimento {@link #isCurrent()} custa uma
+ * leitura de ThreadLocal.
+ */
+public final class WarmupTraffic {
+
+    public static final String HEADER = "X-Warmup-Token";
+
+    static final String TOKEN = token();
+
+    private static final ThreadLocal<Boolean> CURRENT = new ThreadLocal<>();
+
+    private WarmupTraffic() {
+    }
+
+    private static String token() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    /**
+     * {@code true} enquanto a thread atende uma requisição de aquecimento.
+     */
+    public static boolean isCurrent() {
+        return CURRENT.get() != null;
+    }
+
+    static void begin() {
+        CURRENT.set(Boolean.TRUE);
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.config.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Reconhece as requisições do {@link WarmupRunner} pelo header {@link WarmupTraffic#HEADER}
+ * e as marca em {@link WarmupTraffic} durante o atendimento.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "ecommerce.warmup", name = "enabled", havingValue = "true")
+public class WarmupTrafficFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!isWarmup(request.getHeader(WarmupTraffic.HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        WarmupTraffic.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            WarmupTraffic.end();
+        }
+    }
+
+    private static boolean isWarmup(String token) {
+        return token != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), WarmupTraffic.TOKEN.getBytes(StandardCharsets.UTF_8));
+    }
+}
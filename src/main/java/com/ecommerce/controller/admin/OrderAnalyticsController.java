@@ -0,0 +1,58 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.service.analytics.OrderAnalyticsResults.BasketSizeDistribution;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.CategoryHourRevenue;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.RepeatBuyerStats;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.SnapshotInfo;
+import com.ecommerce.service.analytics.OrderAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Análises ad-hoc de pedidos pagos sobre o snapshot colunar em memória (nunca consulta o MySQL)
+ * — apenas ADMIN. Os dados vão até o momento do snapshot (GET /api/admin/analytics/orders).
+ * Exemplo: GET /api/admin/analytics/orders/revenue-by-category?from=2026-10-01T00:00:00Z&to=2026-10-02T00:00:00Z
+ */
+@RestController
+@RequestMapping("/api/admin/analytics/orders")
+@RequiredArgsConstructor
+public class OrderAnalyticsController {
+
+    private final OrderAnalyticsService analyticsService;
+
+    @GetMapping
+    public SnapshotInfo snapshot() {
+        return analyticsService.info();
+    }
+
+    // Receita e unidades por categoria, hora a hora
+    @GetMapping("/revenue-by-category")
+    public List<CategoryHourRevenue> revenueByCategory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return analyticsService.revenueByCategoryPerHour(from, to);
+    }
+
+    // Distribuição do tamanho da cesta (unidades por pedido)
+    @GetMapping("/basket-sizes")
+    public BasketSizeDistribution basketSizes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return analyticsService.basketSizes(from, to);
+    }
+
+    // Compradores com mais de um pedido no período
+    @GetMapping("/repeat-buyers")
+    public RepeatBuyerStats repeatBuyers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        return analyticsService.repeatBuyers(from, to);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.service.order.ExportFormat;
+import com.ecommerce.service.order.InvalidExportPeriodException;
+import com.ecommerce.service.order.OrderExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de pedidos para financeiro/BI — apenas ADMIN.
+ * Exemplo: GET /api/admin/orders/export?from=2026-01-01T00:00:00Z&to=2026-02-01T00:00:00Z&format=csv
+ * <p>
+ * A resposta é escrita direto do cursor do banco (sem montar lista em memória) e comprimida
+ * com gzip ({@code Content-Encoding: gzip}) quando o cliente aceita ({@code Accept-Encoding});
+ * {@code gzip=true|false} força a escolha.
+ */
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+public class OrderExportController {
+
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final OrderExportService exportService;
+
+    @GetMapping("/export")
+    public void export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (!from.isBefore(to)) throw new InvalidExportPeriodException(from, to);
+        boolean compress = gzip != null ? gzip : acceptsGzip(acceptEncoding);
+
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + from.getEpochSecond() + "-" + to.getEpochSecond() + "." + exportFormat.extension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compress) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        OutputStream body = response.getOutputStream();
+        try (OutputStream out = compress ? new GZIPOutputStream(body, GZIP_BUFFER) : body) {
+            exportService.export(from, to, exportFormat, out);
+        }
+    }
+
+    // "gzip" ou "*" sem q=0 (ex.: "gzip, deflate, br" ou "br;q=1.0, gzip;q=0.8")
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) continue;
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) refused |= parts[i].trim().matches("q=0(\\.0{0,3})?");
+            if (!refused) return true;
+        }
+        return false;
+    }
+}
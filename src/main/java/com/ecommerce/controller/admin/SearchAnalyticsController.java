@@ -0,0 +1,24 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.search.analytics.SearchAnalytics;
+import com.ecommerce.search.analytics.SearchAnalyticsReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Buscas mais frequentes (estimativa do count-min sketch) e latência por formato de busca — apenas ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/search-analytics")
+@RequiredArgsConstructor
+public class SearchAnalyticsController {
+
+    private final SearchAnalytics analytics;
+
+    @GetMapping
+    public SearchAnalyticsReport report() {
+        return analytics.report();
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.controller.admin;
+
+import com.ecommerce.tracing.SlowRequest;
+import com.ecommerce.tracing.SlowRequestLog;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Requisições lentas capturadas pelo tracing (spans + SQL), mais recentes primeiro — apenas ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/slow-requests")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ecommerce.tracing", name = "enabled", havingValue = "true")
+public class SlowRequestController {
+
+    private final SlowRequestLog slowRequests;
+
+    @GetMapping
+    public List<SlowRequest> recent(@RequestParam(defaultValue = "20") @Min(1) int limit) {
+        return slowRequests.recent(limit);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.controller.auth;
+
+import com.ecommerce.api.dto.AuthRequestDTO;
+import com.ecommerce.api.dto.AuthResponseDTO;
+import com.ecommerce.service.auth.AuthService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cadastro e login. As respostas são assíncronas: a thread do Tomcat é liberada enquanto o
+ * BCrypt roda no pool dedicado, e com o pool saturado a resposta é 503 imediato.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final AuthService authService;
+
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> register(@Valid @RequestBody AuthRequestDTO request) {
+        return authService.register(request)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> login(@Valid @RequestBody AuthRequestDTO request) {
+        return authService.login(request).thenApply(ResponseEntity::ok);
+    }
+}
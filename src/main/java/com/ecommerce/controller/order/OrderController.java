@@ -1,5 +1,7 @@
 package com.ecommerce.controller.order;
 
+import com.ecommerce.api.dto.OrderDTO;
+import com.ecommerce.api.mapper.OrderMapper;
 import com.ecommerce.domain.order.Order;
 import com.ecommerce.domain.order.OrderItem;
 import com.ecommerce.domain.order.OrderStatus;
@@ -24,12 +26,13 @@ public class OrderController {
 
     private final OrderService orderService;
     private final UserService userService;
+    private final OrderMapper orderMapper;
 
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody List<OrderItem> items) {
+    public ResponseEntity<OrderDTO> createOrder(@RequestBody List<OrderItem> items) {
         User user = userService.getAuthenticatedUser();
         Order order = orderService.createOrder(user, items);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(orderMapper.toDTO(order));
     }
 
       /**
@@ -37,10 +40,10 @@ public class OrderController {
      */
 
     @GetMapping
-    public ResponseEntity<List<Order>> listMyOrders() {
+    public ResponseEntity<List<OrderDTO>> listMyOrders() {
         User user = userService.getAuthenticatedUser();
         List<Order> orders = orderService.listOrdersByUser(user);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok(orderMapper.toDTO(orders));
     }
 
      /**
@@ -48,10 +51,10 @@ public class OrderController {
      */
 
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable UUID id) {
+    public ResponseEntity<OrderDTO> getOrderById(@PathVariable UUID id) {
         User user = userService.getAuthenticatedUser();
         Order order = orderService.findById(id, user);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(orderMapper.toDTO(order));
     }
 
      /**
@@ -60,13 +63,13 @@ public class OrderController {
      */
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<Order> updateStatus(
+    public ResponseEntity<OrderDTO> updateStatus(
             @PathVariable UUID id,
             @RequestParam OrderStatus newStatus
     ) {
         User user = userService.getAuthenticatedUser();
         Order order = orderService.updateStatus(id, newStatus, user);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(orderMapper.toDTO(order));
     }
 
        /**
@@ -74,9 +77,9 @@ public class OrderController {
      */
 
     @PutMapping("/{id}/cancel")
-    public ResponseEntity<Order> cancelOrder(@PathVariable UUID id) {
+    public ResponseEntity<OrderDTO> cancelOrder(@PathVariable UUID id) {
         User user = userService.getAuthenticatedUser();
         Order order = orderService.cancelOrder(id, user);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(orderMapper.toDTO(order));
     }
 }
@@ -0,0 +1,49 @@
+package com.ecommerce.controller.reservation;
+
+import com.ecommerce.api.dto.ReservationDTO;
+import com.ecommerce.api.dto.ReservationRequestDTO;
+import com.ecommerce.domain.reservation.StockReservation;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.service.reservation.StockReservationService;
+import com.ecommerce.service.user.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Reservas de estoque do carrinho. A reserva expira sozinha após o TTL
+ * ({@code ecommerce.reservations.ttl}) e é consumida ao criar o pedido.
+ */
+@RestController
+@RequestMapping("/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+
+    private final StockReservationService reservationService;
+    private final UserService userService;
+
+    @PostMapping
+    public ResponseEntity<ReservationDTO> reserve(@Valid @RequestBody ReservationRequestDTO request) {
+        User user = userService.getAuthenticatedUser();
+        StockReservation reservation = reservationService.reserve(user, request.productId(), request.quantity());
+        return ResponseEntity.ok(new ReservationDTO(
+                reservation.getId(),
+                request.productId(),
+                reservation.getQuantity(),
+                reservation.getStatus(),
+                reservation.getExpiresAt()));
+    }
+
+    /**
+     * Libera a reserva antes do prazo (item removido do carrinho).
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable UUID id) {
+        User user = userService.getAuthenticatedUser();
+        reservationService.release(id, user);
+        return ResponseEntity.noContent().build();
+    }
+}
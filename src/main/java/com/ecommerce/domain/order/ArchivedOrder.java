@@ -0,0 +1,62 @@
+package com.ecommerce.domain.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Pedido finalizado movido para o arquivo frio.
+ * {@code payload} é o pedido completo (com itens) em JSON comprimido com gzip.
+ * <p>
+ * O id vem do pedido original; como {@link Persistable}, uma instância construída é nova e o
+ * {@code saveAll} faz {@code persist} direto, sem o SELECT por linha do {@code merge}.
+ */
+@Entity
+@Table(name = "order_archive")
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+public class ArchivedOrder implements Persistable<UUID> {
+
+    @Id
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(nullable = false, length = 16)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -1,10 +1,13 @@
 package com.ecommerce.domain.order;
 
+import com.ecommerce.common.id.TimeOrderedUuid;
+import com.ecommerce.common.money.Money;
+import com.ecommerce.common.money.MoneyConverter;
 import com.ecommerce.domain.user.User;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
-import java.math.BigDecimal;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,8 +20,9 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue
-    @UuidGenerator
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -29,19 +33,24 @@ public class Order {
     @Column(nullable = false, length = 20)
     private OrderStatus status;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal totalValue;
+    private Money totalValue;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
-    @Column(nullable = false)
+    // Chave de partição (orders é particionada por mês)
+    @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
     @Column(nullable = false)
     private Instant updatedAt;
 
+    @Version
+    private Long version;
+
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
@@ -58,7 +67,7 @@ public class Order {
         createdAt = now;
         updatedAt = now;
         if (status == null) status = OrderStatus.CREATED;
-        if (totalValue == null) totalValue = BigDecimal.ZERO;
+        if (totalValue == null) totalValue = Money.zero();
     }
 
     @PreUpdate
@@ -1,10 +1,14 @@
 package com.ecommerce.domain.order;
 
+import com.ecommerce.common.id.TimeOrderedUuid;
+import com.ecommerce.common.money.Money;
+import com.ecommerce.common.money.MoneyConverter;
 import com.ecommerce.domain.product.Product;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
-import java.math.BigDecimal;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -14,8 +18,9 @@ import java.util.UUID;
 public class OrderItem {
 
     @Id
-    @GeneratedValue
-    @UuidGenerator
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -29,12 +34,24 @@ public class OrderItem {
     @Column(nullable = false, length = 150)
     private String productName;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal unitPrice;
+    private Money unitPrice;
 
     @Column(nullable = false)
     private Integer quantity;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal subtotal;
+    private Money subtotal;
+
+    // Cópia da data do pedido: chave de partição de order_items
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null)
+            createdAt = order != null && order.getCreatedAt() != null ? order.getCreatedAt() : Instant.now();
+    }
 }
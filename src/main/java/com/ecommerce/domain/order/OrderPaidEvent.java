@@ -0,0 +1,12 @@
+package com.ecommerce.domain.order;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publicado quando um pedido passa para PAID; os ouvintes recebem após o commit.
+ */
+public record OrderPaidEvent(
+        UUID orderId,
+        List<UUID> productIds
+) {}
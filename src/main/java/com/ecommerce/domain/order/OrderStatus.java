@@ -1,8 +1,27 @@
 package com.ecommerce.domain.order;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     CREATED,
     PAID,
     SHIPPED,
-    CANCELED
+    CANCELED;
+
+    // Única fonte das transições permitidas
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(CREATED, EnumSet.of(PAID, CANCELED));
+        TRANSITIONS.put(PAID, EnumSet.of(SHIPPED));
+        TRANSITIONS.put(SHIPPED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
 }
@@ -1,8 +1,10 @@
 package com.ecommerce.domain.product;
 
+import com.ecommerce.common.id.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -15,8 +17,9 @@ import java.util.UUID;
 public class Product {
 
     @Id
-    @GeneratedValue
-    @UuidGenerator
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
     private UUID id;
 
     @Column(nullable = false, length = 100)
@@ -0,0 +1,117 @@
+package com.ecommerce.domain.product;
+
+import com.ecommerce.api.dto.BulkAdjustResultDTO;
+import com.ecommerce.api.dto.ProductBulkAdjustDTO;
+import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.search.product.ProductIndexWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ajustes em massa de preço e estoque.
+ * Cada lote de ids é atualizado com um único UPDATE em transação curta (sem travar a tabela
+ * inteira) e depois reindexado no Elasticsearch com uma requisição bulk.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductBulkService {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final ProductRepository productRepository;
+    private final ProductIndexWriter indexWriter;
+    private final ProductMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ecommerce.products.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    public BulkAdjustResultDTO adjust(ProductBulkAdjustDTO request) {
+        validate(request);
+        long start = System.nanoTime();
+
+        BigDecimal factor = request.pricePercent() != null
+                ? BigDecimal.ONE.add(request.pricePercent().divide(BigDecimal.valueOf(100), MathContext.DECIMAL64))
+                : null;
+
+        long matched = 0;
+        long updated = 0;
+        long priceSkipped = 0;
+
+        if (request.ids() != null) {
+            List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(request.ids()));
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                // Ids inexistentes não contam como encontrados
+                ChunkResult result = applyChunk(ids.subList(from, Math.min(from + chunkSize, ids.size())), request, factor);
+                matched += result.matched();
+                updated += result.updated();
+                priceSkipped += result.priceSkipped();
+            }
+        } else {
+            UUID after = MIN_ID;
+            List<UUID> chunk;
+            do {
+                chunk = productRepository.findIdsByCategoryAfter(request.category(), after, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) break;
+                ChunkResult result = applyChunk(chunk, request, factor);
+                matched += result.matched();
+                updated += result.updated();
+                priceSkipped += result.priceSkipped();
+                after = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == chunkSize);
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        return new BulkAdjustResultDTO(matched, updated, priceSkipped, durationMs);
+    }
+
+    private ChunkResult applyChunk(List<UUID> chunk, ProductBulkAdjustDTO request, BigDecimal factor) {
+        ChunkUpdate update = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            int priceRows = factor != null ? productRepository.multiplyPrice(chunk, factor, now) : 0;
+            int rows = priceRows;
+            if (request.stockQuantity() != null) rows = Math.max(rows, productRepository.setStock(chunk, request.stockQuantity(), now));
+            if (request.stockDelta() != null) rows = Math.max(rows, productRepository.addStock(chunk, request.stockDelta(), now));
+            return new ChunkUpdate(rows, priceRows);
+        });
+
+        // Reindexa o lote já commitado no Elasticsearch em uma única requisição bulk;
+        // as linhas relidas são também as que existem de fato (encontradas)
+        List<Product> products = productRepository.findAllById(chunk);
+        indexWriter.indexAll(products.stream()
+                .map(mapper::toDocument)
+                .toList());
+
+        // O UPDATE de preço só deixa de fora os encontrados cujo preço arredondaria para zero
+        int priceSkipped = factor != null ? Math.max(0, products.size() - update.priceRows()) : 0;
+        return new ChunkResult(products.size(), update.rows(), priceSkipped);
+    }
+
+    private record ChunkUpdate(int rows, int priceRows) {}
+
+    private record ChunkResult(int matched, int updated, int priceSkipped) {}
+
+    private static void validate(ProductBulkAdjustDTO request) {
+        boolean byCategory = request.category() != null && !request.category().isBlank();
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        if (byCategory == byIds)
+            throw new IllegalArgumentException("Informe exatamente um alvo: category ou ids.");
+
+        if (request.pricePercent() == null && request.stockDelta() == null && request.stockQuantity() == null)
+            throw new IllegalArgumentException("Informe ao menos um ajuste: pricePercent, stockDelta ou stockQuantity.");
+
+        if (request.stockDelta() != null && request.stockQuantity() != null)
+            throw new IllegalArgumentException("Use stockDelta ou stockQuantity, não ambos.");
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.domain.product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Checksum de um produto usado para comparar MySQL e Elasticsearch.
+ * Deve produzir o mesmo valor que {@link ProductRepository#checksumRange}:
+ * CRC32 de "hex(id)|updatedAt em epoch millis|estoque|preço com 2 casas".
+ * <p>
+ * As faixas somam o checksum dobrado em {@value #FOLD_BITS} bits ({@link #fold}): o {@code sum}
+ * do ES acumula em double, e a soma só é exata enquanto fica abaixo de 2^53 — com 21 bits por
+ * documento, até 2^32 documentos por faixa.
+ */
+public final class ProductChecksum {
+
+    public static final int FOLD_BITS = 21;
+    private static final long FOLD_MASK = (1L << FOLD_BITS) - 1;
+
+    /**
+     * Mesma dobra de {@link #fold} em Painless, aplicada ao campo {@code checksum} do índice.
+     */
+    public static final String FOLD_SCRIPT =
+            "long c = doc['checksum'].value; return (c & " + FOLD_MASK + "L) ^ (c >>> " + FOLD_BITS + ");";
+
+    private ProductChecksum() {}
+
+    /**
+     * Reduz o CRC32 a {@value #FOLD_BITS} bits (xor dos 11 bits altos nos baixos).
+     */
+    public static long fold(long checksum) {
+        return (checksum & FOLD_MASK) ^ (checksum >>> FOLD_BITS);
+    }
+
+    public static Long of(Product product) {
+        if (product.getId() == null) return null;
+        return of(product.getId(), product.getUpdatedAt(), product.getStockQuantity(), product.getPrice());
+    }
+
+    public static long of(UUID id, Instant updatedAt, Integer stockQuantity, BigDecimal price) {
+        String canonical = id.toString().replace("-", "")
+                + '|' + (updatedAt != null ? updatedAt.toEpochMilli() : "")
+                + '|' + (stockQuantity != null ? stockQuantity : "")
+                + '|' + (price != null ? price.setScale(2, RoundingMode.HALF_UP).toPlainString() : "");
+
+        CRC32 crc = new CRC32();
+        crc.update(canonical.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.domain.product;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos do produto que podem ser pedidos via sparse fieldset ({@code fields=name,price});
+ * os nomes são os mesmos do documento no ES e do DTO. O id é sempre devolvido.
+ */
+public enum ProductField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    CATEGORY("category"),
+    PRICE("price"),
+    STOCK_QUANTITY("stockQuantity"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    public static final Set<ProductField> ALL = EnumSet.allOf(ProductField.class);
+
+    private final String fieldName;
+
+    ProductField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Converte os nomes recebidos na query string. Vazio ou nulo significa todos os campos.
+     *
+     * @throws UnknownProductFieldException se algum nome não for um campo do produto (400)
+     */
+    public static Set<ProductField> parse(Collection<String> names) {
+        if (names == null || names.isEmpty()) return ALL;
+
+        EnumSet<ProductField> fields = EnumSet.of(ID);
+        for (String name : names) {
+            if (name == null || name.isBlank()) continue;
+            fields.add(fromName(name.trim()));
+        }
+        return fields;
+    }
+
+    private static ProductField fromName(String name) {
+        for (ProductField field : values()) {
+            if (field.fieldName.equals(name)) return field;
+        }
+        throw new UnknownProductFieldException(name);
+    }
+}
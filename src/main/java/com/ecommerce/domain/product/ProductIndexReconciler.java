@@ -0,0 +1,225 @@
+package com.ecommerce.domain.product;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.search.product.ProductDocument;
+import com.ecommerce.search.product.ProductIndexWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reconciliador incremental MySQL ↔ Elasticsearch.
+ *
+ * O espaço de ids (128 bits) é dividido em faixas; para cada faixa os dois lados devolvem
+ * apenas (quantidade, soma dos checksums dobrados — exata também no double do ES, ver
+ * {@link ProductChecksum}). Faixas iguais são descartadas, faixas diferentes
+ * são subdivididas até ficarem pequenas o bastante para comparar documento a documento e
+ * reparar com bulk index/delete. A cada execução agendada só {@code ranges-per-run} faixas
+ * são verificadas, então uma passada completa se espalha ao longo do tempo.
+ *
+ * As faixas são comparadas pela ordem dos bytes do id, que é a mesma no BINARY(16) do MySQL
+ * e no keyword em minúsculas do ES.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ecommerce.reconciler", name = "enabled", havingValue = "true")
+public class ProductIndexReconciler {
+
+    private static final BigInteger MAX_ID = BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE);
+    private static final String CHECKSUM_AGG = "checksum";
+
+    private final ProductRepository productRepository;
+    private final ProductIndexWriter indexWriter;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ProductMapper mapper;
+
+    @Value("${ecommerce.reconciler.fanout:16}")
+    private int fanout;
+
+    @Value("${ecommerce.reconciler.leaf-size:500}")
+    private int leafSize;
+
+    @Value("${ecommerce.reconciler.ranges-per-run:50}")
+    private int rangesPerRun;
+
+    // Faixas ainda não verificadas na passada atual (busca em profundidade)
+    private final Deque<IdRange> pending = new ArrayDeque<>();
+    private PassStats stats = new PassStats();
+
+    @Scheduled(fixedDelayString = "${ecommerce.reconciler.interval:PT1M}",
+               initialDelayString = "${ecommerce.reconciler.initial-delay:PT1M}")
+    public synchronized void runIncrement() {
+        if (pending.isEmpty()) {
+            stats = new PassStats();
+            pending.addAll(new IdRange(BigInteger.ZERO, MAX_ID).split(fanout));
+        }
+
+        for (int i = 0; i < rangesPerRun && !pending.isEmpty(); i++) {
+            check(pending.poll());
+        }
+
+        if (pending.isEmpty()) {
+            log.info("Reconciliação MySQL ↔ ES concluída: {} faixas verificadas, {} reparadas, {} docs indexados, {} removidos",
+                    stats.rangesChecked, stats.rangesRepaired, stats.indexed, stats.deleted);
+        }
+    }
+
+    private void check(IdRange range) {
+        stats.rangesChecked++;
+
+        ProductRepository.RangeChecksum db = productRepository.checksumRange(range.loId(), range.hiId());
+        long dbCount = db.getRowCount().longValue();
+        long dbSum = db.getChecksum().longValue();
+        RangeSummary es = indexSummary(range);
+
+        if (dbCount == es.count() && dbSum == es.checksum()) return;
+
+        if (Math.max(dbCount, es.count()) <= leafSize || range.isSingleId()) {
+            repair(range);
+            return;
+        }
+
+        // Empilha as subfaixas na frente para terminar um ramo antes de abrir outro
+        List<IdRange> children = range.split(fanout);
+        for (int i = children.size() - 1; i >= 0; i--) pending.addFirst(children.get(i));
+    }
+
+    private RangeSummary indexSummary(IdRange range) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(rangeQuery(range))
+                .withAggregation(CHECKSUM_AGG, Aggregation.of(a -> a.sum(s -> s
+                        .script(sc -> sc.inline(i -> i.source(ProductChecksum.FOLD_SCRIPT))))))
+                .withMaxResults(0)
+                .withTrackTotalHits(true)
+                .build();
+
+        SearchHits<ProductDocument> hits = elasticsearchOperations.search(query, ProductDocument.class);
+        ElasticsearchAggregations aggregations = (ElasticsearchAggregations) Objects.requireNonNull(hits.getAggregations());
+        double sum = aggregations.get(CHECKSUM_AGG).aggregation().getAggregate().sum().value();
+        return new RangeSummary(hits.getTotalHits(), (long) sum);
+    }
+
+    private void repair(IdRange range) {
+        stats.rangesRepaired++;
+
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(rangeQuery(range))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"id", "checksum"}, null))
+                .withMaxResults(leafSize)
+                .build();
+
+        // Com roteamento por categoria o mesmo id pode aparecer em mais de um shard
+        Map<String, List<SearchHit<ProductDocument>>> indexed = new HashMap<>();
+        for (SearchHit<ProductDocument> hit : elasticsearchOperations.search(query, ProductDocument.class)) {
+            indexed.computeIfAbsent(hit.getId(), id -> new ArrayList<>()).add(hit);
+        }
+
+        List<ProductDocument> toIndex = new ArrayList<>();
+        List<SearchHit<ProductDocument>> stale = new ArrayList<>();
+        Set<String> missing = new HashSet<>(indexed.keySet());
+        for (Product product : productRepository.findByIdBetween(range.loId(), range.hiId())) {
+            String id = product.getId().toString();
+            missing.remove(id);
+
+            // Cópias em shard errado (categoria antiga, ou indexadas antes de ligar o roteamento)
+            // Roteamentos diferentes podem cair no mesmo shard, e aí o delete da cópia velha apaga
+            // também a atual: produto com cópia velha é sempre reindexado, depois dos deletes
+            String routing = indexWriter.routing(product.getCategory());
+            boolean current = false;
+            boolean hasStale = false;
+            for (SearchHit<ProductDocument> hit : indexed.getOrDefault(id, List.of())) {
+                if (!Objects.equals(hit.getRouting(), routing)) {
+                    stale.add(hit);
+                    hasStale = true;
+                } else if (Objects.equals(hit.getContent().getChecksum(), ProductChecksum.of(product))) {
+                    current = true;
+                }
+            }
+            if (!current || hasStale) toIndex.add(mapper.toDocument(product));
+        }
+        missing.forEach(id -> stale.addAll(indexed.get(id)));
+
+        if (!stale.isEmpty()) indexWriter.deleteAll(stale);
+        if (!toIndex.isEmpty()) indexWriter.indexAll(toIndex);
+
+        stats.indexed += toIndex.size();
+        stats.deleted += stale.size();
+    }
+
+    private static Query rangeQuery(IdRange range) {
+        String lo = range.loId().toString();
+        String hi = range.hiId().toString();
+        return Query.of(q -> q.range(r -> r.field("id").gte(JsonData.of(lo)).lte(JsonData.of(hi))));
+    }
+
+    private record RangeSummary(long count, long checksum) {}
+
+    /**
+     * Faixa fechada [lo, hi] de ids vistos como inteiros sem sinal de 128 bits.
+     */
+    record IdRange(BigInteger lo, BigInteger hi) {
+
+        UUID loId() {
+            return toUuid(lo);
+        }
+
+        UUID hiId() {
+            return toUuid(hi);
+        }
+
+        boolean isSingleId() {
+            return lo.equals(hi);
+        }
+
+        List<IdRange> split(int parts) {
+            BigInteger width = hi.subtract(lo).add(BigInteger.ONE);
+            BigInteger step = width.divide(BigInteger.valueOf(parts)).max(BigInteger.ONE);
+
+            List<IdRange> children = new ArrayList<>(parts);
+            BigInteger start = lo;
+            while (start.compareTo(hi) <= 0) {
+                BigInteger end = start.add(step).subtract(BigInteger.ONE);
+                if (children.size() == parts - 1 || end.compareTo(hi) > 0) end = hi;
+                children.add(new IdRange(start, end));
+                start = end.add(BigInteger.ONE);
+            }
+            return children;
+        }
+
+        private static UUID toUuid(BigInteger value) {
+            return new UUID(value.shiftRight(64).longValue(), value.longValue());
+        }
+    }
+
+    private static class PassStats {
+        long rangesChecked;
+        long rangesRepaired;
+        long indexed;
+        long deleted;
+    }
+}
@@ -1,8 +1,78 @@
 package com.ecommerce.domain.product;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
+
+    // Paginação por chave (keyset) dos ids de uma categoria
+    @Query("select p.id from Product p where p.category = :category and p.id > :after order by p.id")
+    List<UUID> findIdsByCategoryAfter(@Param("category") String category,
+                                      @Param("after") UUID after,
+                                      Pageable pageable);
+
+    // Preço que arredondaria para zero fica como está; o ProductBulkService reporta esses como priceSkipped
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Product p
+               set p.price = round(p.price * :factor, 2), p.updatedAt = :now
+             where p.id in :ids and round(p.price * :factor, 2) > 0
+            """)
+    int multiplyPrice(@Param("ids") Collection<UUID> ids,
+                      @Param("factor") BigDecimal factor,
+                      @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Product p
+               set p.stockQuantity = case when p.stockQuantity + :delta < 0 then 0 else p.stockQuantity + :delta end,
+                   p.updatedAt = :now
+             where p.id in :ids
+            """)
+    int addStock(@Param("ids") Collection<UUID> ids,
+                 @Param("delta") int delta,
+                 @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stockQuantity = :quantity, p.updatedAt = :now where p.id in :ids")
+    int setStock(@Param("ids") Collection<UUID> ids,
+                 @Param("quantity") int quantity,
+                 @Param("now") Instant now);
+
+    // Devolve estoque de forma atômica (sem read-modify-write)
+    @Modifying
+    @Query("update Product p set p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = :now where p.id = :id")
+    int restock(@Param("id") UUID id,
+                @Param("quantity") int quantity,
+                @Param("now") Instant now);
+
+    // Contagem e soma dos checksums dobrados de uma faixa de ids (ver ProductChecksum.fold)
+    @Query(value = """
+            SELECT COUNT(*) AS rowCount,
+                   COALESCE(SUM((c & 2097151) ^ (c >> 21)), 0) AS checksum
+              FROM (SELECT CRC32(CONCAT_WS('|',
+                           LOWER(HEX(id)),
+                           FLOOR(TIMESTAMPDIFF(MICROSECOND, '1970-01-01 00:00:00', updated_at) / 1000),
+                           stock_quantity,
+                           price)) AS c
+                      FROM products
+                     WHERE id BETWEEN :lo AND :hi) crc
+            """, nativeQuery = true)
+    RangeChecksum checksumRange(@Param("lo") UUID lo, @Param("hi") UUID hi);
+
+    List<Product> findByIdBetween(UUID lo, UUID hi);
+
+    interface RangeChecksum {
+        Number getRowCount();
+        Number getChecksum();
+    }
 }
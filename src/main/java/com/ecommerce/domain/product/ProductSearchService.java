@@ -2,9 +2,14 @@ package com.ecommerce.domain.product;
 
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
 import co.elastic.clients.json.JsonData;
+import com.ecommerce.common.concurrent.SingleFlight;
+import com.ecommerce.config.warmup.WarmupTraffic;
+import com.ecommerce.search.analytics.SearchAnalytics;
+import com.ecommerce.search.analytics.SearchQuery;
 import com.ecommerce.search.product.ProductDocument;
-import com.ecommerce.search.product.ProductSearchRepository;
-import lombok.RequiredArgsConstructor;
+import com.ecommerce.search.product.ProductIndexWriter;
+import com.ecommerce.tracing.RequestTrace;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -12,18 +17,35 @@ import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 public class ProductSearchService {
 
     private final ElasticsearchOperations elasticsearchOperations;
-    private final ProductSearchRepository searchRepository;
+    private final ProductIndexWriter indexWriter;
+    private final SearchAnalytics analytics;
+
+    // Buscas idênticas simultâneas (mesmos filtros, página e campos) viram uma só consulta ao ES;
+    // ProductDocument é mutável, então cada seguidor recebe a sua cópia da página
+    private final SingleFlight<SearchQuery, Page<ProductDocument>> searchFlights;
+
+    public ProductSearchService(ElasticsearchOperations elasticsearchOperations,
+                                ProductIndexWriter indexWriter,
+                                SearchAnalytics analytics,
+                                @Value("${ecommerce.products.single-flight.timeout:PT2S}") Duration singleFlightTimeout) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.indexWriter = indexWriter;
+        this.analytics = analytics;
+        this.searchFlights = new SingleFlight<>(singleFlightTimeout, ProductSearchService::copy);
+    }
 
     public Page<ProductDocument> search(
             String name,
@@ -31,8 +53,47 @@ public class ProductSearchService {
             BigDecimal minPrice,
             BigDecimal maxPrice,
             int page,
-            int size
+            int size,
+            Set<ProductField> fields
     ) {
+        // 10 e 10.00 são a mesma busca
+        SearchQuery key = new SearchQuery(name, category,
+                minPrice == null ? null : minPrice.stripTrailingZeros(),
+                maxPrice == null ? null : maxPrice.stripTrailingZeros(),
+                page, size, Set.copyOf(fields));
+        long start = System.nanoTime();
+        try {
+            return searchFlights.execute(key, () -> doSearch(key));
+        } finally {
+            // Buscas sintéticas do aquecimento não contam como demanda real
+            if (!WarmupTraffic.isCurrent()) analytics.record(key, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Executa a busca direto no ES, sem passar pelo single-flight nem pelo analytics;
+     * usado para pré-aquecer o ES com as buscas mais frequentes.
+     */
+    public Page<ProductDocument> prewarm(SearchQuery query) {
+        return doSearch(query);
+    }
+
+    private static Page<ProductDocument> copy(Page<ProductDocument> page) {
+        List<ProductDocument> docs = page.getContent().stream()
+                .map(doc -> doc.toBuilder().build())
+                .toList();
+        return new PageImpl<>(docs, page.getPageable(), page.getTotalElements());
+    }
+
+    private Page<ProductDocument> doSearch(SearchQuery key) {
+        String name = key.name();
+        String category = key.category();
+        BigDecimal minPrice = key.minPrice();
+        BigDecimal maxPrice = key.maxPrice();
+        int page = key.page();
+        int size = key.size();
+        Set<ProductField> fields = key.fields();
+
         List<Query> must = new ArrayList<>();
         List<Query> filters = new ArrayList<>();
 
@@ -65,13 +126,28 @@ public class ProductSearchService {
 
         Query finalQuery = Query.of(q -> q.bool(boolBuilder.build()));
 
-        var nativeQuery = NativeQuery.builder()
+        var queryBuilder = NativeQuery.builder()
                 .withQuery(finalQuery)
-                .withPageable(PageRequest.of(page, size))
-                .build();
+                .withPageable(PageRequest.of(page, size));
+
+        // Sparse fieldset: o ES devolve só os campos pedidos no _source
+        if (!fields.containsAll(ProductField.ALL)) {
+            String[] includes = fields.stream().map(ProductField::fieldName).toArray(String[]::new);
+            queryBuilder.withSourceFilter(new FetchSourceFilter(includes, null));
+        }
+
+        // Com roteamento por categoria, a busca filtrada vai só ao shard da categoria;
+        // sem categoria, vai a todos
+        String routing = indexWriter.routing(category);
+        if (routing != null) queryBuilder.withRoute(routing);
+
+        var nativeQuery = queryBuilder.build();
 
         // Executa via ElasticsearchOperations
-        SearchHits<ProductDocument> hits = elasticsearchOperations.search(nativeQuery, ProductDocument.class);
+        SearchHits<ProductDocument> hits;
+        try (RequestTrace.Scope ignored = RequestTrace.span("elasticsearch.search")) {
+            hits = elasticsearchOperations.search(nativeQuery, ProductDocument.class);
+        }
 
         List<ProductDocument> docs = hits.stream()
                 .map(SearchHit::getContent)
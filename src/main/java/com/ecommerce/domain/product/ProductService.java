@@ -1,25 +1,50 @@
 package com.ecommerce.domain.product;
 
+import com.ecommerce.api.dto.ProductBatchDTO;
 import com.ecommerce.api.dto.ProductDTO;
 import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.common.concurrent.SingleFlight;
 import com.ecommerce.search.product.ProductDocument;
-import com.ecommerce.search.product.ProductSearchRepository;
+import com.ecommerce.search.product.ProductIndexWriter;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class ProductService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final ProductRepository productRepository;
-    private final ProductSearchRepository searchRepository;
+    private final ProductIndexWriter indexWriter;
     private final ProductMapper mapper;
 
+    // GETs concorrentes do mesmo id compartilham uma única consulta ao MySQL;
+    // ProductDTO é um record de campos imutáveis, então a mesma instância serve a todos
+    private final SingleFlight<UUID, ProductDTO> findByIdFlights;
+
+    public ProductService(ProductRepository productRepository,
+                          ProductIndexWriter indexWriter,
+                          ProductMapper mapper,
+                          @Value("${ecommerce.products.single-flight.timeout:PT2S}") Duration singleFlightTimeout) {
+        this.productRepository = productRepository;
+        this.indexWriter = indexWriter;
+        this.mapper = mapper;
+        this.findByIdFlights = new SingleFlight<>(singleFlightTimeout);
+    }
+
     /**
      * Cria um novo produto no MySQL e o replica no Elasticsearch.
      */
@@ -31,7 +56,7 @@ public class ProductService {
 
         // indexa no Elasticsearch
         ProductDocument doc = mapper.toDocument(saved);
-        searchRepository.save(doc);
+        indexWriter.index(doc);
 
         return mapper.toDTO(saved);
     }
@@ -43,6 +68,7 @@ public class ProductService {
     public ProductDTO update(UUID id, ProductDTO dto) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado: " + id));
+        String previousCategory = product.getCategory();
 
         product.setName(dto.name());
         product.setDescription(dto.description());
@@ -52,9 +78,9 @@ public class ProductService {
 
         Product saved = productRepository.save(product);
 
-        // replica a atualização no Elasticsearch
+        // replica a atualização no Elasticsearch (troca de shard se a categoria mudou)
         ProductDocument doc = mapper.toDocument(saved);
-        searchRepository.save(doc);
+        indexWriter.reindex(doc, previousCategory);
 
         return mapper.toDTO(saved);
     }
@@ -64,24 +90,49 @@ public class ProductService {
      */
     @Transactional
     public void delete(UUID id) {
-        if (!productRepository.existsById(id)) {
-            throw new EntityNotFoundException("Produto não encontrado: " + id);
-        }
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado: " + id));
 
         // remove do MySQL
-        productRepository.deleteById(id);
+        productRepository.delete(product);
 
-        // remove do Elasticsearch — converte UUID → String
-        searchRepository.deleteById(id.toString());
+        // remove do Elasticsearch — converte UUID → String; a categoria indica o shard
+        indexWriter.delete(id.toString(), product.getCategory());
     }
 
     /**
-     * Busca um produto por ID.
+     * Busca um produto por ID. Requisições simultâneas para o mesmo id são coalescidas.
      */
     public ProductDTO findById(UUID id) {
-        return productRepository.findById(id)
+        return findByIdFlights.execute(id, () -> productRepository.findById(id)
                 .map(mapper::toDTO)
-                .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado: " + id));
+                .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado: " + id)));
+    }
+
+    /**
+     * Busca vários produtos em uma única consulta, mantendo a ordem pedida.
+     * Ids repetidos são devolvidos uma vez; os inexistentes vão em {@code missing}.
+     */
+    public ProductBatchDTO findByIds(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty())
+            throw new IllegalArgumentException("Informe ao menos um id.");
+
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("Máximo de " + MAX_BATCH_SIZE + " ids por requisição.");
+
+        Map<UUID, Product> found = productRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductDTO> products = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : requested) {
+            Product product = found.get(id);
+            if (product != null) products.add(mapper.toDTO(product));
+            else missing.add(id);
+        }
+        return new ProductBatchDTO(products, missing);
     }
 
     /**
@@ -0,0 +1,62 @@
+package com.ecommerce.domain.product;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Baixas e devoluções de estoque atômicas, em um único batch JDBC.
+ * A baixa só acontece se houver estoque ({@code WHERE stock_quantity >= ?}), então não é
+ * preciso ler e travar a linha antes.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockLedger {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Baixa as quantidades e devolve os produtos que não tinham estoque suficiente.
+     * Quem chama deve desfazer a transação se a lista não estiver vazia.
+     */
+    public List<UUID> decrement(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) return List.of();
+
+        List<UUID> ids = new ArrayList<>(quantities.keySet());
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            int quantity = quantities.get(id);
+            args.add(new Object[]{quantity, now, TimeOrderedUuids.toBytes(id), quantity});
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock_quantity = stock_quantity - ?, updated_at = ? WHERE id = ? AND stock_quantity >= ?",
+                args);
+
+        List<UUID> shortOfStock = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) shortOfStock.add(ids.get(i));
+        }
+        return shortOfStock;
+    }
+
+    public void increment(Map<UUID, Integer> quantities) {
+        if (quantities.isEmpty()) return;
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> args.add(new Object[]{quantity, now, TimeOrderedUuids.toBytes(id)}));
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE products SET stock_quantity = stock_quantity + ?, updated_at = ? WHERE id = ?", args);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.domain.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownProductFieldException extends IllegalArgumentException {
+
+    public UnknownProductFieldException(String field) {
+        super("Campo inválido: " + field);
+    }
+}
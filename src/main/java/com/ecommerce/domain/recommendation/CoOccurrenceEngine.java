@@ -0,0 +1,191 @@
+package com.ecommerce.domain.recommendation;
+
+import com.ecommerce.domain.order.OrderPaidEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Comprados juntos": contagem incremental de pares de produtos em pedidos pagos.
+ * <p>
+ * Cada produto recebe um índice {@code int} e um {@link TopKCounter} com os parceiros mais
+ * frequentes, então a memória cresce com produtos × capacidade, não com pedidos.
+ * As atualizações rodam numa única thread (fora da requisição que pagou o pedido); as
+ * leituras de {@link #related} só tocam memória.
+ * Um snapshot binário é gravado periodicamente e recarregado na subida.
+ */
+@Slf4j
+@Component
+public class CoOccurrenceEngine {
+
+    private static final int SNAPSHOT_MAGIC = 0x434F4F43; // "COOC"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final int topK;
+    private final int capacity;
+    private final int maxItemsPerOrder;
+    private final Path snapshotPath;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "co-occurrence-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Escritos só pela thread writer; publicados via volatile + ConcurrentHashMap
+    private final Map<UUID, Integer> index = new ConcurrentHashMap<>();
+    private volatile UUID[] products = new UUID[1024];
+    private volatile TopKCounter[] counters = new TopKCounter[1024];
+    private int productCount;
+    private boolean dirty;
+
+    public CoOccurrenceEngine(@Value("${ecommerce.recommendations.top-k:20}") int topK,
+                              @Value("${ecommerce.recommendations.counters-per-product:64}") int capacity,
+                              @Value("${ecommerce.recommendations.max-items-per-order:50}") int maxItemsPerOrder,
+                              @Value("${ecommerce.recommendations.snapshot-path:}") String snapshotPath) {
+        if (capacity < topK)
+            throw new IllegalArgumentException("counters-per-product must be >= top-k");
+        this.topK = topK;
+        this.capacity = capacity;
+        this.maxItemsPerOrder = maxItemsPerOrder;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    @TransactionalEventListener
+    public void onOrderPaid(OrderPaidEvent event) {
+        writer.execute(() -> record(event.productIds()));
+    }
+
+    /**
+     * Produtos mais comprados junto com {@code productId}, do mais frequente para o menos.
+     */
+    public List<RelatedProduct> related(UUID productId, int limit) {
+        Integer i = index.get(productId);
+        if (i == null) return List.of();
+
+        long[] top = counters[i].top(Math.min(limit, topK));
+        // Lido depois do top(): todo parceiro contado já tem posição neste array (ou num maior)
+        UUID[] ids = products;
+
+        List<RelatedProduct> related = new ArrayList<>(top.length);
+        for (long packed : top) {
+            related.add(new RelatedProduct(ids[(int) packed], (int) (packed >>> 32)));
+        }
+        return related;
+    }
+
+    void record(List<UUID> productIds) {
+        int[] items = productIds.stream()
+                .distinct()
+                .limit(maxItemsPerOrder)
+                .mapToInt(this::indexOf)
+                .toArray();
+
+        for (int a = 0; a < items.length; a++) {
+            for (int b = a + 1; b < items.length; b++) {
+                counters[items[a]].increment(items[b]);
+                counters[items[b]].increment(items[a]);
+            }
+        }
+        if (items.length > 1) dirty = true;
+    }
+
+    private int indexOf(UUID productId) {
+        Integer existing = index.get(productId);
+        if (existing != null) return existing;
+
+        int i = productCount++;
+        if (i == products.length) {
+            products = Arrays.copyOf(products, i * 2);
+            counters = Arrays.copyOf(counters, i * 2);
+        }
+        products[i] = productId;
+        counters[i] = new TopKCounter(capacity);
+        index.put(productId, i);
+        return i;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.recommendations.snapshot-interval:PT5M}",
+               initialDelayString = "${ecommerce.recommendations.snapshot-interval:PT5M}")
+    public void snapshot() {
+        if (snapshotPath != null) writer.execute(this::writeSnapshot);
+    }
+
+    @PostConstruct
+    void load() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) return;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring recommendation snapshot {} with unknown format", snapshotPath);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                indexOf(new UUID(in.readLong(), in.readLong()));
+                int pairs = in.readInt();
+                for (int p = 0; p < pairs; p++) counters[i].put(in.readInt(), in.readInt());
+            }
+            log.info("Loaded co-occurrence counts for {} products from {}", count, snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not read recommendation snapshot {}; starting empty", snapshotPath, e);
+            index.clear();
+            products = new UUID[1024];
+            counters = new TopKCounter[1024];
+            productCount = 0;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        snapshot();
+        writer.shutdown();
+        writer.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // Roda na thread writer: nenhuma atualização acontece durante a gravação
+    private void writeSnapshot() {
+        if (!dirty) return;
+
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            if (snapshotPath.getParent() != null) Files.createDirectories(snapshotPath.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(productCount);
+                for (int i = 0; i < productCount; i++) {
+                    out.writeLong(products[i].getMostSignificantBits());
+                    out.writeLong(products[i].getLeastSignificantBits());
+                    out.writeInt(counters[i].size());
+                    counters[i].forEach((partner, count) -> {
+                        try {
+                            out.writeInt(partner);
+                            out.writeInt(count);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not write recommendation snapshot {}", snapshotPath, e);
+        }
+    }
+}
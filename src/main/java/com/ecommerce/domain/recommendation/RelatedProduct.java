@@ -0,0 +1,11 @@
+package com.ecommerce.domain.recommendation;
+
+import java.util.UUID;
+
+/**
+ * Produto comprado junto e em quantos pedidos pagos os dois apareceram (aproximado).
+ */
+public record RelatedProduct(
+        UUID productId,
+        int count
+) {}
@@ -0,0 +1,94 @@
+package com.ecommerce.domain.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Contadores de co-ocorrência de um produto: mapa compacto {@code int → int} em dois arrays
+ * primitivos, com no máximo {@code capacity} parceiros.
+ * <p>
+ * Cheio, segue o algoritmo Space-Saving: o parceiro novo substitui o de menor contagem e herda
+ * essa contagem + 1. Os parceiros realmente frequentes nunca saem, e a memória por produto fica
+ * limitada a {@code capacity}, não ao número de produtos com que ele já apareceu.
+ */
+final class TopKCounter {
+
+    private static final int INITIAL_SIZE = 4;
+
+    private final int capacity;
+    private int[] partners = new int[INITIAL_SIZE];
+    private int[] counts = new int[INITIAL_SIZE];
+    private int size;
+
+    TopKCounter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void increment(int partner) {
+        for (int i = 0; i < size; i++) {
+            if (partners[i] == partner) {
+                counts[i]++;
+                return;
+            }
+        }
+
+        if (size < capacity) {
+            if (size == partners.length) {
+                int grown = Math.min(capacity, size * 2);
+                partners = Arrays.copyOf(partners, grown);
+                counts = Arrays.copyOf(counts, grown);
+            }
+            partners[size] = partner;
+            counts[size++] = 1;
+            return;
+        }
+
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) min = i;
+        }
+        partners[min] = partner;
+        counts[min]++;
+    }
+
+    /**
+     * Os {@code k} parceiros mais frequentes, em ordem decrescente, empacotados como
+     * {@code (count << 32) | partner} para ordenar sem alocar objetos.
+     */
+    synchronized long[] top(int k) {
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = ((long) counts[i] << 32) | (partners[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+
+        int n = Math.min(k, size);
+        long[] top = new long[n];
+        for (int i = 0; i < n; i++) top[i] = packed[size - 1 - i];
+        return top;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void forEach(PairConsumer consumer) {
+        for (int i = 0; i < size; i++) consumer.accept(partners[i], counts[i]);
+    }
+
+    synchronized void put(int partner, int count) {
+        // Snapshot gravado com capacity maior: o excedente é descartado
+        if (size >= capacity) return;
+        if (size == partners.length) {
+            int grown = Math.min(capacity, Math.max(INITIAL_SIZE, size * 2));
+            partners = Arrays.copyOf(partners, grown);
+            counts = Arrays.copyOf(counts, grown);
+        }
+        partners[size] = partner;
+        counts[size++] = count;
+    }
+
+    @FunctionalInterface
+    interface PairConsumer {
+        void accept(int partner, int count);
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.domain.reservation;
+
+public enum ReservationStatus {
+    ACTIVE,
+    CONSUMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.domain.reservation;
+
+import com.ecommerce.common.id.TimeOrderedUuid;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reserva temporária de estoque feita ao adicionar um produto ao carrinho.
+ * O estoque já foi baixado; se a reserva expirar ou for liberada, ele volta.
+ */
+@Entity
+@Table(name = "stock_reservations")
+@Getter @Setter @Builder
+@NoArgsConstructor @AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @TimeOrderedUuid
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(length = 16)
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void prePersist() {
+        createdAt = Instant.now();
+        if (status == null) status = ReservationStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,181 @@
+package com.ecommerce.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Converte os ids UUID em texto (CHAR(36)) de users, products, orders e order_items, e as
+ * colunas que os referenciam, para BINARY(16).
+ *
+ * Fases, no mesmo espírito do pt-online-schema-change:
+ * <ol>
+ *   <li>{@link #prepare}: cria colunas-sombra {@code *_bin} e triggers que as mantêm em dia
+ *       para os inserts/updates da versão antiga da aplicação;</li>
+ *   <li>{@link #backfill}: preenche as colunas-sombra em lotes pequenos, com pausa entre eles;</li>
+ *   <li>{@link #cutover}: remove as FKs, troca as colunas pelas sombras e recria as FKs com os
+ *       nomes do V1.</li>
+ * </ol>
+ * O cutover roda só no Flyway ({@code V1_1__ConvertLegacyUuids}), antes do V3 (FKs BINARY(16)
+ * para users/products) e do V4 (particionamento, que não aceita FKs nem PK sem created_at).
+ * As duas primeiras fases podem ser adiantadas com o {@link UuidBinaryMigration} enquanto a
+ * versão antiga ainda atende, para o deploy só completar o resto.
+ */
+@Slf4j
+public class UuidBinaryConversion {
+
+    static final List<UuidColumn> COLUMNS = List.of(
+            new UuidColumn("users", "id"),
+            new UuidColumn("products", "id"),
+            new UuidColumn("orders", "id"),
+            new UuidColumn("orders", "user_id"),
+            new UuidColumn("order_items", "id"),
+            new UuidColumn("order_items", "order_id"),
+            new UuidColumn("order_items", "product_id")
+    );
+
+    private static final List<String> TABLES = List.of("users", "products", "orders", "order_items");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    public UuidBinaryConversion(JdbcTemplate jdbcTemplate, int chunkSize, long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * Se ainda há alguma coluna de id em texto (schema legado do ddl-auto).
+     */
+    public boolean pending() {
+        for (UuidColumn column : COLUMNS) {
+            String type = dataType(column.table(), column.name());
+            if ("char".equalsIgnoreCase(type) || "varchar".equalsIgnoreCase(type)) return true;
+        }
+        return false;
+    }
+
+    public void prepare() {
+        for (UuidColumn column : COLUMNS) {
+            if (!columnExists(column.table(), column.shadow())) {
+                jdbcTemplate.execute("ALTER TABLE " + column.table() + " ADD COLUMN " + column.shadow()
+                        + " BINARY(16) NULL, ALGORITHM=INPLACE, LOCK=NONE");
+            }
+        }
+
+        for (String table : TABLES) {
+            StringBuilder body = new StringBuilder();
+            for (UuidColumn column : columnsOf(table)) {
+                if (!body.isEmpty()) body.append(", ");
+                body.append("NEW.").append(column.shadow()).append(" = ").append(toBinary("NEW." + column.name()));
+            }
+            for (String event : List.of("INSERT", "UPDATE")) {
+                String trigger = table + "_uuid_bin_" + event.toLowerCase();
+                jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + trigger);
+                jdbcTemplate.execute("CREATE TRIGGER " + trigger + " BEFORE " + event + " ON " + table
+                        + " FOR EACH ROW SET " + body);
+            }
+        }
+        log.info("Colunas-sombra e triggers criados.");
+    }
+
+    public void backfill() throws InterruptedException {
+        for (UuidColumn column : COLUMNS) {
+            long total = 0;
+            int updated;
+            do {
+                updated = jdbcTemplate.update("UPDATE " + column.table() + " SET " + column.shadow() + " = "
+                        + toBinary(column.name()) + " WHERE " + column.shadow() + " IS NULL LIMIT ?", chunkSize);
+                total += updated;
+                if (updated > 0 && pauseMs > 0) Thread.sleep(pauseMs);
+            } while (updated > 0);
+            log.info("Backfill de {}.{}: {} linhas", column.table(), column.name(), total);
+        }
+    }
+
+    public void cutover() {
+        // As FKs ligam as quatro tabelas entre si: saem antes da troca e voltam no fim
+        for (String[] fk : foreignKeys()) {
+            jdbcTemplate.execute("ALTER TABLE " + fk[0] + " DROP FOREIGN KEY " + fk[1]);
+        }
+
+        for (String table : TABLES) {
+            StringBuilder alter = new StringBuilder();
+            for (UuidColumn column : columnsOf(table)) {
+                if (!alter.isEmpty()) alter.append(", ");
+                if (column.name().equals("id")) alter.append("DROP PRIMARY KEY, ");
+                alter.append(replaceWithShadow(column.name()));
+                if (column.name().equals("id")) alter.append(", ADD PRIMARY KEY (id)");
+            }
+            swap(table, alter.toString());
+        }
+
+        // Mesmos nomes do V1: o V4 remove estas FKs pelo nome antes de particionar
+        jdbcTemplate.execute("ALTER TABLE orders "
+                + "ADD CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)");
+        jdbcTemplate.execute("ALTER TABLE order_items "
+                + "ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id), "
+                + "ADD CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id)");
+
+        log.info("Cutover concluído: ids em BINARY(16).");
+    }
+
+    private void swap(String table, String alter) {
+        for (String event : List.of("insert", "update")) {
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + table + "_uuid_bin_" + event);
+        }
+        // Garante que nada escapou do backfill entre a última passada e a remoção dos triggers
+        for (UuidColumn column : columnsOf(table)) {
+            jdbcTemplate.update("UPDATE " + table + " SET " + column.shadow() + " = " + toBinary(column.name())
+                    + " WHERE " + column.shadow() + " IS NULL");
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " " + alter + ", ALGORITHM=INPLACE, LOCK=NONE");
+    }
+
+    /**
+     * Troca a coluna pela sombra numa única especificação do ALTER. O CHANGE renomeia e define o tipo
+     * de uma vez: um MODIFY posterior no mesmo ALTER referenciaria a coluna que acabou de ser removida.
+     */
+    private static String replaceWithShadow(String column) {
+        return "DROP COLUMN " + column + ", CHANGE COLUMN " + column + "_bin " + column + " BINARY(16) NOT NULL";
+    }
+
+    private static List<UuidColumn> columnsOf(String table) {
+        return COLUMNS.stream().filter(c -> c.table().equals(table)).toList();
+    }
+
+    private List<String[]> foreignKeys() {
+        return jdbcTemplate.query("""
+                SELECT table_name, constraint_name
+                  FROM information_schema.referential_constraints
+                 WHERE constraint_schema = DATABASE()
+                   AND (table_name IN ('users', 'products', 'orders', 'order_items')
+                        OR referenced_table_name IN ('users', 'products', 'orders', 'order_items'))
+                """, (rs, i) -> new String[]{rs.getString(1), rs.getString(2)});
+    }
+
+    private String dataType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList("""
+                SELECT data_type FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                """, String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    private boolean columnExists(String table, String column) {
+        return dataType(table, column) != null;
+    }
+
+    private static String toBinary(String expression) {
+        return "UNHEX(REPLACE(" + expression + ", '-', ''))";
+    }
+
+    record UuidColumn(String table, String name) {
+        String shadow() {
+            return name + "_bin";
+        }
+    }
+}
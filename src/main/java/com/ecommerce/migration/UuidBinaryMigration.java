@@ -0,0 +1,53 @@
+package com.ecommerce.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adianta as fases {@code prepare} e {@code backfill} da {@link UuidBinaryConversion} num banco
+ * legado enquanto a versão antiga da aplicação ainda atende. O cutover não roda aqui: fica com a
+ * migração {@code V1_1__ConvertLegacyUuids} do Flyway no deploy, que só completa o que faltar.
+ * <p>
+ * Uso (sem o Flyway, que faria o cutover): {@code java -jar app.jar --spring.main.web-application-type=none
+ * --spring.flyway.enabled=false --ecommerce.migration.uuid-binary.enabled=true
+ * --ecommerce.migration.uuid-binary.phase=backfill}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ecommerce.migration.uuid-binary", name = "enabled", havingValue = "true")
+public class UuidBinaryMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ecommerce.migration.uuid-binary.phase:all}")
+    private String phase;
+
+    @Value("${ecommerce.migration.uuid-binary.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${ecommerce.migration.uuid-binary.pause-ms:50}")
+    private long pauseMs;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!phase.equals("prepare") && !phase.equals("backfill") && !phase.equals("all"))
+            throw new IllegalArgumentException("Fase desconhecida: " + phase + " (prepare, backfill ou all; "
+                    + "o cutover é feito pelo Flyway no deploy)");
+
+        UuidBinaryConversion conversion = new UuidBinaryConversion(jdbcTemplate, chunkSize, pauseMs);
+        if (!conversion.pending()) {
+            log.info("Ids já estão em BINARY(16); nada a migrar.");
+            return;
+        }
+
+        if (phase.equals("prepare") || phase.equals("all")) conversion.prepare();
+        if (phase.equals("backfill") || phase.equals("all")) conversion.backfill();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.repository.order;
+
+import com.ecommerce.domain.order.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+}
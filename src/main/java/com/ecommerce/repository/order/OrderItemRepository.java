@@ -3,11 +3,19 @@ package com.ecommerce.repository.order;
 import com.ecommerce.domain.order.OrderItem;
 import com.ecommerce.domain.order.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
     // Buscar todos os itens de um order específico
     List<OrderItem> findByOrder(Order order);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
 }
 
@@ -1,14 +1,54 @@
 package com.ecommerce.repository.order;
 
 import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
 import com.ecommerce.domain.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
-    // Buscar todos os orders de um usuário específico
-    List<Order> findByUsuario(User usuario);
+    // Itens vêm na mesma consulta: a resposta da API sempre os inclui
+    @Override
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findById(UUID id);
+
+    // Buscar todos os orders de um usuário específico, mais recentes primeiro
+    @EntityGraph(attributePaths = "items")
+    List<Order> findByUserOrderByCreatedAtDesc(User user);
+
+    // Compare-and-set do status: só altera se o order ainda estiver no status esperado
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Order o
+               set o.status = :to, o.version = o.version + 1, o.updatedAt = :now
+             where o.id = :id and o.status = :from
+            """)
+    int transition(@Param("id") UUID id,
+                   @Param("from") OrderStatus from,
+                   @Param("to") OrderStatus to,
+                   @Param("now") Instant now);
+
+    // Pedidos finalizados mais antigos que o corte, candidatos ao arquivo frio
+    @Query("select o.id from Order o where o.status in :statuses and o.createdAt < :before order by o.createdAt")
+    List<UUID> findArchivableIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                 @Param("before") Instant before,
+                                 Pageable pageable);
+
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from Order o where o.id in :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,33 @@
+package com.ecommerce.repository.reservation;
+
+import com.ecommerce.domain.reservation.ReservationStatus;
+import com.ecommerce.domain.reservation.StockReservation;
+import com.ecommerce.domain.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    // Reservas ativas do usuário para os produtos do pedido
+    @Query("""
+            select r from StockReservation r
+             where r.user = :user and r.status = :status and r.product.id in :productIds and r.expiresAt > :now
+            """)
+    List<StockReservation> findHolds(@Param("user") User user,
+                                     @Param("status") ReservationStatus status,
+                                     @Param("productIds") Collection<UUID> productIds,
+                                     @Param("now") Instant now);
+
+    // Varredura de segurança: reservas vencidas que a roda de timers não viu (ex.: após restart)
+    @Query("select r.id from StockReservation r where r.status = :status and r.expiresAt <= :now")
+    List<UUID> findExpiredIds(@Param("status") ReservationStatus status,
+                              @Param("now") Instant now,
+                              Pageable pageable);
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.search.analytics;
+
+/**
+ * Count-min sketch: frequência aproximada (nunca subestimada) de qualquer chave em memória
+ * fixa de {@code depth × width} contadores. Escrita por uma única thread.
+ */
+final class CountMinSketch {
+
+    private final long[][] counters;
+    private final int mask;
+    private long total;
+
+    CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1)
+            throw new IllegalArgumentException("width must be a power of two");
+        this.counters = new long[depth][width];
+        this.mask = width - 1;
+    }
+
+    void add(long hash) {
+        for (int row = 0; row < counters.length; row++) {
+            counters[row][index(hash, row)]++;
+        }
+        total++;
+    }
+
+    long estimate(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            min = Math.min(min, counters[row][index(hash, row)]);
+        }
+        return min;
+    }
+
+    long total() {
+        return total;
+    }
+
+    // Uma função de hash por linha: remistura o hash com uma semente diferente (SplitMix64)
+    private int index(long hash, int row) {
+        long z = hash + (row + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (int) ((z ^ (z >>> 31)) & mask);
+    }
+}
@@ -0,0 +1,275 @@
+package com.ecommerce.search.analytics;
+
+import com.ecommerce.domain.product.ProductField;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Analytics das buscas de produtos, em memória limitada.
+ * <p>
+ * No caminho da requisição {@link #record} não aloca: incrementa um bucket de um histograma
+ * pré-alocado e guarda a referência da busca num slot de um ring buffer também pré-alocado.
+ * O {@link #drain} roda numa thread própria (o scheduler compartilhado do Spring tem uma
+ * thread só e jobs longos o atrasariam), normaliza as buscas do ring e alimenta o
+ * count-min sketch e a lista de heavy hitters (Space-Saving). Se o ring der a volta antes
+ * do drain, as buscas sobrescritas são descartadas e contadas em {@code dropped}.
+ * <p>
+ * Cada slot é reservado por CAS na sua sequência antes de receber a busca: um produtor que
+ * dá a volta no ring nunca escreve num slot que outro ainda está preenchendo, e quem encontra
+ * o slot ocupado ou já reescrito por uma volta mais nova desiste (a busca conta como descartada).
+ */
+@Slf4j
+@Component
+public class SearchAnalytics {
+
+    private static final int LATENCY_BUCKETS = 32;
+    private static final int SHAPE_BITS = 6;
+    private static final int FIELD_COUNT = ProductField.values().length;
+
+    // Sequência de um slot reservado por um produtor que ainda está escrevendo a busca
+    private static final long WRITING = Long.MIN_VALUE;
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(Slot.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Slot[] ring;
+    private final int ringMask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLongArray latencies = new AtomicLongArray((1 << SHAPE_BITS) * LATENCY_BUCKETS);
+    private final Duration drainInterval;
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "search-analytics-drain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Estado do drain (guardado pelo monitor deste objeto)
+    private final CountMinSketch sketch;
+    private final Map<SearchQuery, Long> heavyHitters;
+    private final int heavyHitterCapacity;
+    private final int topK;
+    private long consumed;
+    private long dropped;
+    private long pendingSince = -1;
+
+    public SearchAnalytics(@Value("${ecommerce.search.analytics.ring-size:8192}") int ringSize,
+                           @Value("${ecommerce.search.analytics.sketch-depth:4}") int sketchDepth,
+                           @Value("${ecommerce.search.analytics.sketch-width:4096}") int sketchWidth,
+                           @Value("${ecommerce.search.analytics.top-k:50}") int topK,
+                           @Value("${ecommerce.search.analytics.drain-interval:PT0.1S}") Duration drainInterval) {
+        if (Integer.bitCount(ringSize) != 1)
+            throw new IllegalArgumentException("ring-size must be a power of two");
+        this.ring = new Slot[ringSize];
+        for (int i = 0; i < ringSize; i++) ring[i] = new Slot();
+        this.ringMask = ringSize - 1;
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        this.topK = topK;
+        this.heavyHitterCapacity = topK * 4;
+        this.heavyHitters = new HashMap<>(heavyHitterCapacity * 2);
+        this.drainInterval = drainInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        long millis = drainInterval.toMillis();
+        drainer.scheduleWithFixedDelay(() -> {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.warn("Search analytics drain failed", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainer.shutdownNow();
+    }
+
+    /**
+     * Registra uma busca concluída. Sem alocação: só escreve em estruturas pré-alocadas.
+     */
+    public void record(SearchQuery query, long elapsedNanos) {
+        latencies.incrementAndGet(shape(query) * LATENCY_BUCKETS + bucket(elapsedNanos));
+
+        long sequence = claimed.getAndIncrement();
+        Slot slot = ring[(int) (sequence & ringMask)];
+        while (true) {
+            long current = slot.sequence;
+            // Outro produtor está escrevendo o slot, ou uma volta mais nova já o ocupou: desiste
+            if (current == WRITING || current > sequence) return;
+            if (SEQUENCE.compareAndSet(slot, current, WRITING)) break;
+        }
+        slot.query = query;
+        slot.sequence = sequence;
+    }
+
+    /**
+     * Consome o ring até a última busca publicada. Chamado pela thread de drain; público para testes.
+     */
+    public synchronized void drain() {
+        while (true) {
+            long head = claimed.get();
+            if (consumed >= head) return;
+
+            // Só as últimas ring.length sequências reservadas ainda podem estar no ring
+            long oldest = head - ring.length;
+            if (consumed < oldest) {
+                dropped += oldest - consumed;
+                consumed = oldest;
+            }
+
+            Slot slot = ring[(int) (consumed & ringMask)];
+            long sequence = slot.sequence;
+            if (sequence == WRITING || sequence < consumed) {
+                // Ainda não publicado. Um produtor que desistiu do slot nunca publica: se a posição
+                // continua pendente no drain seguinte, conta como descartada e segue em frente
+                if (pendingSince != consumed) {
+                    pendingSince = consumed;
+                    return;
+                }
+                dropped++;
+                consumed++;
+                continue;
+            }
+
+            if (sequence > consumed) {
+                // Sobrescrito por uma volta mais nova antes de ser lido
+                dropped++;
+                consumed++;
+                continue;
+            }
+
+            SearchQuery query = slot.query;
+            // Seqlock: se outro produtor reservou o slot durante a leitura, descarta
+            if (slot.sequence != sequence) dropped++;
+            else count(normalize(query));
+            consumed++;
+        }
+    }
+
+    public synchronized SearchAnalyticsReport report() {
+        List<SearchAnalyticsReport.TopQuery> top = topQueries(topK);
+
+        List<SearchAnalyticsReport.ShapeLatency> shapes = new ArrayList<>();
+        for (int shape = 0; shape < 1 << SHAPE_BITS; shape++) {
+            long[] histogram = new long[LATENCY_BUCKETS];
+            long count = 0;
+            for (int b = 0; b < LATENCY_BUCKETS; b++) {
+                histogram[b] = latencies.get(shape * LATENCY_BUCKETS + b);
+                count += histogram[b];
+            }
+            if (count == 0) continue;
+            shapes.add(new SearchAnalyticsReport.ShapeLatency(describe(shape), count,
+                    percentile(histogram, count, 0.50), percentile(histogram, count, 0.90),
+                    percentile(histogram, count, 0.99), percentile(histogram, count, 1.0)));
+        }
+        return new SearchAnalyticsReport(sketch.total(), dropped, top, shapes);
+    }
+
+    /**
+     * As buscas mais frequentes, da mais para a menos frequente (contagem do count-min sketch).
+     */
+    public synchronized List<SearchAnalyticsReport.TopQuery> topQueries(int limit) {
+        return heavyHitters.keySet().stream()
+                .map(query -> new SearchAnalyticsReport.TopQuery(query, sketch.estimate(hash(query))))
+                .sorted(Comparator.comparingLong(SearchAnalyticsReport.TopQuery::estimatedCount).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void count(SearchQuery query) {
+        sketch.add(hash(query));
+
+        // Space-Saving: a lista cheia troca a busca menos contada pela nova, que herda a contagem
+        Long current = heavyHitters.get(query);
+        if (current != null) {
+            heavyHitters.put(query, current + 1);
+        } else if (heavyHitters.size() < heavyHitterCapacity) {
+            heavyHitters.put(query, 1L);
+        } else {
+            Map.Entry<SearchQuery, Long> min = Collections.min(heavyHitters.entrySet(), Map.Entry.comparingByValue());
+            heavyHitters.remove(min.getKey());
+            heavyHitters.put(query, min.getValue() + 1);
+        }
+    }
+
+    private static long hash(SearchQuery query) {
+        long h = query.hashCode();
+        return h * 0x9E3779B97F4A7C15L ^ (h >>> 16);
+    }
+
+    private static int shape(SearchQuery query) {
+        int shape = 0;
+        if (query.name() != null && !query.name().isBlank()) shape |= 1;
+        if (query.category() != null && !query.category().isBlank()) shape |= 2;
+        if (query.minPrice() != null) shape |= 4;
+        if (query.maxPrice() != null) shape |= 8;
+        if (query.page() > 0) shape |= 16;
+        if (query.fields().size() < FIELD_COUNT) shape |= 32;
+        return shape;
+    }
+
+    private static String describe(int shape) {
+        StringJoiner parts = new StringJoiner("+");
+        if ((shape & 1) != 0) parts.add("name");
+        if ((shape & 2) != 0) parts.add("category");
+        if ((shape & 4) != 0) parts.add("minPrice");
+        if ((shape & 8) != 0) parts.add("maxPrice");
+        if ((shape & 16) != 0) parts.add("deepPage");
+        if ((shape & 32) != 0) parts.add("fields");
+        return parts.length() == 0 ? "all" : parts.toString();
+    }
+
+    // Bucket b cobre [2^(b-1), 2^b) µs
+    private static int bucket(long elapsedNanos) {
+        long micros = elapsedNanos / 1_000;
+        return Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long percentile(long[] histogram, long count, double quantile) {
+        long rank = (long) Math.ceil(count * quantile);
+        long seen = 0;
+        for (int b = 0; b < histogram.length; b++) {
+            seen += histogram[b];
+            if (seen >= rank) return 1L << b;
+        }
+        return 1L << (histogram.length - 1);
+    }
+
+    private static SearchQuery normalize(SearchQuery query) {
+        String name = blankToNull(query.name());
+        if (name != null) name = name.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return new SearchQuery(name, blankToNull(query.category()), query.minPrice(), query.maxPrice(),
+                query.page(), query.size(), query.fields());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // query é volatile para que a leitura dela não seja reordenada depois da releitura de sequence
+    private static final class Slot {
+        volatile long sequence = -1;
+        volatile SearchQuery query;
+    }
+}
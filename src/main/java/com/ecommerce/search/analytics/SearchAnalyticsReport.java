@@ -0,0 +1,29 @@
+package com.ecommerce.search.analytics;
+
+import java.util.List;
+
+public record SearchAnalyticsReport(
+        long recorded,
+        long dropped,
+        List<TopQuery> topQueries,
+        List<ShapeLatency> shapes
+) {
+
+    public record TopQuery(
+            SearchQuery query,
+            long estimatedCount
+    ) {}
+
+    /**
+     * Latência por "forma" da busca (quais filtros vieram), em limites superiores de
+     * buckets log2 de microssegundos.
+     */
+    public record ShapeLatency(
+            String shape,
+            long count,
+            long p50Micros,
+            long p90Micros,
+            long p99Micros,
+            long maxMicros
+    ) {}
+}
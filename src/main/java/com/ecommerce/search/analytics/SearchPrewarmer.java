@@ -0,0 +1,48 @@
+package com.ecommerce.search.analytics;
+
+import com.ecommerce.domain.product.ProductSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reexecuta periodicamente as buscas mais frequentes para manter quentes os caches do ES
+ * (request cache, filter cache, page cache) com o que os usuários de fato consultam.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.search.prewarm", name = "enabled", havingValue = "true")
+public class SearchPrewarmer {
+
+    private final SearchAnalytics analytics;
+    private final ProductSearchService searchService;
+    private final int top;
+
+    public SearchPrewarmer(SearchAnalytics analytics,
+                           ProductSearchService searchService,
+                           @Value("${ecommerce.search.prewarm.top:20}") int top) {
+        this.analytics = analytics;
+        this.searchService = searchService;
+        this.top = top;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.search.prewarm.interval:PT1M}",
+            initialDelayString = "${ecommerce.search.prewarm.interval:PT1M}")
+    public void prewarm() {
+        List<SearchAnalyticsReport.TopQuery> queries = analytics.topQueries(top);
+        int failed = 0;
+        for (SearchAnalyticsReport.TopQuery query : queries) {
+            try {
+                searchService.prewarm(query.query());
+            } catch (RuntimeException e) {
+                failed++;
+                log.debug("Pre-warm da busca {} falhou", query.query(), e);
+            }
+        }
+        if (failed > 0) log.warn("Pre-warm: {} de {} buscas falharam", failed, queries.size());
+    }
+}
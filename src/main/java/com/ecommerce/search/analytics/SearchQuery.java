@@ -0,0 +1,20 @@
+package com.ecommerce.search.analytics;
+
+import com.ecommerce.domain.product.ProductField;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Parâmetros normalizados de uma busca de produtos (nome em minúsculas, espaços colapsados,
+ * preços sem zeros à direita); buscas equivalentes viram o mesmo valor.
+ */
+public record SearchQuery(
+        String name,
+        String category,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        int page,
+        int size,
+        Set<ProductField> fields
+) {}
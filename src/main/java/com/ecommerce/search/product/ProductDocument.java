@@ -2,20 +2,23 @@ package com.ecommerce.search.product;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
 import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(indexName = "products")
 public class ProductDocument {
 
     @Id
+    @Field(type = FieldType.Keyword)
     private String id; // 👈 IMPORTANTE: tipo deve ser String (não UUID)
 
     private String name;
@@ -23,6 +26,15 @@ public class ProductDocument {
     private String category;
     private BigDecimal price;
     private Integer stockQuantity;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+
+    // Epoch millis: evita parse de data no ES e conversão de fuso no mapper
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
+    private Long createdAt;
+
+    @Field(type = FieldType.Date, format = DateFormat.epoch_millis)
+    private Long updatedAt;
+
+    // CRC32 de (id, updatedAt, stock, price) — usado pelo reconciliador MySQL ↔ ES
+    @Field(type = FieldType.Long)
+    private Long checksum;
 }
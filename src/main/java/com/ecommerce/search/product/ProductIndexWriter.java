@@ -0,0 +1,137 @@
+package com.ecommerce.search.product;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.ecommerce.tracing.RequestTrace;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.routing.RoutingResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ponto único de escrita no índice de produtos.
+ * <p>
+ * Com {@code ecommerce.search.category-routing=true} cada documento é roteado pela categoria:
+ * todos os produtos de uma categoria ficam no mesmo shard e a busca filtrada por categoria
+ * consulta só esse shard (ver {@link #routing}). Sem categoria, vale o roteamento padrão por id.
+ * <p>
+ * Como o shard depende da categoria, trocar a categoria de um produto exige apagar o documento
+ * com o roteamento antigo antes de indexar o novo ({@link #reindex}); senão o id fica duplicado
+ * em dois shards.
+ */
+@Component
+public class ProductIndexWriter {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ProductSearchRepository searchRepository;
+    private final boolean categoryRouting;
+
+    public ProductIndexWriter(ElasticsearchOperations elasticsearchOperations,
+                              ElasticsearchClient elasticsearchClient,
+                              ProductSearchRepository searchRepository,
+                              @Value("${ecommerce.search.category-routing:false}") boolean categoryRouting) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.searchRepository = searchRepository;
+        this.categoryRouting = categoryRouting;
+    }
+
+    /**
+     * Valor de roteamento dos documentos da categoria, ou {@code null} para o roteamento padrão
+     * (modo desligado ou produto sem categoria). Buscas sem categoria continuam em todos os shards.
+     */
+    public String routing(String category) {
+        return categoryRouting && category != null && !category.isBlank() ? category : null;
+    }
+
+    public void index(ProductDocument document) {
+        indexAll(List.of(document));
+    }
+
+    public void indexAll(Collection<ProductDocument> documents) {
+        if (documents.isEmpty()) return;
+        try (RequestTrace.Scope ignored = RequestTrace.span("elasticsearch.index")) {
+            if (!categoryRouting) {
+                searchRepository.saveAll(documents);
+                return;
+            }
+
+            List<IndexQuery> queries = documents.stream()
+                    .map(document -> new IndexQueryBuilder()
+                            .withId(document.getId())
+                            .withObject(document)
+                            .withRouting(routing(document.getCategory()))
+                            .build())
+                    .toList();
+            elasticsearchOperations.bulkIndex(queries, ProductDocument.class);
+        }
+    }
+
+    /**
+     * Reindexa um produto que estava indexado com {@code previousCategory}; se o roteamento mudou,
+     * remove antes o documento do shard antigo.
+     */
+    public void reindex(ProductDocument document, String previousCategory) {
+        String previousRouting = routing(previousCategory);
+        if (categoryRouting && !Objects.equals(previousRouting, routing(document.getCategory()))) {
+            deleteRouted(document.getId(), previousRouting);
+        }
+        index(document);
+    }
+
+    public void delete(String id, String category) {
+        deleteRouted(id, routing(category));
+    }
+
+    /**
+     * Remove os documentos dos hits numa única requisição bulk. Cada delete leva o roteamento
+     * com que o documento foi de fato indexado (pode diferir do esperado se o modo foi ligado
+     * depois da indexação), então hits de shards diferentes vão juntos e cada um só apaga a
+     * cópia do próprio shard.
+     */
+    public void deleteAll(Collection<SearchHit<ProductDocument>> hits) {
+        if (hits.isEmpty()) return;
+        String index = elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class).getIndexName();
+        List<BulkOperation> operations = hits.stream()
+                .map(hit -> BulkOperation.of(op -> op.delete(d -> d
+                        .index(index)
+                        .id(hit.getId())
+                        .routing(hit.getRouting()))))
+                .toList();
+
+        BulkResponse response;
+        try (RequestTrace.Scope ignored = RequestTrace.span("elasticsearch.delete")) {
+            response = elasticsearchClient.bulk(BulkRequest.of(b -> b.operations(operations)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bulk delete of " + hits.size() + " products failed", e);
+        }
+        // Documento já ausente volta como not_found, sem erro
+        if (response.errors()) {
+            BulkResponseItem failed = response.items().stream().filter(item -> item.error() != null).findFirst().orElseThrow();
+            throw new IllegalStateException("Bulk delete failed for product " + failed.id() + ": " + failed.error().reason());
+        }
+    }
+
+    private void deleteRouted(String id, String routing) {
+        try (RequestTrace.Scope ignored = RequestTrace.span("elasticsearch.delete")) {
+            if (routing == null) {
+                searchRepository.deleteById(id);
+            } else {
+                elasticsearchOperations.withRouting(RoutingResolver.just(routing)).delete(id, ProductDocument.class);
+            }
+        }
+    }
+}
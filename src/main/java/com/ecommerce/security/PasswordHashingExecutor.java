@@ -0,0 +1,55 @@
+package com.ecommerce.security;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado e limitado para o BCrypt (cadastro e login).
+ * <p>
+ * O hash é caro de propósito; nas threads do Tomcat, um pico de logins (ex.: tokens expirando
+ * juntos) tomaria a CPU de produtos e pedidos. Aqui no máximo {@code threads} hashes rodam ao
+ * mesmo tempo e até {@code queue-capacity} esperam na fila; além disso a requisição é recusada
+ * na hora com 503 ({@link PasswordHashingOverloadedException}) em vez de esperar.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingExecutor(@Value("${ecommerce.auth.hashing.threads:0}") int threads,
+                                   @Value("${ecommerce.auth.hashing.queue-capacity:64}") int queueCapacity) {
+        // 0 = metade dos núcleos, deixando o resto para o tráfego normal
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Agenda a tarefa no pool; com a fila cheia lança {@link PasswordHashingOverloadedException}
+     * imediatamente, sem ocupar a thread da requisição.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingOverloadedException();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
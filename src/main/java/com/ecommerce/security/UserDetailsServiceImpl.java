@@ -1,15 +1,17 @@
 package com.ecommerce.security;
 
+import com.ecommerce.domain.user.User;
 import com.ecommerce.domain.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository repository;
 
@@ -18,4 +20,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return repository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
     }
+
+    /**
+     * Chamado pelo provider de autenticação após um login válido quando o hash salvo usa um custo
+     * menor que o atual: grava o novo hash, migrando o custo sem exigir troca de senha.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = (User) user;
+        entity.setPassword(newPassword);
+        return repository.save(entity);
+    }
 }
@@ -0,0 +1,15 @@
+package com.ecommerce.service.analytics;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Nenhum snapshot de analytics foi construído ainda (logo após a primeira subida).
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AnalyticsSnapshotUnavailableException extends RuntimeException {
+
+    public AnalyticsSnapshotUnavailableException() {
+        super("No order analytics snapshot has been built yet.");
+    }
+}
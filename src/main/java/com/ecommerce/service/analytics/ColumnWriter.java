@@ -0,0 +1,51 @@
+package com.ecommerce.service.analytics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Acrescenta primitivos a um arquivo de coluna como array little-endian cru, via buffer direto.
+ * Um arquivo existente (coluna copiada do snapshot anterior) é estendido, não truncado.
+ */
+final class ColumnWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    ColumnWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    void putInt(int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) flush();
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        if (buffer.remaining() < Long.BYTES) flush();
+        buffer.putLong(value);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.service.analytics;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Período da consulta de analytics vazio, invertido ou mais longo que o permitido.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidAnalyticsPeriodException extends IllegalArgumentException {
+
+    public InvalidAnalyticsPeriodException(String message) {
+        super(message);
+    }
+}
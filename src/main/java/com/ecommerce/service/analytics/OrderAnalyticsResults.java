@@ -0,0 +1,46 @@
+package com.ecommerce.service.analytics;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultados das consultas do {@link OrderAnalyticsService}.
+ */
+public final class OrderAnalyticsResults {
+
+    private OrderAnalyticsResults() {}
+
+    public record SnapshotInfo(
+            Instant takenAt,
+            int orders,
+            int items,
+            int users,
+            int products,
+            int categories
+    ) {}
+
+    public record CategoryHourRevenue(
+            String category,
+            Instant hour,
+            BigDecimal revenue,
+            long units
+    ) {}
+
+    /**
+     * Pedidos por número de unidades na cesta; a última faixa conta também as cestas maiores.
+     */
+    public record BasketSizeDistribution(
+            long orders,
+            double meanUnits,
+            List<Bucket> buckets
+    ) {
+        public record Bucket(int units, long orders) {}
+    }
+
+    public record RepeatBuyerStats(
+            long buyers,
+            long repeatBuyers,
+            double repeatRate
+    ) {}
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.service.analytics;
+
+import com.ecommerce.common.money.Money;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.BasketSizeDistribution;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.CategoryHourRevenue;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.RepeatBuyerStats;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.SnapshotInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+
+/**
+ * Análises ad-hoc sobre o {@link OrderColumnSnapshot} mapeado em memória. As consultas nunca
+ * tocam o MySQL: cada uma é uma varredura fork/join das colunas mapeadas num pool dedicado, sem
+ * disputar o common pool nem o banco.
+ * <p>
+ * Os resultados refletem o snapshot, ou seja, pedidos até {@link SnapshotInfo#takenAt()}.
+ */
+@Slf4j
+@Service
+public class OrderAnalyticsService implements DisposableBean {
+
+    private static final int LEAF_ROWS = 64 * 1024;
+    private static final int MAX_HOURS = 24 * 93;
+    private static final int MAX_BASKET_UNITS = 50;
+
+    private final AtomicReference<OrderColumnSnapshot> current = new AtomicReference<>();
+    private final ForkJoinPool pool;
+
+    public OrderAnalyticsService(@Value("${ecommerce.analytics.snapshot.directory:data/analytics}") String directory,
+                                 @Value("${ecommerce.analytics.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        loadLatest(Path.of(directory));
+    }
+
+    private void loadLatest(Path directory) {
+        try {
+            List<Path> snapshots = OrderColumnSnapshotWriter.snapshots(directory);
+            if (!snapshots.isEmpty()) current.set(OrderColumnSnapshot.open(snapshots.get(0)));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível carregar o último snapshot de analytics de {}", directory, e);
+        }
+    }
+
+    void publish(OrderColumnSnapshot snapshot) {
+        current.set(snapshot);
+    }
+
+    public SnapshotInfo info() {
+        OrderColumnSnapshot snapshot = snapshot();
+        return new SnapshotInfo(snapshot.takenAt(), snapshot.orders(), snapshot.items(), snapshot.users(),
+                snapshot.products().size(), snapshot.categories().size());
+    }
+
+    /**
+     * Receita e unidades por categoria e hora dos itens de pedidos criados em {@code [from, to)}.
+     * Só voltam as faixas não vazias, ordenadas por hora e categoria.
+     */
+    public List<CategoryHourRevenue> revenueByCategoryPerHour(Instant from, Instant to) {
+        validate(from, to);
+        long hoursLong = (Duration.between(from, to).getSeconds() + 3_599) / 3_600;
+        if (hoursLong > MAX_HOURS)
+            throw new InvalidAnalyticsPeriodException("At most " + MAX_HOURS + " hours per query.");
+
+        OrderColumnSnapshot snapshot = snapshot();
+        int hours = (int) hoursLong;
+        int categories = snapshot.categories().size();
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        LongBuffer created = snapshot.itemCreated;
+        IntBuffer category = snapshot.itemCategory;
+        IntBuffer quantity = snapshot.itemQuantity;
+        LongBuffer subtotal = snapshot.itemSubtotal;
+
+        // [receita, unidades] intercalados por faixa (hora, categoria), um array para a consulta toda.
+        // Cada folha soma num array local que cobre só as horas e categorias que viu (as linhas estão
+        // quase em ordem de criação, então uma folha abrange poucas horas) e junta tudo no fim.
+        AtomicLongArray totals = new AtomicLongArray(hours * categories * 2);
+        scan(snapshot.items(), (start, end) -> {
+            int minHour = Integer.MAX_VALUE, maxHour = -1;
+            int minCategory = Integer.MAX_VALUE, maxCategory = -1;
+            for (int row = start; row < end; row++) {
+                long second = created.get(row);
+                if (second < fromSecond || second >= toSecond) continue;
+                int hour = (int) ((second - fromSecond) / 3_600);
+                int c = category.get(row);
+                minHour = Math.min(minHour, hour);
+                maxHour = Math.max(maxHour, hour);
+                minCategory = Math.min(minCategory, c);
+                maxCategory = Math.max(maxCategory, c);
+            }
+            if (maxHour < 0) return null;
+
+            int categorySpan = maxCategory - minCategory + 1;
+            long[] buckets = new long[(maxHour - minHour + 1) * categorySpan * 2];
+            for (int row = start; row < end; row++) {
+                long second = created.get(row);
+                if (second < fromSecond || second >= toSecond) continue;
+                int hour = (int) ((second - fromSecond) / 3_600) - minHour;
+                int bucket = (hour * categorySpan + category.get(row) - minCategory) * 2;
+                buckets[bucket] += subtotal.get(row);
+                buckets[bucket + 1] += quantity.get(row);
+            }
+            for (int bucket = 0; bucket < buckets.length; bucket += 2) {
+                if (buckets[bucket + 1] == 0) continue;
+                int local = bucket / 2;
+                int target = ((minHour + local / categorySpan) * categories + minCategory + local % categorySpan) * 2;
+                totals.addAndGet(target, buckets[bucket]);
+                totals.addAndGet(target + 1, buckets[bucket + 1]);
+            }
+            return null;
+        }, (a, b) -> null);
+
+        List<CategoryHourRevenue> result = new ArrayList<>();
+        for (int hour = 0; hour < hours; hour++) {
+            for (int c = 0; c < categories; c++) {
+                int bucket = (hour * categories + c) * 2;
+                long units = totals.get(bucket + 1);
+                if (units == 0) continue;
+                result.add(new CategoryHourRevenue(snapshot.categories().get(c), from.plusSeconds(hour * 3_600L),
+                        Money.ofMinor(totals.get(bucket)).toBigDecimal(), units));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Distribuição de unidades por pedido dos pedidos criados em {@code [from, to)}.
+     */
+    public BasketSizeDistribution basketSizes(Instant from, Instant to) {
+        validate(from, to);
+        OrderColumnSnapshot snapshot = snapshot();
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        LongBuffer created = snapshot.orderCreated;
+        IntBuffer units = snapshot.orderUnits;
+
+        // [0..MAX] pedidos por tamanho de cesta, depois total de pedidos e total de unidades
+        long[] totals = scan(snapshot.orders(), (start, end) -> {
+            long[] counts = new long[MAX_BASKET_UNITS + 3];
+            for (int row = start; row < end; row++) {
+                long second = created.get(row);
+                if (second < fromSecond || second >= toSecond) continue;
+                int size = units.get(row);
+                counts[Math.min(size, MAX_BASKET_UNITS)]++;
+                counts[MAX_BASKET_UNITS + 1]++;
+                counts[MAX_BASKET_UNITS + 2] += size;
+            }
+            return counts;
+        }, OrderAnalyticsService::sum);
+
+        long orders = totals[MAX_BASKET_UNITS + 1];
+        List<BasketSizeDistribution.Bucket> buckets = new ArrayList<>();
+        for (int size = 0; size <= MAX_BASKET_UNITS; size++) {
+            if (totals[size] > 0) buckets.add(new BasketSizeDistribution.Bucket(size, totals[size]));
+        }
+        double mean = orders == 0 ? 0 : (double) totals[MAX_BASKET_UNITS + 2] / orders;
+        return new BasketSizeDistribution(orders, mean, buckets);
+    }
+
+    /**
+     * Fração de compradores com mais de um pedido entre os que compraram em {@code [from, to)}.
+     */
+    public RepeatBuyerStats repeatBuyers(Instant from, Instant to) {
+        validate(from, to);
+        OrderColumnSnapshot snapshot = snapshot();
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        LongBuffer created = snapshot.orderCreated;
+        IntBuffer user = snapshot.orderUser;
+
+        // Pedidos por usuário (saturar em 2 basta), compartilhado pelas folhas
+        AtomicIntegerArray ordersPerUser = new AtomicIntegerArray(snapshot.users());
+        scan(snapshot.orders(), (start, end) -> {
+            for (int row = start; row < end; row++) {
+                long second = created.get(row);
+                if (second < fromSecond || second >= toSecond) continue;
+                int u = user.get(row);
+                if (ordersPerUser.get(u) < 2) ordersPerUser.incrementAndGet(u);
+            }
+            return null;
+        }, (a, b) -> null);
+
+        long[] totals = scan(snapshot.users(), (start, end) -> {
+            long[] counts = new long[2];
+            for (int u = start; u < end; u++) {
+                int orders = ordersPerUser.get(u);
+                if (orders >= 1) counts[0]++;
+                if (orders >= 2) counts[1]++;
+            }
+            return counts;
+        }, OrderAnalyticsService::sum);
+
+        double rate = totals[0] == 0 ? 0 : (double) totals[1] / totals[0];
+        return new RepeatBuyerStats(totals[0], totals[1], rate);
+    }
+
+    private <A> A scan(int rows, ParallelScan.Leaf<A> leaf, BinaryOperator<A> merge) {
+        return pool.invoke(new ParallelScan<>(0, rows, LEAF_ROWS, leaf, merge));
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+        return a;
+    }
+
+    private OrderColumnSnapshot snapshot() {
+        OrderColumnSnapshot snapshot = current.get();
+        if (snapshot == null) throw new AnalyticsSnapshotUnavailableException();
+        return snapshot;
+    }
+
+    private static void validate(Instant from, Instant to) {
+        if (!from.isBefore(to))
+            throw new InvalidAnalyticsPeriodException("'from' must be before 'to'.");
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
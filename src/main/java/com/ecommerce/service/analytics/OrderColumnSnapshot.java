@@ -0,0 +1,155 @@
+package com.ecommerce.service.analytics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Snapshot colunar, somente leitura e mapeado em memória, do histórico de pedidos pagos.
+ * <p>
+ * Um diretório por snapshot e um arquivo por coluna, cada um um array primitivo little-endian cru
+ * indexado pela linha. Colunas de pedido têm uma linha por pedido; colunas de item, uma por item.
+ * Produtos, categorias e usuários são codificados em dicionário como ids int densos; os dicionários
+ * de produto e categoria são arquivos texto com uma entrada por linha (número da linha = id); o de
+ * usuários é gravado do mesmo jeito, só para o writer continuar o snapshot.
+ * Datas são segundos desde a época e valores são unidades mínimas (centavos).
+ * <p>
+ * Leituras absolutas nos buffers mapeados são seguras a partir de qualquer número de threads.
+ */
+public final class OrderColumnSnapshot {
+
+    static final int FORMAT_VERSION = 1;
+
+    static final String MANIFEST = "snapshot.properties";
+    static final String PRODUCTS = "products.txt";
+    static final String CATEGORIES = "categories.txt";
+    static final String USERS = "users.txt";
+
+    static final String ORDER_CREATED = "order_created.i64";
+    static final String ORDER_USER = "order_user.i32";
+    static final String ORDER_TOTAL = "order_total.i64";
+    static final String ORDER_UNITS = "order_units.i32";
+
+    static final String ITEM_ORDER = "item_order.i32";
+    static final String ITEM_CREATED = "item_created.i64";
+    static final String ITEM_PRODUCT = "item_product.i32";
+    static final String ITEM_CATEGORY = "item_category.i32";
+    static final String ITEM_QUANTITY = "item_quantity.i32";
+    static final String ITEM_SUBTOTAL = "item_subtotal.i64";
+
+    private final Path directory;
+    private final Instant takenAt;
+    private final int orders;
+    private final int items;
+    private final int users;
+    private final List<UUID> products;
+    private final List<String> categories;
+
+    final LongBuffer orderCreated;
+    final IntBuffer orderUser;
+    final LongBuffer orderTotal;
+    final IntBuffer orderUnits;
+
+    final IntBuffer itemOrder;
+    final LongBuffer itemCreated;
+    final IntBuffer itemProduct;
+    final IntBuffer itemCategory;
+    final IntBuffer itemQuantity;
+    final LongBuffer itemSubtotal;
+
+    private OrderColumnSnapshot(Path directory) throws IOException {
+        Properties manifest = manifest(directory);
+        int version = Integer.parseInt(manifest.getProperty("version"));
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported snapshot format " + version + " in " + directory);
+
+        this.directory = directory;
+        this.takenAt = Instant.parse(manifest.getProperty("taken-at"));
+        this.orders = Integer.parseInt(manifest.getProperty("orders"));
+        this.items = Integer.parseInt(manifest.getProperty("items"));
+        this.users = Integer.parseInt(manifest.getProperty("users"));
+        this.products = Files.readAllLines(directory.resolve(PRODUCTS), StandardCharsets.UTF_8).stream()
+                .map(UUID::fromString)
+                .toList();
+        this.categories = List.copyOf(Files.readAllLines(directory.resolve(CATEGORIES), StandardCharsets.UTF_8));
+
+        this.orderCreated = map(ORDER_CREATED).asLongBuffer();
+        this.orderUser = map(ORDER_USER).asIntBuffer();
+        this.orderTotal = map(ORDER_TOTAL).asLongBuffer();
+        this.orderUnits = map(ORDER_UNITS).asIntBuffer();
+
+        this.itemOrder = map(ITEM_ORDER).asIntBuffer();
+        this.itemCreated = map(ITEM_CREATED).asLongBuffer();
+        this.itemProduct = map(ITEM_PRODUCT).asIntBuffer();
+        this.itemCategory = map(ITEM_CATEGORY).asIntBuffer();
+        this.itemQuantity = map(ITEM_QUANTITY).asIntBuffer();
+        this.itemSubtotal = map(ITEM_SUBTOTAL).asLongBuffer();
+
+        if (orderCreated.capacity() != orders || itemCreated.capacity() != items)
+            throw new IOException("Snapshot " + directory + " does not match its manifest");
+    }
+
+    /**
+     * Mapeia um diretório de snapshot completo (com o manifesto já gravado).
+     */
+    public static OrderColumnSnapshot open(Path directory) throws IOException {
+        return new OrderColumnSnapshot(directory);
+    }
+
+    static Properties manifest(Path directory) throws IOException {
+        Properties manifest = new Properties();
+        try (Reader reader = Files.newBufferedReader(directory.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            manifest.load(reader);
+        }
+        return manifest;
+    }
+
+    // Um mapeamento é limitado a 2 GB, ou seja, 268M linhas em colunas de 8 bytes
+    private MappedByteBuffer map(String column) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(column), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public Instant takenAt() {
+        return takenAt;
+    }
+
+    public int orders() {
+        return orders;
+    }
+
+    public int items() {
+        return items;
+    }
+
+    public int users() {
+        return users;
+    }
+
+    public List<UUID> products() {
+        return products;
+    }
+
+    public List<String> categories() {
+        return categories;
+    }
+}
@@ -0,0 +1,444 @@
+package com.ecommerce.service.analytics;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+import com.ecommerce.common.money.Money;
+import com.ecommerce.config.datasource.ReplicaHealthMonitor;
+import com.ecommerce.service.order.OrderArchive;
+import com.ecommerce.service.order.OrderSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Atualiza periodicamente o {@link OrderColumnSnapshot} a partir dos pedidos PAID e SHIPPED e o
+ * publica no {@link OrderAnalyticsService}.
+ * <p>
+ * A maioria das atualizações é incremental: as colunas e os dicionários do snapshot anterior são
+ * copiados e só os pedidos quentes criados desde o seu {@code taken-at} são acrescentados. O rebuild
+ * completo, que lê também o arquivo frio, roda quando ainda não há snapshot e depois a cada
+ * {@code full-rebuild-interval}; ele pega o que os incrementos não veem, ou seja, pedidos pagos ou
+ * cancelados depois da primeira leitura. Pedidos mais novos que {@code settle-delay} ficam para a
+ * próxima atualização, para que a maioria dos checkouts já esteja paga (e replicada) quando lida.
+ * <p>
+ * As linhas vêm de cursores forward-only (como na exportação de pedidos) dentro de uma transação
+ * read-only, então o job lê da réplica quando houver uma e a memória é limitada pelos dicionários,
+ * não pelo número de pedidos. O rebuild completo varre o histórico inteiro: sem réplica utilizável
+ * ele é adiado (os incrementos continuam), a menos que {@code allow-primary} esteja ligado. O job
+ * tem thread própria: um rebuild ocuparia por minutos uma das poucas threads do scheduler
+ * compartilhado pelos {@code @Scheduled}.
+ * <p>
+ * O snapshot é escrito num diretório temporário e renomeado para o lugar quando completo;
+ * os {@code keep} snapshots mais novos são mantidos.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.analytics.snapshot", name = "enabled", havingValue = "true")
+public class OrderColumnSnapshotWriter {
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String PAID_STATUSES = "('PAID', 'SHIPPED')";
+
+    // O join dos itens repete created_at para os dois lados podarem as mesmas partições
+    private static final String ORDERS_SQL = """
+            SELECT o.id, o.user_id, o.created_at, o.total_value, i.product_id, i.quantity, i.subtotal
+              FROM orders o
+              JOIN order_items i ON i.order_id = o.id AND i.created_at = o.created_at
+             WHERE o.status IN %s AND o.created_at >= ? AND o.created_at < ?
+             ORDER BY o.created_at, o.id
+            """.formatted(PAID_STATUSES);
+
+    // Os ids são ordenados no tempo: a ordem da chave primária deixa os itens quase em ordem de criação
+    private static final String ARCHIVE_SQL =
+            "SELECT payload FROM order_archive WHERE status IN " + PAID_STATUSES + " ORDER BY id";
+
+    private static final String PRODUCTS_SQL = "SELECT id, category FROM products";
+
+    private static final String UNKNOWN_CATEGORY = "(unknown)";
+    private static final int FALLBACK_FETCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final OrderArchive orderArchive;
+    private final OrderAnalyticsService analyticsService;
+    private final ReplicaHealthMonitor replicaHealth;
+    private final Path directory;
+    private final int keep;
+    private final Duration interval;
+    private final Duration initialDelay;
+    private final Duration fullRebuildInterval;
+    private final Duration settleDelay;
+    private final boolean allowPrimary;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-analytics-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderColumnSnapshotWriter(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     OrderArchive orderArchive,
+                                     OrderAnalyticsService analyticsService,
+                                     ObjectProvider<ReplicaHealthMonitor> replicaHealth,
+                                     @Value("${ecommerce.analytics.snapshot.directory:data/analytics}") String directory,
+                                     @Value("${ecommerce.analytics.snapshot.keep:2}") int keep,
+                                     @Value("${ecommerce.analytics.snapshot.interval:PT1H}") Duration interval,
+                                     @Value("${ecommerce.analytics.snapshot.initial-delay:PT2M}") Duration initialDelay,
+                                     @Value("${ecommerce.analytics.snapshot.full-rebuild-interval:P1D}") Duration fullRebuildInterval,
+                                     @Value("${ecommerce.analytics.snapshot.settle-delay:PT15M}") Duration settleDelay,
+                                     @Value("${ecommerce.analytics.snapshot.allow-primary:false}") boolean allowPrimary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.orderArchive = orderArchive;
+        this.analyticsService = analyticsService;
+        this.replicaHealth = replicaHealth.getIfAvailable();
+        this.directory = Path.of(directory);
+        this.keep = Math.max(1, keep);
+        this.interval = interval;
+        this.initialDelay = initialDelay;
+        this.fullRebuildInterval = fullRebuildInterval;
+        this.settleDelay = settleDelay;
+        this.allowPrimary = allowPrimary;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void refresh() {
+        try {
+            Path latest = latestContinuable();
+            boolean fullDue = latest == null
+                    || !fullAt(latest).plus(fullRebuildInterval).isAfter(Instant.now());
+            Path snapshot;
+            if (fullDue && (allowPrimary || replicaUsable())) {
+                snapshot = write(null);
+            } else if (latest != null) {
+                if (fullDue) log.info("Rebuild completo do analytics de pedidos adiado: nenhuma réplica utilizável");
+                snapshot = write(latest);
+            } else {
+                log.warn("Snapshot do analytics de pedidos ignorado: o primeiro build precisa de uma réplica "
+                        + "utilizável (ou ecommerce.analytics.snapshot.allow-primary=true)");
+                return;
+            }
+            // Nada assentou desde o último (já publicado): não há snapshot novo para mapear
+            if (snapshot.equals(latest)) return;
+            analyticsService.publish(OrderColumnSnapshot.open(snapshot));
+            prune();
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha no snapshot do analytics de pedidos; o anterior continua em uso", e);
+        }
+    }
+
+    private boolean replicaUsable() {
+        return replicaHealth != null && replicaHealth.isReplicaUsable();
+    }
+
+    /**
+     * Escreve um snapshot novo e devolve o diretório: rebuild completo quando {@code base} é
+     * null, senão {@code base} mais os pedidos criados desde que ele foi tirado.
+     */
+    Path write(Path base) throws IOException {
+        Instant takenAt = Instant.now().minus(settleDelay);
+        Instant from = base == null ? Instant.EPOCH
+                : Instant.parse(OrderColumnSnapshot.manifest(base).getProperty("taken-at"));
+        if (!takenAt.isAfter(from)) return base;
+        Instant fullAt = base == null ? takenAt : fullAt(base);
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempDirectory(directory, "tmp-");
+
+        try (Columns columns = new Columns(tmp, base)) {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                columns.loadCategories(connection);
+                try {
+                    columns.appendOrders(connection, from, takenAt);
+                    // Pedidos arquivados são bem mais antigos que qualquer incremento; só o rebuild os lê
+                    if (base == null) columns.appendArchive(connection);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            }));
+            columns.finish(takenAt, fullAt);
+
+            Path target = directory.resolve(SNAPSHOT_PREFIX + takenAt.toEpochMilli());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Snapshot do analytics de pedidos {} ({}): {} pedidos, {} itens em {} ms",
+                    target.getFileName(), base == null ? "completo" : "incremental",
+                    columns.orders, columns.items, (System.nanoTime() - start) / 1_000_000);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * O snapshot mais novo a partir do qual um incremento pode continuar, ou null. Snapshots
+     * gravados antes de o dicionário de usuários existir não podem ser continuados.
+     */
+    private Path latestContinuable() throws IOException {
+        List<Path> snapshots = snapshots(directory);
+        if (snapshots.isEmpty()) return null;
+        Path latest = snapshots.get(0);
+        boolean continuable = Files.exists(latest.resolve(OrderColumnSnapshot.USERS))
+                && OrderColumnSnapshot.manifest(latest).getProperty("full-at") != null;
+        return continuable ? latest : null;
+    }
+
+    private static Instant fullAt(Path snapshot) throws IOException {
+        return Instant.parse(OrderColumnSnapshot.manifest(snapshot).getProperty("full-at"));
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = snapshots(directory);
+        // Consultas que ainda seguram um mapeamento antigo continuam funcionando: arquivo removido segue mapeado
+        for (int i = keep; i < snapshots.size(); i++) deleteRecursively(snapshots.get(i));
+    }
+
+    /**
+     * Diretórios de snapshot completos, do mais novo para o mais antigo.
+     */
+    static List<Path> snapshots(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> children = Files.list(directory)) {
+            return children
+                    .filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> Files.exists(path.resolve(OrderColumnSnapshot.MANIFEST)))
+                    .sorted(Comparator.comparingLong(OrderColumnSnapshotWriter::snapshotMillis).reversed())
+                    .toList();
+        }
+    }
+
+    private static long snapshotMillis(Path snapshot) {
+        return Long.parseLong(snapshot.getFileName().toString().substring(SNAPSHOT_PREFIX.length()));
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) return;
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Arquivos de coluna abertos e os dicionários montados durante a leitura, opcionalmente
+     * continuando as colunas e os dicionários de um snapshot anterior.
+     */
+    private final class Columns implements Closeable {
+
+        private final Path dir;
+
+        private final ColumnWriter orderCreated;
+        private final ColumnWriter orderUser;
+        private final ColumnWriter orderTotal;
+        private final ColumnWriter orderUnits;
+
+        private final ColumnWriter itemOrder;
+        private final ColumnWriter itemCreated;
+        private final ColumnWriter itemProduct;
+        private final ColumnWriter itemCategory;
+        private final ColumnWriter itemQuantity;
+        private final ColumnWriter itemSubtotal;
+
+        private final Map<UUID, String> productCategories = new HashMap<>();
+        private final Map<UUID, Integer> productIds = new LinkedHashMap<>();
+        private final Map<String, Integer> categoryIds = new LinkedHashMap<>();
+        private final Map<UUID, Integer> userIds = new LinkedHashMap<>();
+
+        int orders;
+        int items;
+        private boolean closed;
+
+        Columns(Path dir, Path base) throws IOException {
+            this.dir = dir;
+            if (base != null) continueFrom(base);
+            orderCreated = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ORDER_CREATED));
+            orderUser = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ORDER_USER));
+            orderTotal = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ORDER_TOTAL));
+            orderUnits = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ORDER_UNITS));
+            itemOrder = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ITEM_ORDER));
+            itemCreated = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ITEM_CREATED));
+            itemProduct = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ITEM_PRODUCT));
+            itemCategory = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ITEM_CATEGORY));
+            itemQuantity = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ITEM_QUANTITY));
+            itemSubtotal = new ColumnWriter(dir.resolve(OrderColumnSnapshot.ITEM_SUBTOTAL));
+        }
+
+        // Copia as colunas (as linhas novas vão no fim das cópias) e recarrega os dicionários
+        private void continueFrom(Path base) throws IOException {
+            for (String column : List.of(OrderColumnSnapshot.ORDER_CREATED, OrderColumnSnapshot.ORDER_USER,
+                    OrderColumnSnapshot.ORDER_TOTAL, OrderColumnSnapshot.ORDER_UNITS, OrderColumnSnapshot.ITEM_ORDER,
+                    OrderColumnSnapshot.ITEM_CREATED, OrderColumnSnapshot.ITEM_PRODUCT, OrderColumnSnapshot.ITEM_CATEGORY,
+                    OrderColumnSnapshot.ITEM_QUANTITY, OrderColumnSnapshot.ITEM_SUBTOTAL)) {
+                Files.copy(base.resolve(column), dir.resolve(column));
+            }
+            for (String product : Files.readAllLines(base.resolve(OrderColumnSnapshot.PRODUCTS), StandardCharsets.UTF_8))
+                productIds.put(UUID.fromString(product), productIds.size());
+            for (String category : Files.readAllLines(base.resolve(OrderColumnSnapshot.CATEGORIES), StandardCharsets.UTF_8))
+                categoryIds.put(category, categoryIds.size());
+            for (String user : Files.readAllLines(base.resolve(OrderColumnSnapshot.USERS), StandardCharsets.UTF_8))
+                userIds.put(UUID.fromString(user), userIds.size());
+
+            Properties manifest = OrderColumnSnapshot.manifest(base);
+            orders = Integer.parseInt(manifest.getProperty("orders"));
+            items = Integer.parseInt(manifest.getProperty("items"));
+        }
+
+        void loadCategories(Connection connection) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(PRODUCTS_SQL);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    // Gravado um por linha: o nome precisa ser lido igual no próximo incremento
+                    String category = rs.getString(2);
+                    if (category != null) category = category.replace('\n', ' ').replace('\r', ' ');
+                    productCategories.put(TimeOrderedUuids.fromBytes(rs.getBytes(1)), category);
+                }
+            }
+        }
+
+        void appendOrders(Connection connection, Instant from, Instant to) throws SQLException, IOException {
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+
+            try (PreparedStatement statement = connection.prepareStatement(ORDERS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(mysql ? Integer.MIN_VALUE : FALLBACK_FETCH_SIZE);
+                statement.setTimestamp(1, Timestamp.from(from));
+                statement.setTimestamp(2, Timestamp.from(to));
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    byte[] currentOrder = null;
+                    long created = 0;
+                    int units = 0;
+                    while (rs.next()) {
+                        byte[] orderId = rs.getBytes(1);
+                        if (currentOrder == null || !Arrays.equals(currentOrder, orderId)) {
+                            if (currentOrder != null) endOrder(units);
+                            currentOrder = orderId;
+                            created = rs.getTimestamp(3).toInstant().getEpochSecond();
+                            startOrder(TimeOrderedUuids.fromBytes(rs.getBytes(2)), created, rs.getBigDecimal(4));
+                            units = 0;
+                        }
+                        int quantity = rs.getInt(6);
+                        item(TimeOrderedUuids.fromBytes(rs.getBytes(5)), created, quantity, rs.getBigDecimal(7));
+                        units += quantity;
+                    }
+                    if (currentOrder != null) endOrder(units);
+                }
+            }
+        }
+
+        void appendArchive(Connection connection) throws SQLException, IOException {
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+
+            try (PreparedStatement statement = connection.prepareStatement(ARCHIVE_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(mysql ? Integer.MIN_VALUE : FALLBACK_FETCH_SIZE);
+
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        OrderSnapshot order = orderArchive.read(rs.getBytes(1));
+                        long created = order.createdAt().getEpochSecond();
+                        startOrder(order.userId(), created, order.totalValue());
+                        int units = 0;
+                        for (OrderSnapshot.Item item : order.items()) {
+                            item(item.productId(), created, item.quantity(), item.subtotal());
+                            units += item.quantity();
+                        }
+                        endOrder(units);
+                    }
+                }
+            }
+        }
+
+        private void startOrder(UUID userId, long created, BigDecimal total) throws IOException {
+            orderCreated.putLong(created);
+            orderUser.putInt(userIds.computeIfAbsent(userId, id -> userIds.size()));
+            orderTotal.putLong(Money.of(total).minorUnits());
+        }
+
+        private void item(UUID productId, long created, int quantity, BigDecimal subtotal) throws IOException {
+            String category = productCategories.getOrDefault(productId, UNKNOWN_CATEGORY);
+            itemOrder.putInt(orders);
+            itemCreated.putLong(created);
+            itemProduct.putInt(productIds.computeIfAbsent(productId, id -> productIds.size()));
+            itemCategory.putInt(categoryIds.computeIfAbsent(category, c -> categoryIds.size()));
+            itemQuantity.putInt(quantity);
+            itemSubtotal.putLong(Money.of(subtotal).minorUnits());
+            items++;
+        }
+
+        private void endOrder(int units) throws IOException {
+            orderUnits.putInt(units);
+            orders++;
+        }
+
+        void finish(Instant takenAt, Instant fullAt) throws IOException {
+            close();
+            Files.write(dir.resolve(OrderColumnSnapshot.PRODUCTS),
+                    productIds.keySet().stream().map(UUID::toString).toList(), StandardCharsets.UTF_8);
+            Files.write(dir.resolve(OrderColumnSnapshot.CATEGORIES), categoryIds.keySet(), StandardCharsets.UTF_8);
+            Files.write(dir.resolve(OrderColumnSnapshot.USERS),
+                    userIds.keySet().stream().map(UUID::toString).toList(), StandardCharsets.UTF_8);
+
+            // O manifesto vai por último: diretório sem ele está incompleto
+            Properties manifest = new Properties();
+            manifest.setProperty("version", String.valueOf(OrderColumnSnapshot.FORMAT_VERSION));
+            manifest.setProperty("taken-at", takenAt.toString());
+            manifest.setProperty("full-at", fullAt.toString());
+            manifest.setProperty("orders", String.valueOf(orders));
+            manifest.setProperty("items", String.valueOf(items));
+            manifest.setProperty("users", String.valueOf(userIds.size()));
+            try (Writer writer = Files.newBufferedWriter(dir.resolve(OrderColumnSnapshot.MANIFEST), StandardCharsets.UTF_8)) {
+                manifest.store(writer, "Order analytics snapshot");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            for (ColumnWriter column : List.of(orderCreated, orderUser, orderTotal, orderUnits, itemOrder,
+                    itemCreated, itemProduct, itemCategory, itemQuantity, itemSubtotal)) {
+                column.close();
+            }
+        }
+    }
+}
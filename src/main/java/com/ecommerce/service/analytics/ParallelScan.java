@@ -0,0 +1,41 @@
+package com.ecommerce.service.analytics;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Redução fork/join sobre um intervalo de linhas: divide ao meio até {@code leafRows} linhas,
+ * varre cada folha sequencialmente (laços curtos sobre as colunas mapeadas) e junta dois a dois.
+ */
+final class ParallelScan<A> extends RecursiveTask<A> {
+
+    @FunctionalInterface
+    interface Leaf<A> {
+        A scan(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int leafRows;
+    private final Leaf<A> leaf;
+    private final BinaryOperator<A> merge;
+
+    ParallelScan(int from, int to, int leafRows, Leaf<A> leaf, BinaryOperator<A> merge) {
+        this.from = from;
+        this.to = to;
+        this.leafRows = leafRows;
+        this.leaf = leaf;
+        this.merge = merge;
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= leafRows) return leaf.scan(from, to);
+
+        int mid = (from + to) >>> 1;
+        ParallelScan<A> left = new ParallelScan<>(from, mid, leafRows, leaf, merge);
+        left.fork();
+        A right = new ParallelScan<>(mid, to, leafRows, leaf, merge).compute();
+        return merge.apply(left.join(), right);
+    }
+}
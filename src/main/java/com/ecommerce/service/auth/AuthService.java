@@ -0,0 +1,82 @@
+package com.ecommerce.service.auth;
+
+import com.ecommerce.api.dto.AuthRequestDTO;
+import com.ecommerce.api.dto.AuthResponseDTO;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.user.UserRepository;
+import com.ecommerce.security.JwtService;
+import com.ecommerce.security.PasswordHashingExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Signup and login. All BCrypt work runs on {@link PasswordHashingExecutor}, never on the
+ * request thread; the returned futures complete there.
+ * <p>
+ * Login goes through the {@link AuthenticationManager}, whose DAO provider rehashes the stored
+ * password with the current cost ({@code ecommerce.auth.bcrypt.strength}) when it is lower,
+ * via {@link com.ecommerce.security.UserDetailsServiceImpl#updatePassword}.
+ * <p>
+ * BCrypt ignores everything after the first {@value #BCRYPT_MAX_BYTES} bytes of the password, so
+ * signup rejects longer passwords instead of silently truncating them. Login does not check:
+ * accounts created before the check must keep working, and their hashes were made from the same prefix.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthService {
+
+    static final int BCRYPT_MAX_BYTES = 72;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final JwtService jwtService;
+
+    public CompletableFuture<AuthResponseDTO> register(AuthRequestDTO request) {
+        // @Size counts UTF-16 chars; a non-ASCII password can pass it and still exceed 72 bytes
+        if (request.password().getBytes(StandardCharsets.UTF_8).length > BCRYPT_MAX_BYTES)
+            throw new PasswordTooLongException(BCRYPT_MAX_BYTES);
+
+        // Cheap check first, so a taken username does not cost a hash
+        if (userRepository.findByUsername(request.username()).isPresent())
+            throw new UsernameTakenException(request.username());
+
+        return hashingExecutor.submit(() -> passwordEncoder.encode(request.password()))
+                .thenApply(hash -> {
+                    User user;
+                    try {
+                        user = userRepository.save(User.builder()
+                                .username(request.username())
+                                .password(hash)
+                                .role(Role.USER)
+                                .build());
+                    } catch (DataIntegrityViolationException e) {
+                        throw new UsernameTakenException(request.username());
+                    }
+                    return new AuthResponseDTO(jwtService.generateToken(user));
+                });
+    }
+
+    public CompletableFuture<AuthResponseDTO> login(AuthRequestDTO request) {
+        return hashingExecutor.submit(() -> {
+            try {
+                User user = (User) authenticationManager.authenticate(
+                        UsernamePasswordAuthenticationToken.unauthenticated(request.username(), request.password()))
+                        .getPrincipal();
+                return new AuthResponseDTO(jwtService.generateToken(user));
+            } catch (AuthenticationException e) {
+                throw new InvalidCredentialsException();
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.service.auth;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class PasswordTooLongException extends IllegalArgumentException {
+
+    public PasswordTooLongException(int maxBytes) {
+        super("Password must be at most " + maxBytes + " bytes in UTF-8.");
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.service.order;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    /** Um objeto JSON por pedido, com os itens aninhados. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Uma linha por item, repetindo as colunas do pedido. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Resolve o parâmetro {@code format} da requisição, sem diferenciar maiúsculas.
+     *
+     * @throws UnsupportedExportFormatException (400) para qualquer outro valor
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) return format;
+        }
+        throw new UnsupportedExportFormatException(name);
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
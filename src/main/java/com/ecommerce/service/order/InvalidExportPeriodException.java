@@ -0,0 +1,17 @@
+package com.ecommerce.service.order;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.Instant;
+
+/**
+ * Período da exportação vazio ou invertido ({@code from} não é anterior a {@code to}).
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidExportPeriodException extends IllegalArgumentException {
+
+    public InvalidExportPeriodException(Instant from, Instant to) {
+        super("'from' must be before 'to' (from=" + from + ", to=" + to + ").");
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.domain.order.ArchivedOrder;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.repository.order.ArchivedOrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo frio dos pedidos finalizados: um {@link OrderSnapshot} em JSON comprimido (gzip) por linha.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchive {
+
+    // Mapper próprio: o formato gravado não pode mudar junto com a configuração do Jackson da camada web
+    private static final ObjectMapper MAPPER = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    public void store(List<Order> orders) {
+        Instant now = Instant.now();
+        archivedOrderRepository.saveAll(orders.stream()
+                .map(order -> ArchivedOrder.builder()
+                        .id(order.getId())
+                        .userId(order.getUser().getId())
+                        .status(order.getStatus())
+                        .createdAt(order.getCreatedAt())
+                        .archivedAt(now)
+                        .payload(compress(OrderSnapshot.of(order)))
+                        .build())
+                .toList());
+    }
+
+    public Optional<OrderSnapshot> find(UUID id) {
+        return archivedOrderRepository.findById(id).map(archived -> read(archived.getPayload()));
+    }
+
+    /**
+     * Decodifica um payload gravado; para quem lê as linhas de {@code order_archive} direto por cursor.
+     */
+    public OrderSnapshot read(byte[] payload) {
+        return decompress(payload);
+    }
+
+    private byte[] compress(OrderSnapshot snapshot) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            MAPPER.writeValue(out, snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive order " + snapshot.id(), e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private OrderSnapshot decompress(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return MAPPER.readValue(in, OrderSnapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted archived order", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.repository.order.OrderItemRepository;
+import com.ecommerce.repository.order.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Move os pedidos finalizados (SHIPPED/CANCELED) mais antigos que {@code ecommerce.orders.archive.min-age}
+ * das tabelas quentes para o {@link OrderArchive}. Cada lote é copiado e apagado numa só
+ * transação, então um pedido está sempre em exatamente um lugar.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.orders.archive", name = "enabled", havingValue = "true")
+public class OrderArchiver {
+
+    private static final Set<OrderStatus> ARCHIVABLE = EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELED);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         OrderItemRepository orderItemRepository,
+                         OrderArchive orderArchive,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${ecommerce.orders.archive.min-age:P180D}") Duration minAge,
+                         @Value("${ecommerce.orders.archive.batch-size:500}") int batchSize,
+                         @Value("${ecommerce.orders.archive.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderArchive = orderArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.orders.archive.interval:PT10M}",
+               initialDelayString = "${ecommerce.orders.archive.initial-delay:PT2M}")
+    public void run() {
+        Instant cutoff = Instant.now().minus(minAge);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved = archiveBatch(cutoff);
+            archived += moved;
+            if (moved < batchSize) break;
+        }
+        if (archived > 0)
+            log.info("{} pedidos criados antes de {} arquivados", archived, cutoff);
+    }
+
+    int archiveBatch(Instant cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<UUID> ids = orderRepository.findArchivableIds(ARCHIVABLE, cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) return 0;
+
+            List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+            orderArchive.store(orders);
+
+            orderItemRepository.deleteByOrderIds(ids);
+            orderRepository.deleteByIds(ids);
+            return ids.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.domain.order.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+/**
+ * Outra requisição alterou o status do order entre a leitura e o compare-and-set.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrderConflictException extends IllegalStateException {
+
+    public OrderConflictException(UUID orderId, OrderStatus expected, OrderStatus target) {
+        super("Order " + orderId + " is no longer " + expected + "; cannot move it to " + target + ".");
+    }
+}
@@ -0,0 +1,302 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Exporta os pedidos de um período, com seus itens, direto de um cursor JDBC forward-only para
+ * um {@link OutputStream}. Nenhuma entidade é carregada: o contexto de persistência fica vazio e
+ * a memória fica constante, qualquer que seja o número de linhas.
+ * <p>
+ * Pedidos finalizados mais antigos que o limite do arquivamento ficam em {@code order_archive}; os
+ * do período saem primeiro (um payload decodificado por vez), depois os que ainda estão em
+ * {@code orders}, cada parte em ordem de criação. As duas leituras usam o snapshot da mesma
+ * transação, então um pedido arquivado no meio da exportação não some nem sai duas vezes.
+ * <p>
+ * No MySQL o cursor usa {@code fetchSize = Integer.MIN_VALUE}, que faz o Connector/J entregar as
+ * linhas uma a uma em vez de carregar o result set inteiro.
+ * A transação read-only permite rodar a exportação na réplica de leitura, quando houver.
+ */
+@Service
+public class OrderExportService {
+
+    // O join dos itens repete created_at para os dois lados podarem as mesmas partições;
+    // o LEFT JOIN mantém pedidos sem itens (uma linha com as colunas de item NULL)
+    private static final String SQL = """
+            SELECT o.id, o.user_id, o.status, o.total_value, o.created_at,
+                   i.id, i.product_id, i.product_name, i.unit_price, i.quantity, i.subtotal
+              FROM orders o
+              LEFT JOIN order_items i ON i.order_id = o.id AND i.created_at = o.created_at
+             WHERE o.created_at >= ? AND o.created_at < ?
+             ORDER BY o.created_at, o.id
+            """;
+
+    private static final String ARCHIVE_SQL = """
+            SELECT payload FROM order_archive
+             WHERE created_at >= ? AND created_at < ?
+             ORDER BY created_at, id
+            """;
+
+    private static final int FALLBACK_FETCH_SIZE = 1_000;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public OrderExportService(JdbcTemplate jdbcTemplate, OrderArchive orderArchive,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderArchive = orderArchive;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Escreve em {@code out} todos os pedidos criados em {@code [from, to)}.
+     *
+     * @return número de pedidos escritos
+     */
+    public long export(Instant from, Instant to, ExportFormat format, OutputStream out) {
+        if (!from.isBefore(to)) throw new InvalidExportPeriodException(from, to);
+
+        Long orders = readOnlyTransaction.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection -> stream(connection, from, to, format, out)));
+        return orders == null ? 0 : orders;
+    }
+
+    private long stream(Connection connection, Instant from, Instant to, ExportFormat format, OutputStream out)
+            throws SQLException {
+        boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+
+        try (RowWriter writer = format == ExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out)) {
+            // No MySQL só cabe um result set em streaming aberto por conexão: uma consulta depois da outra
+            try (PreparedStatement statement = cursor(connection, ARCHIVE_SQL, mysql, from, to);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) writer.archived(orderArchive.read(rs.getBytes(1)));
+            }
+            try (PreparedStatement statement = cursor(connection, SQL, mysql, from, to);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) writer.row(rs);
+            }
+            writer.finish();
+            return writer.orders;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order export aborted", e);
+        }
+    }
+
+    private static PreparedStatement cursor(Connection connection, String sql, boolean mysql, Instant from, Instant to)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : FALLBACK_FETCH_SIZE);
+        statement.setTimestamp(1, Timestamp.from(from));
+        statement.setTimestamp(2, Timestamp.from(to));
+        return statement;
+    }
+
+    private abstract static class RowWriter implements AutoCloseable {
+
+        private byte[] currentOrder;
+        long orders;
+
+        void row(ResultSet rs) throws SQLException, IOException {
+            byte[] orderId = rs.getBytes(1);
+            boolean first = currentOrder == null;
+            if (first || !Arrays.equals(currentOrder, orderId)) {
+                if (!first) endOrder();
+                currentOrder = orderId;
+                orders++;
+                startOrder(TimeOrderedUuids.fromBytes(orderId), TimeOrderedUuids.fromBytes(rs.getBytes(2)),
+                        rs.getString(3), rs.getBigDecimal(4), rs.getTimestamp(5).toInstant());
+            }
+            byte[] itemId = rs.getBytes(6);
+            if (itemId != null) {
+                item(TimeOrderedUuids.fromBytes(itemId), TimeOrderedUuids.fromBytes(rs.getBytes(7)),
+                        rs.getString(8), rs.getBigDecimal(9), rs.getInt(10), rs.getBigDecimal(11));
+            } else {
+                emptyOrder();
+            }
+        }
+
+        /** Escreve um pedido arquivado inteiro; chamado antes do primeiro {@link #row}. */
+        void archived(OrderSnapshot order) throws IOException {
+            orders++;
+            startOrder(order.id(), order.userId(), order.status().name(), order.totalValue(), order.createdAt());
+            for (OrderSnapshot.Item item : order.items()) {
+                item(item.id(), item.productId(), item.productName(), item.unitPrice(), item.quantity(), item.subtotal());
+            }
+            if (order.items().isEmpty()) emptyOrder();
+            endOrder();
+        }
+
+        void finish() throws IOException {
+            if (currentOrder != null) endOrder();
+        }
+
+        abstract void startOrder(UUID id, UUID userId, String status, BigDecimal total, Instant createdAt)
+                throws IOException;
+
+        abstract void item(UUID id, UUID productId, String productName, BigDecimal unitPrice, int quantity,
+                           BigDecimal subtotal) throws IOException;
+
+        abstract void endOrder() throws IOException;
+
+        /** Chamado no lugar de {@link #item} para pedido sem itens. */
+        abstract void emptyOrder() throws IOException;
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    /**
+     * Um pedido por linha: {"id":…,"userId":…,…,"items":[{…},…]}
+     */
+    private final class NdjsonWriter extends RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            // O stream da resposta é de quem chamou
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void startOrder(UUID id, UUID userId, String status, BigDecimal total, Instant createdAt) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("id", id.toString());
+            json.writeStringField("userId", userId.toString());
+            json.writeStringField("status", status);
+            json.writeFieldName("totalValue");
+            json.writeNumber(total);
+            json.writeStringField("createdAt", createdAt.toString());
+            json.writeArrayFieldStart("items");
+        }
+
+        @Override
+        void item(UUID id, UUID productId, String productName, BigDecimal unitPrice, int quantity,
+                  BigDecimal subtotal) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("id", id.toString());
+            json.writeStringField("productId", productId.toString());
+            json.writeStringField("productName", productName);
+            json.writeFieldName("unitPrice");
+            json.writeNumber(unitPrice);
+            json.writeNumberField("quantity", quantity);
+            json.writeFieldName("subtotal");
+            json.writeNumber(subtotal);
+            json.writeEndObject();
+        }
+
+        // "items" já está aberto e só fica vazio
+        @Override
+        void emptyOrder() {
+        }
+
+        @Override
+        void endOrder() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (orders > 0) json.writeRaw('\n');
+            json.close();
+        }
+    }
+
+    /**
+     * Uma linha por item, repetindo as colunas do pedido, para planilhas e cargas de BI.
+     * Pedido sem itens sai numa linha só, com as colunas de item vazias.
+     */
+    private static final class CsvWriter extends RowWriter {
+
+        private static final String HEADER = "order_id,user_id,status,order_total,created_at,"
+                + "item_id,product_id,product_name,unit_price,quantity,subtotal\n";
+
+        private final Writer writer;
+        private String orderColumns;
+
+        CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+            writer.write(HEADER);
+        }
+
+        @Override
+        void startOrder(UUID id, UUID userId, String status, BigDecimal total, Instant createdAt) {
+            orderColumns = id.toString() + ',' + userId + ',' + status + ',' + total.toPlainString() + ','
+                    + createdAt + ',';
+        }
+
+        @Override
+        void item(UUID id, UUID productId, String productName, BigDecimal unitPrice, int quantity,
+                  BigDecimal subtotal) throws IOException {
+            writer.write(orderColumns);
+            writer.write(id.toString());
+            writer.write(',');
+            writer.write(productId.toString());
+            writer.write(',');
+            writer.write(escape(productName));
+            writer.write(',');
+            writer.write(unitPrice.toPlainString());
+            writer.write(',');
+            writer.write(Integer.toString(quantity));
+            writer.write(',');
+            writer.write(subtotal.toPlainString());
+            writer.write('\n');
+        }
+
+        // Colunas do pedido seguidas das colunas de item vazias
+        @Override
+        void emptyOrder() throws IOException {
+            writer.write(orderColumns);
+            writer.write(",,,,,\n");
+        }
+
+        @Override
+        void endOrder() {
+        }
+
+        // Faz flush sem fechar: o stream da resposta é de quem chamou
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+                return value;
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
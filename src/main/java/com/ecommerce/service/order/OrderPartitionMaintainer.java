@@ -0,0 +1,134 @@
+package com.ecommerce.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mantém as partições mensais de {@code orders} e {@code order_items} andando: divide a partição
+ * coringa {@code p_future} para os próximos meses sempre existirem e remove as partições mais
+ * antigas que a idade do arquivamento depois que o arquivador as esvaziou. Remover a partição
+ * inteira devolve o espaço, o que só apagar as linhas não faria.
+ * <p>
+ * O V4 cria as partições com datas fixas e o V7 estende até {@link #MONTHS_AHEAD} meses à frente
+ * do mês da migração. Daí em diante os meses novos dependem deste job; com ele desligado os
+ * pedidos novos caem em {@code p_future}, o que continua correto, só sem poda por mês.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.orders.partitions", name = "enabled", havingValue = "true")
+public class OrderPartitionMaintainer {
+
+    public static final int MONTHS_AHEAD = 3;
+
+    static final List<String> TABLES = List.of("orders", "order_items");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final Duration retention;
+
+    public OrderPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                    @Value("${ecommerce.orders.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${ecommerce.orders.archive.min-age:P180D}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.orders.partitions.check-interval:PT6H}", initialDelay = 0)
+    public void maintain() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        if (!extendPartitions(current)) return;
+
+        // As duas tabelas têm o mesmo layout: um mês sai das duas ou de nenhuma
+        LocalDate dropBefore = current.minusMonths(retention.toDays() / 30 + 1).atDay(1);
+        dropEmptyPartitions(partitions("orders"), dropBefore);
+    }
+
+    /**
+     * Cria as partições que faltam até {@code monthsAhead} meses depois de {@code current}.
+     *
+     * @return {@code false} se as tabelas não estão particionadas
+     */
+    public boolean extendPartitions(YearMonth current) {
+        for (String table : TABLES) {
+            List<Partition> partitions = partitions(table);
+            if (partitions.isEmpty()) {
+                log.warn("Tabela {} não é particionada; manutenção de partições ignorada", table);
+                return false;
+            }
+            addMissingMonths(table, partitions, current);
+        }
+        return true;
+    }
+
+    private void addMissingMonths(String table, List<Partition> partitions, YearMonth current) {
+        LocalDate lastBound = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(current.atDay(1));
+
+        List<String> added = new ArrayList<>();
+        YearMonth month = YearMonth.from(lastBound);
+        while (!month.isAfter(current.plusMonths(monthsAhead))) {
+            added.add("PARTITION " + month.format(PARTITION_NAME)
+                    + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')");
+            month = month.plusMonths(1);
+        }
+        if (added.isEmpty()) return;
+
+        added.add("PARTITION p_future VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION p_future INTO (" + String.join(", ", added) + ")");
+        log.info("{} partições mensais criadas em {}", added.size() - 1, table);
+    }
+
+    private void dropEmptyPartitions(List<Partition> partitions, LocalDate dropBefore) {
+        for (Partition partition : partitions) {
+            if (partition.upperBound() == null || partition.upperBound().isAfter(dropBefore)) continue;
+
+            // Pedidos não finalizados nunca são arquivados, então a partição pode demorar a esvaziar
+            boolean empty = TABLES.stream().allMatch(t -> jdbcTemplate.queryForList(
+                    "SELECT 1 FROM " + t + " PARTITION (" + partition.name() + ") LIMIT 1").isEmpty());
+            if (!empty) continue;
+
+            for (String table : TABLES) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition.name());
+            }
+            log.info("Partição vazia {} removida de {}", partition.name(), TABLES);
+        }
+    }
+
+    private List<Partition> partitions(String table) {
+        return jdbcTemplate.query("""
+                SELECT partition_name, partition_description
+                  FROM information_schema.partitions
+                 WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL
+                 ORDER BY partition_ordinal_position
+                """,
+                (rs, i) -> new Partition(rs.getString(1), parseBound(rs.getString(2))),
+                table);
+    }
+
+    // Limites de RANGE COLUMNS vêm entre aspas, ex. '2026-11-01 00:00:00'; MAXVALUE não tem limite
+    private static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) return null;
+        String value = description.replace("'", "").trim();
+        return value.length() > 10 ? LocalDateTime.parse(value.replace(' ', 'T')).toLocalDate() : LocalDate.parse(value);
+    }
+
+    private record Partition(String name, LocalDate upperBound) {}
+}
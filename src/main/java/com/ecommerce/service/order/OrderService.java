@@ -1,18 +1,25 @@
 package com.ecommerce.service.order;
 
+import com.ecommerce.common.money.Money;
 import com.ecommerce.domain.order.*;
 import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductRepository;
 import com.ecommerce.domain.user.User;
 import com.ecommerce.repository.order.OrderItemRepository;
 import com.ecommerce.repository.order.OrderRepository;
-import com.ecommerce.repository.product.ProductRepository;
+import com.ecommerce.service.reservation.StockReservationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +28,9 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
+    private final StockReservationService reservationService;
+    private final OrderArchive orderArchive;
+    private final ApplicationEventPublisher events;
 
     @Transactional
     public Order createOrder(User user, List<OrderItem> itemsRequest) {
@@ -31,79 +41,126 @@ public class OrderService {
         order.setUser(user);
         order.setStatus(OrderStatus.CREATED);
 
-        BigDecimal totalValue = BigDecimal.ZERO;
+        Money totalValue = Money.zero();
+
+        // Todos os produtos numa consulta só; o estoque é baixado depois, num batch JDBC
+        Map<UUID, Product> products = productRepository.findAllById(
+                        itemsRequest.stream().map(item -> item.getProduct().getId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
 
         for (OrderItem itemRequest : itemsRequest) {
-            Product product = productRepository.findById(itemRequest.getProduct().getId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found: " + itemRequest.getProduct().getId()));
+            Product product = products.get(itemRequest.getProduct().getId());
+            if (product == null)
+                throw new EntityNotFoundException("Product not found: " + itemRequest.getProduct().getId());
 
-            if (product.getQuantity() < itemRequest.getQuantity())
-                throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0)
+                throw new IllegalArgumentException("Quantity must be positive for product: " + product.getName());
 
-            product.setQuantity(product.getQuantity() - itemRequest.getQuantity());
-            productRepository.save(product);
+            quantities.merge(product.getId(), itemRequest.getQuantity(), Integer::sum);
 
             OrderItem item = new OrderItem();
             item.setProduct(product);
             item.setProductName(product.getName());
-            item.setUnitPrice(product.getPrice());
+            Money unitPrice = Money.of(product.getPrice());
+            item.setUnitPrice(unitPrice);
             item.setQuantity(itemRequest.getQuantity());
-            item.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+            item.setSubtotal(unitPrice.times(itemRequest.getQuantity()));
             order.addItem(item);
 
-            totalValue = totalValue.add(item.getSubtotal());
+            totalValue = totalValue.plus(item.getSubtotal());
         }
 
+        // Consome as reservas do carrinho do usuário e tira o resto com decrementos condicionais,
+        // sem lock de leitura nas linhas de produto; faltando estoque, o pedido inteiro é desfeito
+        List<UUID> shortOfStock = reservationService.allocate(user, quantities);
+        if (!shortOfStock.isEmpty())
+            throw new IllegalArgumentException("Insufficient stock for product: " + products.get(shortOfStock.get(0)).getName());
+
         order.setTotalValue(totalValue);
         return orderRepository.save(order);
     }
 
+    /**
+     * Procura o pedido primeiro nas tabelas quentes e depois no arquivo frio, para onde vão os
+     * pedidos finalizados após {@code ecommerce.orders.archive.min-age}.
+     * Pedidos arquivados voltam desanexados e são terminais: não aceitam transição de status.
+     */
     @Transactional(readOnly = true)
     public Order findById(UUID id, User user) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findById(id).orElse(null);
+        if (order != null) {
+            checkOwner(order.getUser().getId(), user);
+            return order;
+        }
+
+        OrderSnapshot archived = orderArchive.find(id)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
-        if (!order.getUser().getId().equals(user.getId()))
+        checkOwner(archived.userId(), user);
+        return archived.toOrder(user);
+    }
+
+    private static void checkOwner(UUID ownerId, User user) {
+        if (!ownerId.equals(user.getId()))
             throw new SecurityException("You are not allowed to access this order.");
-        return order;
     }
 
     @Transactional(readOnly = true)
     public List<Order> listOrdersByUser(User user) {
-        return orderRepository.findByUser(user);
+        return orderRepository.findByUserOrderByCreatedAtDesc(user);
     }
 
+    /**
+     * Leva o pedido para {@code newStatus} se a tabela de transições permitir.
+     * A troca é um compare-and-set sobre o status atual: transições concorrentes do mesmo pedido
+     * falham na hora com {@link OrderConflictException} em vez de as duas valerem.
+     */
     @Transactional
     public Order updateStatus(UUID orderId, OrderStatus newStatus, User user) {
+        if (newStatus == OrderStatus.CANCELED)
+            return cancelOrder(orderId, user);
+
         Order order = findById(orderId, user);
 
-        if (order.getStatus() == OrderStatus.CANCELED)
-            throw new IllegalStateException("Canceled orders cannot be modified.");
+        if (newStatus == OrderStatus.PAID && !order.getTotalValue().isPositive())
+            throw new IllegalStateException("Cannot mark as paid an order with total value 0.");
 
-        if (order.getStatus() == OrderStatus.PAID && newStatus == OrderStatus.CREATED)
-            throw new IllegalStateException("Cannot revert a paid order back to CREATED.");
+        List<UUID> productIds = order.getItems().stream().map(item -> item.getProduct().getId()).toList();
+        transition(order, newStatus);
 
-        if (newStatus == OrderStatus.PAID && order.getTotalValue().compareTo(BigDecimal.ZERO) <= 0)
-            throw new IllegalStateException("Cannot mark as paid an order with total value 0.");
+        // Entregue depois do commit (as recomendações só contam pedidos que foram mesmo pagos)
+        if (newStatus == OrderStatus.PAID)
+            events.publishEvent(new OrderPaidEvent(orderId, productIds));
 
-        order.setStatus(newStatus);
-        return orderRepository.save(order);
+        return orderRepository.findById(orderId).orElseThrow();
     }
 
+    /**
+     * Cancela o pedido e devolve os itens ao estoque. Só a requisição que vence o compare-and-set
+     * do status devolve o estoque, então ele nunca é devolvido duas vezes.
+     */
     @Transactional
     public Order cancelOrder(UUID orderId, User user) {
         Order order = findById(orderId, user);
+        List<OrderItem> items = List.copyOf(order.getItems());
 
-        if (order.getStatus() != OrderStatus.CREATED)
-            throw new IllegalStateException("Only orders in CREATED status can be canceled.");
+        transition(order, OrderStatus.CANCELED);
 
-        order.setStatus(OrderStatus.CANCELED);
-
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setQuantity(product.getQuantity() + item.getQuantity());
-            productRepository.save(product);
+        Instant now = Instant.now();
+        for (OrderItem item : items) {
+            productRepository.restock(item.getProduct().getId(), item.getQuantity(), now);
         }
 
-        return orderRepository.save(order);
+        return orderRepository.findById(orderId).orElseThrow();
+    }
+
+    private void transition(Order order, OrderStatus target) {
+        OrderStatus current = order.getStatus();
+        if (!current.canTransitionTo(target))
+            throw new IllegalStateException("Cannot change an order from " + current + " to " + target + ".");
+
+        if (orderRepository.transition(order.getId(), current, target, Instant.now()) == 0)
+            throw new OrderConflictException(order.getId(), current, target);
     }
 }
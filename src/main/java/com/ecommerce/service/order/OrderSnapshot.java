@@ -0,0 +1,81 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.common.money.Money;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.User;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cópia autossuficiente de um pedido e seus itens, no formato gravado no arquivo frio.
+ */
+public record OrderSnapshot(
+        UUID id,
+        UUID userId,
+        OrderStatus status,
+        BigDecimal totalValue,
+        Instant createdAt,
+        Instant updatedAt,
+        List<Item> items
+) {
+
+    public record Item(
+            UUID id,
+            UUID productId,
+            String productName,
+            BigDecimal unitPrice,
+            Integer quantity,
+            BigDecimal subtotal
+    ) {}
+
+    public static OrderSnapshot of(Order order) {
+        return new OrderSnapshot(
+                order.getId(),
+                order.getUser().getId(),
+                order.getStatus(),
+                order.getTotalValue().toBigDecimal(),
+                order.getCreatedAt(),
+                order.getUpdatedAt(),
+                order.getItems().stream()
+                        .map(item -> new Item(
+                                item.getId(),
+                                item.getProduct().getId(),
+                                item.getProductName(),
+                                item.getUnitPrice().toBigDecimal(),
+                                item.getQuantity(),
+                                item.getSubtotal().toBigDecimal()))
+                        .toList());
+    }
+
+    /**
+     * Reconstrói um {@link Order} desanexado e somente leitura, do usuário {@code owner}.
+     */
+    public Order toOrder(User owner) {
+        Order order = Order.builder()
+                .id(id)
+                .user(owner)
+                .status(status)
+                .totalValue(Money.of(totalValue))
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+        for (Item item : items) {
+            order.addItem(OrderItem.builder()
+                    .id(item.id())
+                    .product(Product.builder().id(item.productId()).build())
+                    .productName(item.productName())
+                    .unitPrice(Money.of(item.unitPrice()))
+                    .quantity(item.quantity())
+                    .subtotal(Money.of(item.subtotal()))
+                    .createdAt(createdAt)
+                    .build());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.service.order;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * O parâmetro {@code format} da exportação não corresponde a nenhum {@link ExportFormat}.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedExportFormatException extends IllegalArgumentException {
+
+    public UnsupportedExportFormatException(String format) {
+        super("Unsupported export format '" + format + "'; expected one of "
+                + Arrays.toString(ExportFormat.values()).toLowerCase(Locale.ROOT) + ".");
+    }
+}
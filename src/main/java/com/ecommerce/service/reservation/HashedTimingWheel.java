@@ -0,0 +1,94 @@
+package com.ecommerce.service.reservation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel: agendar é O(1) e cada tick só olha o balde da vez, em vez de
+ * ordenar todos os prazos como uma fila de prioridade.
+ * <p>
+ * {@link #schedule} pode ser chamado de qualquer thread; {@link #advance} deve ser chamado
+ * por uma única thread (o tick agendado).
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private long currentTick = -1;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize) {
+        if (tickMillis <= 0)
+            throw new IllegalArgumentException("tickMillis must be positive");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1)
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new ArrayList<>();
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        pending.add(new Timeout<>(item, deadlineMillis / tickMillis));
+    }
+
+    /**
+     * Avança a roda até {@code nowMillis} e devolve os itens cujo prazo passou.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        if (currentTick < 0) currentTick = nowTick;
+
+        transferPending();
+
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= nowTick) {
+            Iterator<Timeout<T>> it = buckets[(int) (currentTick & mask)].iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.remainingRounds <= 0) {
+                    expired.add(timeout.item);
+                    it.remove();
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        int size = pending.size();
+        for (List<Timeout<T>> bucket : buckets) size += bucket.size();
+        return size;
+    }
+
+    private void transferPending() {
+        Timeout<T> t;
+        while ((t = pending.poll()) != null) {
+            // Prazos já vencidos caem no balde atual e saem neste mesmo advance
+            long tick = Math.max(t.deadlineTick, currentTick);
+            t.remainingRounds = (tick - currentTick) / buckets.length;
+            buckets[(int) (tick & mask)].add(t);
+        }
+    }
+
+    private static final class Timeout<T> {
+        final T item;
+        final long deadlineTick;
+        long remainingRounds;
+
+        Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ecommerce.service.reservation;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.product.StockLedger;
+import com.ecommerce.domain.reservation.ReservationStatus;
+import com.ecommerce.domain.reservation.StockReservation;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.repository.reservation.StockReservationRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Reservas de estoque do carrinho.
+ * <p>
+ * Reservar baixa o estoque na hora (update condicional, sem lock de leitura) e cria uma
+ * reserva com TTL. Os prazos ficam numa {@link HashedTimingWheel}; a cada tick as reservas
+ * vencidas são expiradas e o estoque devolvido em um único batch. Uma varredura periódica
+ * no banco cobre reservas que a roda não conhece (restart, outra instância).
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel<UUID> wheel;
+    private final Duration ttl;
+    private final int batchSize;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   ProductRepository productRepository,
+                                   StockLedger stockLedger,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${ecommerce.reservations.ttl:PT15M}") Duration ttl,
+                                   @Value("${ecommerce.reservations.tick:PT1S}") Duration tick,
+                                   @Value("${ecommerce.reservations.wheel-size:1024}") int wheelSize,
+                                   @Value("${ecommerce.reservations.batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HashedTimingWheel<>(tick.toMillis(), wheelSize);
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public StockReservation reserve(User user, UUID productId, int quantity) {
+        if (quantity <= 0)
+            throw new IllegalArgumentException("Quantity must be positive.");
+
+        if (!stockLedger.decrement(Map.of(productId, quantity)).isEmpty()) {
+            if (!productRepository.existsById(productId))
+                throw new EntityNotFoundException("Product not found: " + productId);
+            throw new IllegalArgumentException("Insufficient stock for product: " + productId);
+        }
+
+        StockReservation reservation = reservationRepository.save(StockReservation.builder()
+                .user(user)
+                .product(productRepository.getReferenceById(productId))
+                .quantity(quantity)
+                .status(ReservationStatus.ACTIVE)
+                .expiresAt(Instant.now().plus(ttl))
+                .build());
+
+        // Só entra na roda depois do commit; um rollback não deixa timer órfão
+        UUID id = reservation.getId();
+        long deadline = reservation.getExpiresAt().toEpochMilli();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wheel.schedule(id, deadline);
+            }
+        });
+        return reservation;
+    }
+
+    /**
+     * Libera a reserva antes do prazo (item removido do carrinho).
+     */
+    @Transactional
+    public void release(UUID id, User user) {
+        StockReservation reservation = reservationRepository.findById(id)
+                .filter(r -> r.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new EntityNotFoundException("Reservation not found"));
+
+        if (changeStatus(List.of(id), ReservationStatus.RELEASED, null)[0] == 0)
+            throw new IllegalStateException("Reservation is no longer active.");
+
+        stockLedger.increment(Map.of(reservation.getProduct().getId(), reservation.getQuantity()));
+    }
+
+    /**
+     * Separa o estoque de um pedido dentro da transação do checkout.
+     * Consome as reservas ativas do usuário; o que as reservas não cobrem sai do estoque
+     * com baixa condicional e o excedente reservado volta para o estoque.
+     *
+     * @return produtos sem estoque suficiente; se não estiver vazia, a transação deve ser desfeita
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<UUID> allocate(User user, Map<UUID, Integer> quantities) {
+        List<StockReservation> holds = reservationRepository.findHolds(
+                user, ReservationStatus.ACTIVE, quantities.keySet(), Instant.now());
+
+        Map<UUID, Integer> held = new HashMap<>();
+        if (!holds.isEmpty()) {
+            int[] consumed = changeStatus(holds.stream().map(StockReservation::getId).toList(),
+                    ReservationStatus.CONSUMED, null);
+            for (int i = 0; i < consumed.length; i++) {
+                // Reserva expirada no meio do caminho: o estoque dela já voltou, então não conta
+                if (consumed[i] == 0) continue;
+                StockReservation hold = holds.get(i);
+                held.merge(hold.getProduct().getId(), hold.getQuantity(), Integer::sum);
+            }
+        }
+
+        Map<UUID, Integer> toTake = new LinkedHashMap<>();
+        Map<UUID, Integer> toReturn = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            int diff = quantity - held.getOrDefault(productId, 0);
+            if (diff > 0) toTake.put(productId, diff);
+            else if (diff < 0) toReturn.put(productId, -diff);
+        });
+
+        List<UUID> shortOfStock = stockLedger.decrement(toTake);
+        if (shortOfStock.isEmpty()) stockLedger.increment(toReturn);
+        return shortOfStock;
+    }
+
+    @Scheduled(fixedRateString = "${ecommerce.reservations.tick:PT1S}")
+    public void tick() {
+        List<UUID> expired = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            expire(expired.subList(from, Math.min(from + batchSize, expired.size())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ecommerce.reservations.sweep-interval:PT1M}",
+               initialDelayString = "${ecommerce.reservations.sweep-interval:PT1M}")
+    public void sweep() {
+        List<UUID> expired;
+        do {
+            expired = reservationRepository.findExpiredIds(
+                    ReservationStatus.ACTIVE, Instant.now(), PageRequest.of(0, batchSize));
+            if (!expired.isEmpty()) {
+                log.info("Sweeping {} expired reservations not tracked by the timing wheel", expired.size());
+                expire(expired);
+            }
+        } while (expired.size() == batchSize);
+    }
+
+    /**
+     * Expira um lote de reservas e devolve o estoque delas em uma transação.
+     * O compare-and-set no status garante que uma reserva consumida ou liberada
+     * nesse meio tempo não devolve estoque.
+     */
+    void expire(List<UUID> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<StockReservation> reservations = reservationRepository.findAllById(ids);
+            if (reservations.isEmpty()) return;
+
+            int[] updated = changeStatus(reservations.stream().map(StockReservation::getId).toList(),
+                    ReservationStatus.EXPIRED, Instant.now());
+
+            Map<UUID, Integer> released = new LinkedHashMap<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) continue;
+                StockReservation reservation = reservations.get(i);
+                released.merge(reservation.getProduct().getId(), reservation.getQuantity(), Integer::sum);
+            }
+            stockLedger.increment(released);
+        });
+    }
+
+    private int[] changeStatus(List<UUID> ids, ReservationStatus target, Instant expiredBefore) {
+        String sql = "UPDATE stock_reservations SET status = ? WHERE id = ? AND status = 'ACTIVE'"
+                + (expiredBefore != null ? " AND expires_at <= ?" : "");
+
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            args.add(expiredBefore != null
+                    ? new Object[]{target.name(), TimeOrderedUuids.toBytes(id), Timestamp.from(expiredBefore)}
+                    : new Object[]{target.name(), TimeOrderedUuids.toBytes(id)});
+        }
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.service.user;
+
+import com.ecommerce.domain.user.User;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserService {
+
+    /**
+     * Usuário autenticado pelo {@code JwtAuthenticationFilter}; o principal já é a entidade {@link User}.
+     */
+    public User getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user))
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user.");
+        return user;
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecommerce.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Árvore de spans e statements SQL de uma requisição HTTP, presa à thread que a atende.
+ * <p>
+ * Fora de uma requisição rastreada (jobs agendados, tracing desligado) {@link #current()} é
+ * {@code null} e {@link #span} devolve um escopo vazio compartilhado: o custo é uma leitura
+ * de ThreadLocal, sem alocação.
+ */
+public final class RequestTrace {
+
+    public static final String ATTRIBUTE = RequestTrace.class.getName();
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = () -> {};
+
+    private final String method;
+    private final String uri;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxSpans;
+    private final int maxStatements;
+
+    private final Span root;
+    private Span current;
+    private int spanCount = 1;
+
+    private final List<Statement> statements = new ArrayList<>();
+    private int statementCount;
+    private long statementNanos;
+    private long statementStart;
+    private long endNanos;
+
+    private RequestTrace(String method, String uri, int maxSpans, int maxStatements) {
+        this.method = method;
+        this.uri = uri;
+        this.maxSpans = maxSpans;
+        this.maxStatements = maxStatements;
+        this.root = new Span(method + " " + uri, null, startNanos);
+        this.current = root;
+    }
+
+    static RequestTrace begin(String method, String uri, int maxSpans, int maxStatements) {
+        RequestTrace trace = new RequestTrace(method, uri, maxSpans, maxStatements);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Abre um span filho do span corrente; use com try-with-resources.
+     */
+    public static Scope span(String name) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null || trace.spanCount >= trace.maxSpans) return NOOP;
+        return trace.open(name);
+    }
+
+    /**
+     * Solta o trace da thread; numa requisição assíncrona o {@link #end} vem depois, em outra thread.
+     */
+    void detach() {
+        CURRENT.remove();
+    }
+
+    long end() {
+        endNanos = System.nanoTime();
+        root.endNanos = endNanos;
+        return endNanos - startNanos;
+    }
+
+    private Scope open(String name) {
+        Span parent = current;
+        Span span = new Span(name, parent, System.nanoTime());
+        parent.children().add(span);
+        spanCount++;
+        current = span;
+        return () -> {
+            span.endNanos = System.nanoTime();
+            current = parent;
+        };
+    }
+
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void statementFinished(String sql, int batchSize) {
+        long now = System.nanoTime();
+        long elapsed = now - statementStart;
+        statementCount++;
+        statementNanos += elapsed;
+        for (Span span = current; span != null; span = span.parent) {
+            span.statements++;
+            span.statementNanos += elapsed;
+        }
+        if (statements.size() < maxStatements) {
+            statements.add(new Statement(sql, batchSize, current.name, statementStart - startNanos, elapsed));
+        }
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+
+    public long statementNanos() {
+        return statementNanos;
+    }
+
+    SlowRequest toSlowRequest(int status) {
+        List<SlowRequest.StatementView> sql = statements.stream()
+                .map(s -> new SlowRequest.StatementView(s.sql, s.batchSize, s.span,
+                        millis(s.offsetNanos), millis(s.elapsedNanos)))
+                .toList();
+        return new SlowRequest(method, uri, status, startedAt, millis(endNanos - startNanos), true,
+                statementCount, millis(statementNanos), statementCount > statements.size(),
+                view(root), sql);
+    }
+
+    private SlowRequest.SpanView view(Span span) {
+        long end = span.endNanos != 0 ? span.endNanos : endNanos;
+        List<SlowRequest.SpanView> children = span.children == null ? List.of()
+                : span.children.stream().map(this::view).toList();
+        return new SlowRequest.SpanView(span.name, millis(span.startNanos - startNanos), millis(end - span.startNanos),
+                span.statements, millis(span.statementNanos), children);
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Span {
+        final String name;
+        final Span parent;
+        final long startNanos;
+        long endNanos;
+        List<Span> children;
+        int statements;
+        long statementNanos;
+
+        Span(String name, Span parent, long startNanos) {
+            this.name = name;
+            this.parent = parent;
+            this.startNanos = startNanos;
+        }
+
+        List<Span> children() {
+            if (children == null) children = new ArrayList<>(4);
+            return children;
+        }
+    }
+
+    private record Statement(String sql, int batchSize, String span, long offsetNanos, long elapsedNanos) {}
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Requisição acima do limite de {@code ecommerce.tracing.slow-threshold}: árvore de spans
+ * e SQL executado, com tempos em milissegundos (offsets relativos ao início da requisição).
+ * Requisições fora da amostra entram só com método, URI, status e duração ({@code traced = false},
+ * sem spans nem SQL).
+ */
+public record SlowRequest(
+        String method,
+        String uri,
+        int status,
+        Instant startedAt,
+        double durationMillis,
+        boolean traced,
+        int statementCount,
+        double statementMillis,
+        boolean statementsTruncated,
+        SpanView root,
+        List<StatementView> statements
+) {
+
+    static SlowRequest untraced(String method, String uri, int status, Instant startedAt, double durationMillis) {
+        return new SlowRequest(method, uri, status, startedAt, durationMillis, false, 0, 0, false, null, List.of());
+    }
+
+    public record SpanView(
+            String name,
+            double offsetMillis,
+            double durationMillis,
+            int statementCount,
+            double statementMillis,
+            List<SpanView> children
+    ) {}
+
+    public record StatementView(
+            String sql,
+            int batchSize,
+            String span,
+            double offsetMillis,
+            double durationMillis
+    ) {}
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer das últimas requisições lentas; a mais antiga é sobrescrita quando enche.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.tracing", name = "enabled", havingValue = "true")
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<SlowRequest> ring;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowRequestLog(@Value("${ecommerce.tracing.buffer-size:100}") int bufferSize) {
+        this.ring = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    void add(SlowRequest request) {
+        long slot = next.getAndIncrement();
+        ring.set((int) (slot % ring.length()), request);
+    }
+
+    /**
+     * As requisições lentas mais recentes, da mais nova para a mais antiga; {@code limit <= 0}
+     * devolve lista vazia.
+     */
+    public List<SlowRequest> recent(int limit) {
+        long last = next.get();
+        int count = (int) Math.max(0, Math.min(Math.min(limit, ring.length()), last));
+        List<SlowRequest> recent = new ArrayList<>(count);
+        for (long slot = last - 1; slot >= last - count; slot--) {
+            SlowRequest request = ring.get((int) (slot % ring.length()));
+            if (request != null) recent.add(request);
+        }
+        return recent;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spans automáticos para controllers, services e repositórios Spring Data da aplicação.
+ * Fora de uma requisição rastreada o advice só lê o ThreadLocal e segue.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "ecommerce.tracing", name = "enabled", havingValue = "true")
+public class TracingAspect {
+
+    // Nome "Classe.método" calculado uma vez por método
+    private final Map<Method, String> componentNames = new ConcurrentHashMap<>();
+
+    // Repositórios são proxies: o nome útil é a interface da aplicação, não SimpleJpaRepository
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate) && candidate.getName().startsWith("com.ecommerce.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    @Around("within(com.ecommerce..*) && (@within(org.springframework.web.bind.annotation.RestController)"
+            + " || @within(org.springframework.stereotype.Service))")
+    public Object traceComponent(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (RequestTrace.current() == null) return joinPoint.proceed();
+
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String name = componentNames.computeIfAbsent(method,
+                m -> joinPoint.getTarget().getClass().getSimpleName() + "." + m.getName());
+        try (RequestTrace.Scope ignored = RequestTrace.span(name)) {
+            return joinPoint.proceed();
+        }
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (RequestTrace.current() == null) return joinPoint.proceed();
+
+        String name = REPOSITORY_NAMES.get(joinPoint.getThis().getClass()) + "." + joinPoint.getSignature().getName();
+        try (RequestTrace.Scope ignored = RequestTrace.span(name)) {
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.tracing;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource principal ("dataSource") com o datasource-proxy para medir cada statement.
+ * Só o principal: com réplica ele é o roteador, e envolver também os pools contaria tudo duas vezes.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "ecommerce.tracing", name = "enabled", havingValue = "true")
+public class TracingConfig {
+
+    @Bean
+    public static BeanPostProcessor tracingDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new TracingQueryListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
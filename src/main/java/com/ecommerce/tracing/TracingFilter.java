@@ -0,0 +1,137 @@
+package com.ecommerce.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Abre um {@link RequestTrace} por requisição amostrada (antes da segurança, para incluir o
+ * filtro JWT) e, no fim, guarda no {@link SlowRequestLog} as que passaram de {@code slow-threshold}.
+ * Contagem e tempo de SQL de cada requisição amostrada ficam no trace (atributo
+ * {@link RequestTrace#ATTRIBUTE}) e no log em DEBUG.
+ * <p>
+ * {@code sample-rate} (0 a 1, padrão 0.01) é a fração das requisições rastreadas. O tempo de
+ * parede é medido em todas (um {@code nanoTime} a mais): as lentas fora da amostra também entram
+ * no log, só com método, URI, status e duração.
+ * <p>
+ * Requisições assíncronas (ex.: {@code CompletableFuture} do /api/auth) terminam depois do primeiro
+ * dispatch: o tempo e o status são lidos no {@code onComplete} de um {@link AsyncListener}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "ecommerce.tracing", name = "enabled", havingValue = "true")
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final SlowRequestLog slowRequests;
+    private final long thresholdNanos;
+    private final int maxSpans;
+    private final int maxStatements;
+    private final double sampleRate;
+
+    public TracingFilter(SlowRequestLog slowRequests,
+                         @Value("${ecommerce.tracing.slow-threshold:PT0.5S}") Duration threshold,
+                         @Value("${ecommerce.tracing.max-spans:1000}") int maxSpans,
+                         @Value("${ecommerce.tracing.max-statements:200}") int maxStatements,
+                         @Value("${ecommerce.tracing.sample-rate:0.01}") double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1))
+            throw new IllegalArgumentException("ecommerce.tracing.sample-rate deve estar entre 0 e 1: " + sampleRate);
+        this.slowRequests = slowRequests;
+        this.thresholdNanos = threshold.toNanos();
+        this.maxSpans = maxSpans;
+        this.maxStatements = maxStatements;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        RequestTrace trace = null;
+        if (sampled()) {
+            trace = RequestTrace.begin(request.getMethod(), request.getRequestURI(), maxSpans, maxStatements);
+            request.setAttribute(RequestTrace.ATTRIBUTE, trace);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (trace != null) trace.detach();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, trace, start));
+            } else {
+                finish(request, response, trace, start);
+            }
+        }
+    }
+
+    private void finish(HttpServletRequest request, HttpServletResponse response, RequestTrace trace, long start) {
+        long elapsed = trace != null ? trace.end() : System.nanoTime() - start;
+        int status = response.getStatus();
+        if (trace != null && log.isDebugEnabled()) {
+            log.debug("{} {} {} em {} ms ({} statements, {} ms de SQL)", request.getMethod(), request.getRequestURI(),
+                    status, elapsed / 1_000_000, trace.statementCount(), trace.statementNanos() / 1_000_000);
+        }
+        if (elapsed < thresholdNanos) return;
+
+        slowRequests.add(trace != null ? trace.toSlowRequest(status)
+                : SlowRequest.untraced(request.getMethod(), request.getRequestURI(), status,
+                        Instant.now().minusNanos(elapsed), RequestTrace.millis(elapsed)));
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final RequestTrace trace;
+        private final long start;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, RequestTrace trace, long start) {
+            this.request = request;
+            this.response = response;
+            this.trace = trace;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(request, response, trace, start);
+        }
+
+        // Timeout e erro também terminam em onComplete
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        // Um novo startAsync descarta os listeners registrados
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
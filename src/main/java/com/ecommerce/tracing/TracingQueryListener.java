@@ -0,0 +1,32 @@
+package com.ecommerce.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Anexa cada statement JDBC (Hibernate, JdbcTemplate) ao span corrente da requisição.
+ * Sem requisição rastreada na thread, não faz nada.
+ */
+class TracingQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) trace.statementStarted();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) return;
+
+        String sql = queryInfoList.size() == 1
+                ? queryInfoList.get(0).getQuery()
+                : queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        trace.statementFinished(sql, execInfo.isBatch() ? execInfo.getBatchSize() : 0);
+    }
+}
@@ -0,0 +1,35 @@
+package db.migration;
+
+import com.ecommerce.migration.UuidBinaryConversion;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Ids UUID em texto de bancos legados (ddl-auto, marcados como V1 pelo baseline) para BINARY(16),
+ * antes do V3 (FKs BINARY(16) para users/products) e do V4 (particionamento: sem FKs e com
+ * created_at na PK, o que o cutover não conseguiria fazer depois). Em banco criado pelo V1 não faz nada.
+ */
+public class V1_1__ConvertLegacyUuids extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 5_000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        UuidBinaryConversion conversion = new UuidBinaryConversion(jdbcTemplate, CHUNK_SIZE, 0);
+        if (!conversion.pending()) return;
+
+        // Retoma o que o UuidBinaryMigration tiver adiantado; sem ele, faz tudo aqui
+        conversion.prepare();
+        conversion.backfill();
+        conversion.cutover();
+    }
+
+    // DDL do MySQL não é transacional e cada lote do backfill deve ser confirmado na hora
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+}
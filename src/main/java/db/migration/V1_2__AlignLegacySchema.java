@@ -0,0 +1,122 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+/**
+ * Completa bancos legados (ddl-auto, marcados como V1 pelo baseline) com o que só o V1 cria:
+ * a coluna {@code orders.version} do {@code @Version}, os tipos VARCHAR de role/status (o Hibernate
+ * gera ENUM), as FKs e a unique com os nomes do V1 (o V4 remove as FKs pelo nome) e as CHECKs.
+ * Cada passo só roda se faltar, então em banco criado pelo V1 não faz nada. Dados legados que
+ * violem uma CHECK fazem a migração falhar: precisam ser corrigidos antes do deploy.
+ */
+public class V1_2__AlignLegacySchema extends BaseJavaMigration {
+
+    private static final List<ForeignKey> FOREIGN_KEYS = List.of(
+            new ForeignKey("orders", "fk_orders_user", "user_id", "users"),
+            new ForeignKey("order_items", "fk_order_items_order", "order_id", "orders"),
+            new ForeignKey("order_items", "fk_order_items_product", "product_id", "products")
+    );
+
+    private static final List<Check> CHECKS = List.of(
+            new Check("users", "ck_users_role", "role IN ('ADMIN', 'USER')"),
+            new Check("products", "ck_products_price", "price > 0"),
+            new Check("products", "ck_products_stock", "stock_quantity >= 0"),
+            new Check("orders", "ck_orders_status", "status IN ('CREATED', 'PAID', 'SHIPPED', 'CANCELED')"),
+            new Check("orders", "ck_orders_total", "total_value >= 0"),
+            new Check("order_items", "ck_order_items_quantity", "quantity > 0")
+    );
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void migrate(Context context) {
+        jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        if (dataType("orders", "version") == null) {
+            jdbcTemplate.execute("ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+        }
+        if ("enum".equalsIgnoreCase(dataType("users", "role"))) {
+            jdbcTemplate.execute("ALTER TABLE users MODIFY role VARCHAR(20) NULL");
+        }
+        if ("enum".equalsIgnoreCase(dataType("orders", "status"))) {
+            jdbcTemplate.execute("ALTER TABLE orders MODIFY status VARCHAR(20) NOT NULL");
+        }
+
+        alignUsernameKey();
+        FOREIGN_KEYS.forEach(this::align);
+        for (Check check : CHECKS) {
+            if (!constraintExists(check.table(), check.name(), "CHECK")) {
+                jdbcTemplate.execute("ALTER TABLE " + check.table()
+                        + " ADD CONSTRAINT " + check.name() + " CHECK (" + check.condition() + ")");
+            }
+        }
+    }
+
+    // O Hibernate cria a unique como UK_<hash>: basta renomear o índice
+    private void alignUsernameKey() {
+        if (constraintExists("users", "uk_users_username", "UNIQUE")) return;
+
+        List<String> indexes = jdbcTemplate.queryForList("""
+                SELECT index_name FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'users' AND non_unique = 0
+                   AND index_name <> 'PRIMARY'
+                 GROUP BY index_name
+                HAVING COUNT(*) = 1 AND MAX(column_name) = 'username'
+                """, String.class);
+        if (indexes.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username)");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE users RENAME INDEX " + indexes.get(0) + " TO uk_users_username");
+        }
+    }
+
+    // FK não se renomeia no MySQL: a FK<hash> do Hibernate sai e entra a do V1
+    private void align(ForeignKey fk) {
+        List<String> existing = jdbcTemplate.queryForList("""
+                SELECT constraint_name FROM information_schema.key_column_usage
+                 WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                   AND referenced_table_name IS NOT NULL
+                """, String.class, fk.table(), fk.column());
+        if (existing.contains(fk.name())) return;
+
+        for (String name : existing) {
+            jdbcTemplate.execute("ALTER TABLE " + fk.table() + " DROP FOREIGN KEY " + name);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + fk.table() + " ADD CONSTRAINT " + fk.name()
+                + " FOREIGN KEY (" + fk.column() + ") REFERENCES " + fk.references() + " (id)");
+    }
+
+    private boolean constraintExists(String table, String name, String type) {
+        Integer count = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.table_constraints
+                 WHERE constraint_schema = DATABASE() AND table_name = ? AND constraint_name = ?
+                   AND constraint_type = ?
+                """, Integer.class, table, name, type);
+        return count != null && count > 0;
+    }
+
+    private String dataType(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList("""
+                SELECT data_type FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                """, String.class, table, column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    // DDL do MySQL não é transacional
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    private record ForeignKey(String table, String name, String column, String references) {
+    }
+
+    private record Check(String table, String name, String condition) {
+    }
+}
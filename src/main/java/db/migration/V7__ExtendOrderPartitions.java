@@ -0,0 +1,33 @@
+package db.migration;
+
+import com.ecommerce.service.order.OrderPartitionMaintainer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * As partições do V4 têm datas fixas (até 2026-11-01 e depois só {@code p_future}). Aqui elas vão
+ * até {@link OrderPartitionMaintainer#MONTHS_AHEAD} meses depois do mês em que a migração roda,
+ * então um banco migrado hoje não depende do primeiro ciclo do job para ter os meses correntes.
+ */
+public class V7__ExtendOrderPartitions extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        // A retenção só vale para a remoção de partições, que não roda aqui
+        new OrderPartitionMaintainer(jdbcTemplate, OrderPartitionMaintainer.MONTHS_AHEAD, Duration.ZERO)
+                .extendPartitions(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    // REORGANIZE PARTITION não é transacional no MySQL
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+-- ==========================
+-- Schema inicial
+-- Sem IF NOT EXISTS: tabela já existente aqui é schema fora do controle do Flyway e deve falhar.
+-- Bancos legados (ddl-auto) não chegam a rodar este script: o baseline-on-migrate os marca como V1
+-- e o V1_1/V1_2 os alinham com ele (ids BINARY(16), orders.version, nomes de FKs e CHECKs).
+-- ==========================
+
+CREATE TABLE users (
+    id          BINARY(16)   NOT NULL,
+    username    VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(20),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT ck_users_role CHECK (role IN ('ADMIN', 'USER'))
+) ENGINE = InnoDB;
+
+CREATE TABLE products (
+    id              BINARY(16)     NOT NULL,
+    name            VARCHAR(100)   NOT NULL,
+    description     VARCHAR(250)   NOT NULL,
+    category        VARCHAR(80)    NOT NULL,
+    price           DECIMAL(12, 2) NOT NULL,
+    stock_quantity  INT            NOT NULL,
+    created_at      DATETIME(6)    NOT NULL,
+    updated_at      DATETIME(6)    NOT NULL,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT ck_products_price CHECK (price > 0),
+    CONSTRAINT ck_products_stock CHECK (stock_quantity >= 0)
+) ENGINE = InnoDB;
+
+CREATE TABLE orders (
+    id           BINARY(16)     NOT NULL,
+    user_id      BINARY(16)     NOT NULL,
+    status       VARCHAR(20)    NOT NULL,
+    total_value  DECIMAL(12, 2) NOT NULL,
+    created_at   DATETIME(6)    NOT NULL,
+    updated_at   DATETIME(6)    NOT NULL,
+    version      BIGINT         NOT NULL DEFAULT 0,
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT ck_orders_status CHECK (status IN ('CREATED', 'PAID', 'SHIPPED', 'CANCELED')),
+    CONSTRAINT ck_orders_total CHECK (total_value >= 0)
+) ENGINE = InnoDB;
+
+CREATE TABLE order_items (
+    id            BINARY(16)     NOT NULL,
+    order_id      BINARY(16)     NOT NULL,
+    product_id    BINARY(16)     NOT NULL,
+    product_name  VARCHAR(150)   NOT NULL,
+    unit_price    DECIMAL(12, 2) NOT NULL,
+    quantity      INT            NOT NULL,
+    subtotal      DECIMAL(12, 2) NOT NULL,
+    CONSTRAINT pk_order_items PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT ck_order_items_quantity CHECK (quantity > 0)
+) ENGINE = InnoDB;
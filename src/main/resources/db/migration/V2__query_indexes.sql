@@ -0,0 +1,16 @@
+-- ==========================
+-- Índices derivados das consultas dos repositórios
+-- (o MySQL descarta sozinho o índice implícito das FKs quando um destes passa a atendê-las)
+-- ==========================
+
+-- OrderRepository.findByUserOrderByCreatedAtDesc: filtra por usuário, já ordenado por data
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at);
+
+-- Order.items / OrderItemRepository.findByOrder
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+
+-- Itens por produto; quantity torna o índice cobrindo para somas de vendas por produto
+CREATE INDEX idx_order_items_product ON order_items (product_id, quantity);
+
+-- Filtros por categoria/preço no MySQL e paginação por categoria do bulk-adjust
+CREATE INDEX idx_products_category_price ON products (category, price);
@@ -0,0 +1,24 @@
+-- ==========================
+-- Reservas de estoque do carrinho (expiram após o TTL e devolvem o estoque)
+-- ==========================
+
+CREATE TABLE stock_reservations (
+    id          BINARY(16)   NOT NULL,
+    user_id     BINARY(16)   NOT NULL,
+    product_id  BINARY(16)   NOT NULL,
+    quantity    INT          NOT NULL,
+    status      VARCHAR(20)  NOT NULL,
+    expires_at  DATETIME(6)  NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    CONSTRAINT pk_stock_reservations PRIMARY KEY (id),
+    CONSTRAINT fk_stock_reservations_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_stock_reservations_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT ck_stock_reservations_quantity CHECK (quantity > 0),
+    CONSTRAINT ck_stock_reservations_status CHECK (status IN ('ACTIVE', 'CONSUMED', 'RELEASED', 'EXPIRED'))
+) ENGINE = InnoDB;
+
+-- Reservas do usuário no checkout (StockReservationRepository.findHolds)
+CREATE INDEX idx_stock_reservations_user_status_product ON stock_reservations (user_id, status, product_id);
+
+-- Varredura de reservas vencidas (StockReservationRepository.findExpiredIds)
+CREATE INDEX idx_stock_reservations_status_expires ON stock_reservations (status, expires_at);
@@ -0,0 +1,49 @@
+-- ==========================
+-- Particionamento mensal de orders/order_items por created_at
+-- Tabelas particionadas no MySQL não aceitam FKs e toda chave única precisa conter a
+-- coluna de partição: as FKs saem (a integridade fica com a aplicação) e as PKs viram (id, created_at).
+-- Partições novas e a remoção das antigas ficam com o OrderPartitionMaintainer.
+-- ==========================
+
+ALTER TABLE order_items DROP FOREIGN KEY fk_order_items_order;
+ALTER TABLE order_items DROP FOREIGN KEY fk_order_items_product;
+ALTER TABLE orders DROP FOREIGN KEY fk_orders_user;
+
+-- order_items herda a data do pedido para cair na mesma partição
+ALTER TABLE order_items ADD COLUMN created_at DATETIME(6) NULL;
+UPDATE order_items i JOIN orders o ON o.id = i.order_id SET i.created_at = o.created_at;
+ALTER TABLE order_items MODIFY created_at DATETIME(6) NOT NULL;
+
+ALTER TABLE orders DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+ALTER TABLE order_items DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+
+-- OrderRepository.findArchivableIds
+CREATE INDEX idx_orders_status_created ON orders (status, created_at);
+
+ALTER TABLE orders PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610   VALUES LESS THAN ('2026-11-01'),
+    PARTITION p_future  VALUES LESS THAN (MAXVALUE)
+);
+
+ALTER TABLE order_items PARTITION BY RANGE COLUMNS (created_at) (
+    PARTITION p_history VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610   VALUES LESS THAN ('2026-11-01'),
+    PARTITION p_future  VALUES LESS THAN (MAXVALUE)
+);
+
+-- ==========================
+-- Arquivo frio: pedidos finalizados antigos, um JSON comprimido (gzip) por pedido
+-- ==========================
+
+CREATE TABLE order_archive (
+    id           BINARY(16)   NOT NULL,
+    user_id      BINARY(16)   NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    archived_at  DATETIME(6)  NOT NULL,
+    payload      MEDIUMBLOB   NOT NULL,
+    CONSTRAINT pk_order_archive PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_order_archive_user_created ON order_archive (user_id, created_at);
@@ -0,0 +1,2 @@
+-- Exportação por período (OrderExportService): varredura em ordem de created_at, sem filesort
+CREATE INDEX idx_orders_created ON orders (created_at);
@@ -0,0 +1,2 @@
+-- Exportação por período (OrderExportService): pedidos arquivados em ordem de created_at, sem filesort
+CREATE INDEX idx_order_archive_created ON order_archive (created_at);
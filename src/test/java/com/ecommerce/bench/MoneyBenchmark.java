@@ -0,0 +1,131 @@
+package com.ecommerce.bench;
+
+import com.ecommerce.common.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara {@link BigDecimal} e {@link Money} nos dois caminhos quentes de valores:
+ * montar um pedido grande (preço × quantidade, somando o total) e agregar receita
+ * sobre muitos itens. O profiler de GC mostra as alocações por operação.
+ *
+ * Uso:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ecommerce.bench.MoneyBenchmark
+ * </pre>
+ * Compare {@code gc.alloc.rate.norm} (bytes/op) e o tempo médio de cada par de benchmarks.
+ * <p>
+ * Referência (JDK 17, 1 núcleo; mesmos métodos num laço manual, 5×1s de aquecimento e de medição,
+ * alocação pelo {@code ThreadMXBean}, não pelo JMH):
+ * <pre>
+ * largeOrder 100 linhas    BigDecimal    6,1 µs    8.000 B   | Money    6,1 µs    4.800 B
+ * largeOrder 1000 linhas   BigDecimal   67,5 µs   80.000 B   | Money   62,5 µs   48.000 B
+ * revenue 1M itens         BigDecimal  9,25 ms     40 MB     | Money   6,21 ms     24 MB
+ * revenue 1M (unidades mínimas)         3,54 ms     24 B
+ * </pre>
+ * No pedido o ganho é de alocação, não de tempo; na agregação a soma por {@code Money} é ~1/3 mais rápida.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    @Param({"100", "1000"})
+    private int orderLines;
+
+    @Param({"1000000"})
+    private int aggregatedItems;
+
+    private BigDecimal[] decimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+
+    private BigDecimal[] decimalSubtotals;
+    private Money[] moneySubtotals;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[orderLines];
+        moneyPrices = new Money[orderLines];
+        quantities = new int[orderLines];
+        for (int i = 0; i < orderLines; i++) {
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2);
+            decimalPrices[i] = price;
+            moneyPrices[i] = Money.of(price);
+            quantities[i] = 1 + random.nextInt(10);
+        }
+
+        decimalSubtotals = new BigDecimal[aggregatedItems];
+        moneySubtotals = new Money[aggregatedItems];
+        for (int i = 0; i < aggregatedItems; i++) {
+            BigDecimal subtotal = BigDecimal.valueOf(100 + random.nextInt(10_000_000), 2);
+            decimalSubtotals[i] = subtotal;
+            moneySubtotals[i] = Money.of(subtotal);
+        }
+    }
+
+    @Benchmark
+    public void largeOrderBigDecimal(Blackhole blackhole) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < orderLines; i++) {
+            BigDecimal subtotal = decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            blackhole.consume(subtotal);
+            total = total.add(subtotal);
+        }
+        blackhole.consume(total);
+    }
+
+    @Benchmark
+    public void largeOrderMoney(Blackhole blackhole) {
+        Money total = Money.zero();
+        for (int i = 0; i < orderLines; i++) {
+            Money subtotal = moneyPrices[i].times(quantities[i]);
+            blackhole.consume(subtotal);
+            total = total.plus(subtotal);
+        }
+        blackhole.consume(total);
+    }
+
+    @Benchmark
+    public BigDecimal revenueBigDecimal() {
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (BigDecimal subtotal : decimalSubtotals) revenue = revenue.add(subtotal);
+        return revenue;
+    }
+
+    // Mesma API usada em produção: um Money novo por soma
+    @Benchmark
+    public Money revenueMoney() {
+        Money revenue = Money.zero();
+        for (Money subtotal : moneySubtotals) revenue = revenue.plus(subtotal);
+        return revenue;
+    }
+
+    // Referência: soma direto nas unidades mínimas, sem alocação por item (não é o caminho de produção)
+    @Benchmark
+    public Money revenueMinorUnits() {
+        long cents = 0;
+        for (Money subtotal : moneySubtotals) cents = Math.addExact(cents, subtotal.minorUnits());
+        return Money.ofMinor(cents);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.bench;
+
+import com.ecommerce.api.dto.OrderDTO;
+import com.ecommerce.api.dto.OrderItemDTO;
+import com.ecommerce.api.dto.ProductDTO;
+import com.ecommerce.domain.order.OrderStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de serialização/desserialização e tamanho do payload de uma página de {@link ProductDTO}
+ * e de uma lista de {@link OrderDTO}, em JSON, CBOR e Smile (mesma configuração de mapper).
+ * O tamanho de cada payload é impresso antes das medições. Ainda não há resultados registrados.
+ *
+ * Uso:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ecommerce.bench.SerializationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final TypeReference<List<ProductDTO>> PRODUCTS = new TypeReference<>() {};
+    private static final TypeReference<List<OrderDTO>> ORDERS = new TypeReference<>() {};
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String format;
+
+    @Param({"50"})
+    private int pageSize;
+
+    private ObjectMapper mapper;
+    private List<ProductDTO> productPage;
+    private List<OrderDTO> orders;
+    private byte[] productBytes;
+    private byte[] orderBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = mapper(format);
+        productPage = products(pageSize);
+        orders = orders(pageSize / 5, 10);
+        productBytes = mapper.writeValueAsBytes(productPage);
+        orderBytes = mapper.writeValueAsBytes(orders);
+        System.out.printf("%n%s payload: products page %d bytes, orders %d bytes%n",
+                format, productBytes.length, orderBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeProductPage() throws Exception {
+        return mapper.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public List<ProductDTO> readProductPage() throws Exception {
+        return mapper.readValue(productBytes, PRODUCTS);
+    }
+
+    @Benchmark
+    public byte[] writeOrders() throws Exception {
+        return mapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public List<OrderDTO> readOrders() throws Exception {
+        return mapper.readValue(orderBytes, ORDERS);
+    }
+
+    // Mesma configuração relevante do Boot: JavaTimeModule e datas ISO-8601
+    private static ObjectMapper mapper(String format) {
+        var builder = switch (format) {
+            case "CBOR" -> CBORMapper.builder();
+            case "SMILE" -> SmileMapper.builder();
+            default -> JsonMapper.builder();
+        };
+        return builder.addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    private static List<ProductDTO> products(int count) {
+        List<ProductDTO> products = new ArrayList<>(count);
+        Instant now = Instant.now();
+        for (int i = 0; i < count; i++) {
+            products.add(new ProductDTO(UUID.randomUUID(), "Product " + i,
+                    "Description of product " + i + " with a few more words like a real catalogue entry",
+                    "category-" + (i % 7), BigDecimal.valueOf(1_000 + i * 37L, 2), 10 + i, now, now));
+        }
+        return products;
+    }
+
+    private static List<OrderDTO> orders(int count, int itemsPerOrder) {
+        List<OrderDTO> orders = new ArrayList<>(count);
+        Instant now = Instant.now();
+        for (int o = 0; o < count; o++) {
+            List<OrderItemDTO> items = new ArrayList<>(itemsPerOrder);
+            for (int i = 0; i < itemsPerOrder; i++) {
+                items.add(new OrderItemDTO(UUID.randomUUID(), UUID.randomUUID(), "Product " + i,
+                        new BigDecimal("19.90"), 1 + i % 3, new BigDecimal("19.90").multiply(BigDecimal.valueOf(1 + i % 3))));
+            }
+            orders.add(new OrderDTO(UUID.randomUUID(), OrderStatus.PAID, new BigDecimal("398.00"), items, now, now));
+        }
+        return orders;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SerializationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.bench;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mede o time-to-first-request: do spawn da JVM até a primeira resposta HTTP (qualquer status),
+ * comparando o jar padrão com o layout do profile fast-start (AOT + CDS).
+ *
+ * Uso (infraestrutura do docker-compose no ar; o training run gera o app.jsa):
+ * <pre>
+ * mvn package && mvn -Pfast-start package -DskipTests -Dfast-start.skip-training=false
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ecommerce.bench.StartupBenchmark -Dbench.runs=5
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("bench.runs", 5);
+        int port = Integer.getInteger("bench.port", 8081);
+        String profile = System.getProperty("bench.profile", "dev");
+        String target = System.getProperty("bench.target", "target");
+        String path = System.getProperty("bench.path", "/api/products?size=1");
+
+        List<String> common = List.of("--server.port=" + port);
+
+        List<String> standard = List.of("-Dspring.profiles.active=" + profile,
+                "-jar", Path.of(target, "ecommerce-challenge-1.0.0.jar").toString());
+
+        File fastStartDir = Path.of(target, "fast-start").toFile();
+        List<String> fastStart = List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=" + profile + ",fast-start", "-jar", "app.jar");
+
+        URI uri = URI.create("http://localhost:" + port + path);
+        report("standard", measure(runs, null, standard, common, uri));
+        report("fast-start", measure(runs, fastStartDir, fastStart, common, uri));
+    }
+
+    private static List<Long> measure(int runs, File dir, List<String> jvmArgs, List<String> appArgs, URI uri)
+            throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int run = 0; run < runs; run++) {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.addAll(appArgs);
+
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .directory(dir)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                waitForFirstResponse(uri, process);
+                millis.add((System.nanoTime() - start) / 1_000_000);
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        return millis;
+    }
+
+    private static void waitForFirstResponse(URI uri, Process process) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(3).toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive())
+                throw new IllegalStateException("Application exited with code " + process.exitValue());
+            try {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (java.io.IOException connectionRefused) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("No response from " + uri + " within 3 minutes");
+    }
+
+    private static void report(String name, List<Long> millis) {
+        List<Long> sorted = new ArrayList<>(millis);
+        Collections.sort(sorted);
+        System.out.printf("%-10s time-to-first-request: min %d ms, median %d ms, runs %s%n",
+                name, sorted.get(0), sorted.get(sorted.size() / 2), Arrays.toString(millis.toArray()));
+    }
+}
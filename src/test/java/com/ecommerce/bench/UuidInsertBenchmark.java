@@ -0,0 +1,86 @@
+package com.ecommerce.bench;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compara a vazão de inserts em tabelas grandes para três formatos de chave primária:
+ * UUID v4 em CHAR(36) (formato antigo), UUID v4 em BINARY(16) e UUID v7 em BINARY(16).
+ * A vazão é impressa a cada checkpoint, para mostrar a degradação conforme a tabela cresce.
+ *
+ * Uso (MySQL do docker-compose):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.ecommerce.bench.UuidInsertBenchmark \
+ *     -Dbench.rows=5000000 -Dbench.url=jdbc:mysql://localhost:3306/ecommerce_bench?createDatabaseIfNotExist=true
+ * </pre>
+ */
+public class UuidInsertBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("bench.url",
+                "jdbc:mysql://localhost:3306/ecommerce_bench?createDatabaseIfNotExist=true&rewriteBatchedStatements=true");
+        String user = System.getProperty("bench.user", "root");
+        String password = System.getProperty("bench.password", "root");
+        long rows = Long.getLong("bench.rows", 2_000_000L);
+        long checkpoint = Long.getLong("bench.checkpoint", 250_000L);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            run(connection, "uuid_v4_char", "CHAR(36)", rows, checkpoint, () -> UUID.randomUUID().toString());
+            run(connection, "uuid_v4_binary", "BINARY(16)", rows, checkpoint, () -> TimeOrderedUuids.toBytes(UUID.randomUUID()));
+            run(connection, "uuid_v7_binary", "BINARY(16)", rows, checkpoint, () -> TimeOrderedUuids.toBytes(TimeOrderedUuids.next()));
+        }
+    }
+
+    private static void run(Connection connection, String table, String idType, long rows, long checkpoint,
+                            Supplier<Object> ids) throws Exception {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_" + table);
+            ddl.execute("CREATE TABLE bench_" + table + " (id " + idType + " NOT NULL PRIMARY KEY, "
+                    + "payload VARCHAR(100) NOT NULL, created_at DATETIME(6) NOT NULL) ENGINE=InnoDB");
+        }
+
+        connection.setAutoCommit(false);
+        System.out.printf("%n== %s (%s) ==%n", table, idType);
+
+        long start = System.nanoTime();
+        long windowStart = start;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_" + table + " (id, payload, created_at) VALUES (?, ?, ?)")) {
+            for (long i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setString(2, "payload-" + i);
+                insert.setTimestamp(3, Timestamp.from(Instant.now()));
+                insert.addBatch();
+
+                if (i % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if (i % checkpoint == 0) {
+                    long now = System.nanoTime();
+                    System.out.printf("%,12d rows  %,10.0f rows/s (window)  %,10.0f rows/s (total)%n",
+                            i, checkpoint / seconds(now - windowStart), i / seconds(now - start));
+                    windowStart = now;
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,194 @@
+package com.ecommerce.common.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final String KEY = "key";
+    private static final int FOLLOWERS = 8;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void followersShareTheLeadersResult() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(10));
+        AtomicInteger loads = new AtomicInteger();
+        Gate gate = new Gate();
+
+        Future<String> leader = pool.submit(() -> flight.execute(KEY, gate.blocking(() -> "v" + loads.incrementAndGet())));
+        gate.awaitEntered();
+        List<Future<String>> followers = followers(flight, () -> "v" + loads.incrementAndGet());
+        awaitBlocked(FOLLOWERS);
+
+        gate.release();
+
+        assertEquals("v1", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) assertEquals("v1", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void leaderFailureReachesEveryFollowerAndFreesTheKey() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(10));
+        IllegalStateException failure = new IllegalStateException("backend down");
+        Gate gate = new Gate();
+
+        Future<String> leader = pool.submit(() -> flight.execute(KEY, gate.blocking(() -> {
+            throw failure;
+        })));
+        gate.awaitEntered();
+        List<Future<String>> followers = followers(flight, () -> "unused");
+        awaitBlocked(FOLLOWERS);
+
+        gate.release();
+
+        assertSame(failure, cause(leader));
+        for (Future<String> follower : followers) assertSame(failure, cause(follower));
+        assertEquals(0, flight.inFlight());
+
+        // The failed call is not cached: the next caller loads again
+        assertEquals("recovered", flight.execute(KEY, () -> "recovered"));
+    }
+
+    @Test
+    void followerGivesUpAfterTheTimeout() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMillis(200));
+        Gate gate = new Gate();
+
+        pool.submit(() -> flight.execute(KEY, gate.blocking(() -> "slow")));
+        gate.awaitEntered();
+
+        assertThrows(SingleFlightTimeoutException.class, () -> flight.execute(KEY, () -> "unused"));
+        gate.release();
+    }
+
+    @Test
+    void stuckCallIsReplacedAndItsCleanupLeavesTheReplacementInPlace() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(1));
+        Gate stuck = new Gate();
+        Gate replacement = new Gate();
+
+        Future<String> stuckLeader = pool.submit(() -> flight.execute(KEY, stuck.blocking(() -> "stale")));
+        stuck.awaitEntered();
+        Thread.sleep(1_100);
+
+        // Older than the timeout: the next caller takes the key over with a new call
+        Future<String> newLeader = pool.submit(() -> flight.execute(KEY, replacement.blocking(() -> "fresh")));
+        replacement.awaitEntered();
+        assertEquals(1, flight.inFlight());
+
+        // The stuck call finishing must remove only itself, not the replacement
+        stuck.release();
+        assertEquals("stale", stuckLeader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, flight.inFlight());
+
+        Future<String> follower = pool.submit(() -> flight.execute(KEY, () -> "not the replacement"));
+        awaitBlocked(1);
+        replacement.release();
+
+        assertEquals("fresh", newLeader.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void followersReceiveTheirOwnCopyOfMutableResults() throws Exception {
+        SingleFlight<String, List<String>> flight = new SingleFlight<>(Duration.ofSeconds(10), ArrayList::new);
+        Gate gate = new Gate();
+        List<String> loaded = new ArrayList<>(List.of("a"));
+
+        Future<List<String>> leader = pool.submit(() -> flight.execute(KEY, gate.blocking(() -> loaded)));
+        gate.awaitEntered();
+        Future<List<String>> follower = pool.submit(() -> flight.execute(KEY, ArrayList::new));
+        awaitBlocked(1);
+        gate.release();
+
+        assertSame(loaded, leader.get(5, TimeUnit.SECONDS));
+        List<String> copy = follower.get(5, TimeUnit.SECONDS);
+        assertNotSame(loaded, copy);
+        assertEquals(loaded, copy);
+    }
+
+    private <V> List<Future<V>> followers(SingleFlight<String, V> flight, Supplier<V> loader) {
+        List<Future<V>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) followers.add(pool.submit(() -> flight.execute(KEY, loader)));
+        return followers;
+    }
+
+    // Followers park in CompletableFuture.get(timeout); waits until that many pool threads are parked there
+    private static void awaitBlocked(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            long blocked = Thread.getAllStackTraces().entrySet().stream()
+                    .filter(e -> e.getKey().getState() == Thread.State.TIMED_WAITING)
+                    .filter(e -> parkedInFollow(e.getValue()))
+                    .count();
+            if (blocked >= count) return;
+            Thread.sleep(5);
+        }
+        fail("followers did not block on the in-flight call");
+    }
+
+    private static boolean parkedInFollow(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            if (frame.getClassName().equals(SingleFlight.class.getName()) && frame.getMethodName().equals("follow"))
+                return true;
+        }
+        return false;
+    }
+
+    private static Throwable cause(Future<?> future) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    /**
+     * Holds a loader inside the call until released, so the test controls when the leader finishes.
+     */
+    private static final class Gate {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        <V> Supplier<V> blocking(Supplier<V> loader) {
+            return () -> {
+                entered.countDown();
+                try {
+                    if (!released.await(10, TimeUnit.SECONDS)) throw new IllegalStateException("gate never released");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                return loader.get();
+            };
+        }
+
+        void awaitEntered() throws InterruptedException {
+            assertTrue(entered.await(5, TimeUnit.SECONDS), "loader never started");
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
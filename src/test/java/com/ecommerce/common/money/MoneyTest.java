@@ -0,0 +1,104 @@
+package com.ecommerce.common.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    @Test
+    void conversionFromBigDecimalRoundsHalfEvenAtTheCurrencyScale() {
+        assertEquals(12, Money.of(new BigDecimal("0.125")).minorUnits());
+        assertEquals(14, Money.of(new BigDecimal("0.135")).minorUnits());
+        assertEquals(-12, Money.of(new BigDecimal("-0.125")).minorUnits());
+        assertEquals(1050, Money.of(new BigDecimal("10.5")).minorUnits());
+
+        Money yen = Money.of(new BigDecimal("100.5"), JPY);
+        assertEquals(100, yen.minorUnits());
+        assertEquals(new BigDecimal("100"), yen.toBigDecimal());
+    }
+
+    @Test
+    void multiplicationByAFactorRoundsHalfEven() {
+        assertEquals(2, Money.ofMinor(5).times(new BigDecimal("0.5")).minorUnits());
+        assertEquals(8, Money.ofMinor(15).times(new BigDecimal("0.5")).minorUnits());
+        assertEquals(Money.ofMinor(8500), Money.ofMinor(10000).times(new BigDecimal("0.85")));
+    }
+
+    @Test
+    void arithmeticIsExactInMinorUnits() {
+        Money price = Money.of(new BigDecimal("0.10"));
+        Money total = Money.zero();
+        for (int i = 0; i < 3; i++) total = total.plus(price);
+
+        assertEquals(Money.of(new BigDecimal("0.30")), total);
+        assertEquals(Money.ofMinor(2997), Money.of(new BigDecimal("9.99")).times(3));
+        assertEquals(Money.ofMinor(-1), Money.zero().minus(Money.ofMinor(1)));
+        assertEquals(new BigDecimal("10.00"), Money.ofMinor(1000).toBigDecimal());
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrappingAround() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> max.times(new BigDecimal("1.5")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e20")));
+    }
+
+    @Test
+    void mixingCurrenciesIsRejected() {
+        Money reais = Money.ofMinor(100);
+        Money dollars = Money.ofMinor(100, USD);
+
+        assertThrows(IllegalArgumentException.class, () -> reais.plus(dollars));
+        assertThrows(IllegalArgumentException.class, () -> reais.minus(dollars));
+        assertThrows(IllegalArgumentException.class, () -> reais.compareTo(dollars));
+        assertNotEquals(reais, dollars);
+    }
+
+    @Test
+    void equalityIgnoresTheScaleOfTheSourceDecimal() {
+        Money a = Money.of(new BigDecimal("10.0"));
+        Money b = Money.of(new BigDecimal("10.00"));
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(0, a.compareTo(b));
+    }
+
+    @Test
+    void converterRoundTripsThroughTheDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertEquals(new BigDecimal("12.30"), converter.convertToDatabaseColumn(Money.of(new BigDecimal("12.3"))));
+        assertEquals(Money.ofMinor(1230), converter.convertToEntityAttribute(new BigDecimal("12.3")));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            // DECIMAL(12, 2) range
+            Money money = Money.ofMinor(random.nextLong(-99_999_999_999L, 100_000_000_000L));
+            assertEquals(money, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(money)));
+        }
+    }
+
+    @Test
+    void jsonIsAPlainDecimalNumber() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals("10.50", mapper.writeValueAsString(Money.ofMinor(1050)));
+        assertEquals(Money.ofMinor(1050), mapper.readValue("10.5", Money.class));
+    }
+}
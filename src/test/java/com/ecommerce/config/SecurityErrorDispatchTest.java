@@ -0,0 +1,70 @@
+package com.ecommerce.config;
+
+import com.ecommerce.load.StubElasticsearchConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Erros de {@code @ResponseStatus} chegam ao cliente com o próprio status, e não como 403 do
+ * dispatch ERROR para /error. Precisa de um Tomcat de verdade: o MockMvc não faz esse dispatch.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "load"})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Import(StubElasticsearchConfiguration.class)
+class SecurityErrorDispatchTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort private int port;
+
+    @Test
+    void asyncAuthErrorsKeepTheirStatus() throws Exception {
+        String credentials = "{\"username\":\"error-" + UUID.randomUUID() + "\",\"password\":\"12345678\"}";
+
+        assertEquals(401, post("/api/auth/login", credentials).statusCode());
+        assertEquals(201, post("/api/auth/register", credentials).statusCode());
+
+        HttpResponse<String> taken = post("/api/auth/register", credentials);
+        assertEquals(409, taken.statusCode());
+        assertTrue(taken.body().contains("\"status\":409"), taken.body());
+    }
+
+    @Test
+    void publicEndpointErrorsKeepTheirStatus() throws Exception {
+        assertEquals(400, get("/api/products?fields=nope").statusCode());
+    }
+
+    @Test
+    void protectedEndpointsStayProtected() throws Exception {
+        assertEquals(403, get("/orders").statusCode());
+        assertEquals(403, get("/error").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
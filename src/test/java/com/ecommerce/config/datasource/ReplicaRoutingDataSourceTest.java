@@ -0,0 +1,137 @@
+package com.ecommerce.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dois H2 em memória fazem o papel de primário e réplica; cada um tem uma linha que o identifica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicReference<Duration> lag = new AtomicReference<>(Duration.ZERO);
+
+    private ReplicaHealthMonitor health;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+
+        health = new ReplicaHealthMonitor(replica, ds -> {
+            Duration current = lag.get();
+            if (current == null) throw new IllegalStateException("replica down");
+            return current;
+        }, Duration.ofSeconds(2), Duration.ofSeconds(2));
+        health.check();
+
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary, replica, health, new ReadYourWritesTracker(Duration.ofMillis(300))));
+
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+        assertEquals("primary", writeTx.execute(status -> whoAmI()));
+        assertEquals("primary", whoAmI(), "no transaction means primary");
+    }
+
+    @Test
+    void readsStickToPrimaryShortlyAfterTheUsersOwnWrite() throws InterruptedException {
+        loginAs("alice");
+        writeTx.executeWithoutResult(status -> jdbc.update("UPDATE node SET writes = writes + 1"));
+
+        assertEquals("primary", readTx.execute(status -> whoAmI()), "alice reads her own write");
+
+        loginAs("bob");
+        assertEquals("replica", readTx.execute(status -> whoAmI()), "other users are not affected");
+
+        Thread.sleep(400);
+        loginAs("alice");
+        assertEquals("replica", readTx.execute(status -> whoAmI()), "window expired");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsUnhealthyOrLagging() {
+        lag.set(Duration.ofSeconds(30));
+        health.check();
+        assertEquals("primary", readTx.execute(status -> whoAmI()));
+
+        lag.set(null);
+        health.check();
+        assertEquals("primary", readTx.execute(status -> whoAmI()));
+
+        lag.set(Duration.ZERO);
+        health.check();
+        assertEquals("replica", readTx.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void aHangingProbeRunsOffTheCallersThread() throws InterruptedException {
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReplicaHealthMonitor hanging = new ReplicaHealthMonitor(database("replica"), ds -> {
+            probing.countDown();
+            release.await();
+            return Duration.ZERO;
+        }, Duration.ofSeconds(2), Duration.ofSeconds(2));
+
+        try {
+            hanging.start();
+            assertTrue(probing.await(5, TimeUnit.SECONDS));
+            assertFalse(hanging.isReplicaUsable(), "reads stay on the primary until the first check ends");
+        } finally {
+            release.countDown();
+            hanging.shutdown();
+        }
+    }
+
+    private String whoAmI() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void loginAs(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS node");
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20), writes INT)");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
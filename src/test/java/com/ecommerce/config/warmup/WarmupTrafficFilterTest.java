@@ -0,0 +1,106 @@
+package com.ecommerce.config.warmup;
+
+import com.ecommerce.domain.product.ProductField;
+import com.ecommerce.domain.product.ProductSearchService;
+import com.ecommerce.search.analytics.SearchAnalytics;
+import com.ecommerce.search.analytics.SearchQuery;
+import com.ecommerce.search.product.ProductDocument;
+import com.ecommerce.search.product.ProductIndexWriter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WarmupTrafficFilterTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ProductIndexWriter indexWriter;
+
+    @Mock
+    private SearchAnalytics analytics;
+
+    @Mock
+    private SearchHits<ProductDocument> hits;
+
+    private final WarmupTrafficFilter filter = new WarmupTrafficFilter();
+    private ProductSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(hits.stream()).thenAnswer(invocation -> Stream.empty());
+        when(elasticsearchOperations.search(any(Query.class), eq(ProductDocument.class))).thenReturn(hits);
+        searchService = new ProductSearchService(elasticsearchOperations, indexWriter, analytics, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void warmupSearchesAreNotRecorded() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(WarmupTraffic.HEADER, WarmupTraffic.TOKEN);
+
+        filter.doFilter(request, new MockHttpServletResponse(), search());
+
+        verify(elasticsearchOperations).search(any(Query.class), eq(ProductDocument.class));
+        verify(analytics, never()).record(any(SearchQuery.class), anyLong());
+        assertFalse(WarmupTraffic.isCurrent(), "the mark must not outlive the request");
+    }
+
+    @Test
+    void regularSearchesAreRecorded() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), search());
+
+        verify(analytics).record(any(SearchQuery.class), anyLong());
+    }
+
+    @Test
+    void aGuessedTokenDoesNotHideSearches() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(WarmupTraffic.HEADER, "0".repeat(WarmupTraffic.TOKEN.length()));
+
+        filter.doFilter(request, new MockHttpServletResponse(), search());
+
+        verify(analytics).record(any(SearchQuery.class), anyLong());
+    }
+
+    @Test
+    void markIsClearedWhenTheRequestFails() {
+        MockHttpServletRequest request = request();
+        request.addHeader(WarmupTraffic.HEADER, WarmupTraffic.TOKEN);
+        AtomicBoolean markedInside = new AtomicBoolean();
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            markedInside.set(WarmupTraffic.isCurrent());
+            throw new IllegalStateException("boom");
+        }));
+
+        assertTrue(markedInside.get());
+        assertFalse(WarmupTraffic.isCurrent());
+    }
+
+    private FilterChain search() {
+        return (req, res) -> searchService.search("caneca", null, null, null, 0, 10, ProductField.ALL);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/products");
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.domain.product;
+
+import com.ecommerce.api.dto.BulkAdjustResultDTO;
+import com.ecommerce.api.dto.ProductBulkAdjustDTO;
+import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.search.product.ProductIndexWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bulk adjustments run in their own short transactions, so the test doesn't wrap them in one.
+ * A chunk size of 2 makes every scenario cross chunk boundaries.
+ */
+@DataJpaTest(properties = "ecommerce.products.bulk.chunk-size=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductBulkService.class, ProductMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkServiceTest {
+
+    @MockBean private ProductIndexWriter indexWriter;
+
+    @Autowired private ProductBulkService bulkService;
+    @Autowired private ProductRepository productRepository;
+
+    @Test
+    void idListCountsOnlyExistingProductsAsMatched() {
+        String category = "bulk-ids-" + UUID.randomUUID();
+        List<UUID> ids = new ArrayList<>(save(category, 3, "10.00", 5));
+        ids.add(UUID.randomUUID());
+        ids.add(UUID.randomUUID());
+
+        BulkAdjustResultDTO result = bulkService.adjust(new ProductBulkAdjustDTO(null, ids, null, 4, null));
+
+        assertEquals(3, result.matched());
+        assertEquals(3, result.updated());
+        for (UUID id : ids.subList(0, 3)) {
+            assertEquals(9, productRepository.findById(id).orElseThrow().getStockQuantity());
+        }
+    }
+
+    @Test
+    void categoryAdjustmentWalksEveryChunkAndLeavesOtherCategoriesAlone() {
+        String category = "bulk-category-" + UUID.randomUUID();
+        List<UUID> ids = save(category, 5, "10.00", 5);
+        UUID other = save("bulk-other-" + UUID.randomUUID(), 1, "10.00", 5).get(0);
+
+        BulkAdjustResultDTO result = bulkService.adjust(
+                new ProductBulkAdjustDTO(category, null, new BigDecimal("-10"), null, null));
+
+        assertEquals(5, result.matched());
+        assertEquals(5, result.updated());
+        for (UUID id : ids) {
+            assertEquals(0, new BigDecimal("9.00").compareTo(productRepository.findById(id).orElseThrow().getPrice()));
+        }
+        assertEquals(0, new BigDecimal("10.00").compareTo(productRepository.findById(other).orElseThrow().getPrice()));
+        verify(indexWriter, times(3)).indexAll(anyList());
+    }
+
+    @Test
+    void priceCutThatWouldZeroThePriceIsMatchedButNotUpdated() {
+        String category = "bulk-zero-" + UUID.randomUUID();
+        save(category, 1, "0.01", 5);
+
+        BulkAdjustResultDTO result = bulkService.adjust(
+                new ProductBulkAdjustDTO(category, null, new BigDecimal("-60"), null, null));
+
+        assertEquals(1, result.matched());
+        assertEquals(0, result.updated());
+        assertEquals(1, result.priceSkipped());
+    }
+
+    @Test
+    void skippedPricesAreReportedEvenWhenTheStockOfTheSameRowsIsUpdated() {
+        String category = "bulk-zero-stock-" + UUID.randomUUID();
+        UUID tiny = save(category, 1, "0.01", 5).get(0);
+        UUID regular = save(category, 1, "10.00", 5).get(0);
+
+        BulkAdjustResultDTO result = bulkService.adjust(
+                new ProductBulkAdjustDTO(category, null, new BigDecimal("-60"), 2, null));
+
+        assertEquals(2, result.matched());
+        assertEquals(2, result.updated());
+        assertEquals(1, result.priceSkipped());
+        Product unchanged = productRepository.findById(tiny).orElseThrow();
+        assertEquals(0, new BigDecimal("0.01").compareTo(unchanged.getPrice()));
+        assertEquals(7, unchanged.getStockQuantity());
+        assertEquals(0, new BigDecimal("4.00").compareTo(productRepository.findById(regular).orElseThrow().getPrice()));
+    }
+
+    @Test
+    void stockDeltaNeverGoesNegative() {
+        String category = "bulk-negative-" + UUID.randomUUID();
+        UUID id = save(category, 1, "10.00", 3).get(0);
+
+        bulkService.adjust(new ProductBulkAdjustDTO(null, List.of(id), null, -10, null));
+
+        assertEquals(0, productRepository.findById(id).orElseThrow().getStockQuantity());
+    }
+
+    private List<UUID> save(String category, int count, String price, int stock) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(productRepository.save(Product.builder()
+                    .name("Bulk product " + i)
+                    .description("Bulk adjustment")
+                    .category(category)
+                    .price(new BigDecimal(price))
+                    .stockQuantity(stock)
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.domain.product;
+
+import com.ecommerce.api.dto.ProductBatchDTO;
+import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.search.product.ProductIndexWriter;
+import com.ecommerce.support.SqlCapture;
+import com.ecommerce.support.SqlCaptureConfiguration;
+import com.ecommerce.support.StatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductService.class, ProductMapper.class, SqlCaptureConfiguration.class})
+class ProductServiceStatementBudgetTest {
+
+    @MockBean private ProductIndexWriter indexWriter;
+
+    @Autowired private ProductService productService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private SqlCapture sqlCapture;
+
+    @Test
+    void batchLookupIsASingleQuery() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(productRepository.save(Product.builder()
+                    .name("Cart item " + i)
+                    .description("Batch lookup")
+                    .category("cart")
+                    .price(new BigDecimal("5.00"))
+                    .stockQuantity(10)
+                    .build()).getId());
+        }
+        productRepository.flush();
+        ids.add(UUID.randomUUID());
+
+        ProductBatchDTO result = StatementBudget.atMost(sqlCapture, 1, () -> productService.findByIds(ids));
+
+        assertEquals(50, result.products().size());
+        assertEquals(1, result.missing().size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.domain.recommendation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoOccurrenceEngineTest {
+
+    private final UUID laptop = UUID.randomUUID();
+    private final UUID mouse = UUID.randomUUID();
+    private final UUID bag = UUID.randomUUID();
+    private final UUID monitor = UUID.randomUUID();
+
+    @Test
+    void relatedListsPartnersByHowOftenTheyWereBoughtTogether() {
+        CoOccurrenceEngine engine = new CoOccurrenceEngine(10, 16, 50, "");
+        engine.record(List.of(laptop, mouse, bag));
+        engine.record(List.of(laptop, mouse));
+        engine.record(List.of(laptop, mouse, mouse));
+        engine.record(List.of(monitor));
+
+        assertEquals(List.of(new RelatedProduct(mouse, 3), new RelatedProduct(bag, 1)), engine.related(laptop, 10));
+        assertEquals(List.of(new RelatedProduct(mouse, 3)), engine.related(laptop, 1));
+        assertEquals(List.of(), engine.related(monitor, 10));
+        assertEquals(List.of(), engine.related(UUID.randomUUID(), 10));
+    }
+
+    @Test
+    void relatedStaysInBoundsAfterTheProductTableGrows() {
+        CoOccurrenceEngine engine = new CoOccurrenceEngine(10, 16, 50, "");
+        // Past the initial 1024 slots, so the partners of the first product live in a regrown array
+        for (int i = 0; i < 3_000; i++) engine.record(List.of(laptop, UUID.randomUUID()));
+
+        assertEquals(10, engine.related(laptop, 10).size());
+    }
+
+    @Test
+    void snapshotRoundTripRestoresTheCounts(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("recommendations.bin");
+        CoOccurrenceEngine engine = new CoOccurrenceEngine(10, 16, 50, snapshot.toString());
+        engine.record(List.of(laptop, mouse, bag));
+        engine.record(List.of(laptop, mouse));
+        engine.record(List.of(monitor, bag));
+        List<RelatedProduct> laptopBefore = engine.related(laptop, 10);
+        List<RelatedProduct> bagBefore = engine.related(bag, 10);
+
+        // Shutdown writes the final snapshot on the writer thread and waits for it
+        engine.shutdown();
+        assertTrue(Files.exists(snapshot));
+
+        CoOccurrenceEngine restored = new CoOccurrenceEngine(10, 16, 50, snapshot.toString());
+        restored.load();
+
+        assertEquals(laptopBefore, restored.related(laptop, 10));
+        assertEquals(bagBefore, restored.related(bag, 10));
+
+        // New orders keep counting on top of the restored state
+        restored.record(List.of(laptop, bag));
+        assertEquals(Set.of(new RelatedProduct(mouse, 2), new RelatedProduct(bag, 2)),
+                Set.copyOf(restored.related(laptop, 10)));
+    }
+
+    @Test
+    void unreadableSnapshotStartsEmpty(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("recommendations.bin");
+        Files.write(snapshot, new byte[]{1, 2, 3});
+
+        CoOccurrenceEngine engine = new CoOccurrenceEngine(10, 16, 50, snapshot.toString());
+        engine.load();
+
+        assertEquals(List.of(), engine.related(laptop, 10));
+    }
+}
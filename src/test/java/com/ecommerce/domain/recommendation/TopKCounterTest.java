@@ -0,0 +1,77 @@
+package com.ecommerce.domain.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKCounterTest {
+
+    @Test
+    void countsExactlyWhileUnderCapacity() {
+        TopKCounter counter = new TopKCounter(8);
+        for (int i = 0; i < 5; i++) counter.increment(1);
+        for (int i = 0; i < 3; i++) counter.increment(2);
+        counter.increment(3);
+
+        assertArrayEquals(new long[]{pack(5, 1), pack(3, 2), pack(1, 3)}, counter.top(10));
+        assertArrayEquals(new long[]{pack(5, 1)}, counter.top(1));
+        assertEquals(3, counter.size());
+    }
+
+    @Test
+    void fullCounterEvictsTheMinimumAndTheNewcomerInheritsItsCountPlusOne() {
+        TopKCounter counter = new TopKCounter(3);
+        for (int i = 0; i < 4; i++) counter.increment(1);
+        for (int i = 0; i < 2; i++) counter.increment(2);
+        counter.increment(3);
+
+        counter.increment(4);
+
+        assertEquals(3, counter.size());
+        assertArrayEquals(new long[]{pack(4, 1), pack(2, 4), pack(2, 2)}, counter.top(3));
+    }
+
+    @Test
+    void frequentPartnersSurviveALongTailOfRarePartners() {
+        TopKCounter counter = new TopKCounter(16);
+        Random random = new Random(7);
+        Map<Integer, Integer> exact = new HashMap<>();
+
+        // Three heavy partners hidden in a stream of 5 000 one-off partners
+        for (int i = 0; i < 5_000; i++) {
+            int partner = i % 10 < 3 ? i % 10 : 1_000 + random.nextInt(1_000_000);
+            counter.increment(partner);
+            exact.merge(partner, 1, Integer::sum);
+        }
+
+        long[] top = counter.top(3);
+        for (int rank = 0; rank < 3; rank++) {
+            int partner = (int) top[rank];
+            int count = (int) (top[rank] >>> 32);
+            assertTrue(partner >= 0 && partner < 3, "heavy partner evicted: top = " + partner);
+            // Space-Saving only overestimates, by at most n / capacity
+            assertTrue(count >= exact.get(partner) && count <= exact.get(partner) + 5_000 / 16);
+        }
+        assertEquals(16, counter.size());
+    }
+
+    @Test
+    void putRestoresPairsUpToCapacity() {
+        TopKCounter counter = new TopKCounter(2);
+        counter.put(7, 10);
+        counter.put(8, 20);
+        counter.put(9, 30);
+
+        Map<Integer, Integer> pairs = new HashMap<>();
+        counter.forEach(pairs::put);
+        assertEquals(Map.of(7, 10, 8, 20), pairs);
+    }
+
+    private static long pack(int count, int partner) {
+        return ((long) count << 32) | partner;
+    }
+}
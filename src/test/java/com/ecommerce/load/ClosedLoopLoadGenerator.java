@@ -0,0 +1,105 @@
+package com.ecommerce.load;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gerador de carga em malha fechada: {@code users} usuários virtuais, cada um com uma requisição
+ * por vez — só envia a próxima depois da resposta (+ think time). A vazão é consequência da
+ * latência, como num pico real de usuários, em vez de uma taxa fixa que esconde a fila.
+ * <p>
+ * Amostras do aquecimento ({@code warmup}) são descartadas; cada usuário grava as suas sem
+ * sincronização e tudo é somado no fim.
+ */
+public class ClosedLoopLoadGenerator {
+
+    private final HttpClient client;
+    private final int users;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration thinkTime;
+
+    public ClosedLoopLoadGenerator(int users, Duration warmup, Duration duration, Duration thinkTime) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.users = users;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.thinkTime = thinkTime;
+    }
+
+    public LoadReport run(List<LoadScenario> scenarios) throws Exception {
+        int totalWeight = scenarios.stream().mapToInt(LoadScenario::weight).sum();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        try {
+            List<Future<Map<String, LoadReport.Samples>>> futures = new ArrayList<>();
+            for (int user = 0; user < users; user++) {
+                int id = user;
+                futures.add(executor.submit(() -> virtualUser(id, scenarios, totalWeight, measureFrom, end)));
+            }
+
+            Map<String, LoadReport.Samples> merged = new HashMap<>();
+            for (Future<Map<String, LoadReport.Samples>> future : futures) {
+                future.get().forEach((name, samples) ->
+                        merged.computeIfAbsent(name, n -> new LoadReport.Samples()).addAll(samples));
+            }
+            return new LoadReport(users, duration, merged);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private Map<String, LoadReport.Samples> virtualUser(int user, List<LoadScenario> scenarios, int totalWeight,
+                                                        long measureFrom, long end) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, LoadReport.Samples> samples = new HashMap<>();
+
+        while (System.nanoTime() < end) {
+            LoadScenario scenario = pick(scenarios, totalWeight, random);
+            HttpRequest request = scenario.requests().next(user, random);
+
+            long sent = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long received = System.nanoTime();
+
+            if (sent >= measureFrom && received <= end) {
+                samples.computeIfAbsent(scenario.name(), n -> new LoadReport.Samples()).record(received - sent, status);
+            }
+            if (!thinkTime.isZero()) Thread.sleep(thinkTime.toMillis());
+        }
+        return samples;
+    }
+
+    private static LoadScenario pick(List<LoadScenario> scenarios, int totalWeight, ThreadLocalRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (LoadScenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) return scenario;
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+}
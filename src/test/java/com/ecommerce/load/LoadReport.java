@@ -0,0 +1,94 @@
+package com.ecommerce.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Vazão e percentis de latência por endpoint de uma execução do {@link ClosedLoopLoadGenerator}.
+ */
+public class LoadReport {
+
+    private final int users;
+    private final Duration duration;
+    private final Map<String, Samples> endpoints;
+
+    LoadReport(int users, Duration duration, Map<String, Samples> endpoints) {
+        this.users = users;
+        this.duration = duration;
+        this.endpoints = new TreeMap<>(endpoints);
+    }
+
+    public Samples endpoint(String name) {
+        return endpoints.getOrDefault(name, new Samples());
+    }
+
+    public Samples total() {
+        Samples total = new Samples();
+        endpoints.values().forEach(total::addAll);
+        return total;
+    }
+
+    public String format() {
+        double seconds = duration.toNanos() / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%n%d usuários virtuais, %ds medidos%n", users, duration.toSeconds()));
+        out.append(String.format("%-28s %9s %9s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "non-2xx"));
+        endpoints.forEach((name, samples) -> out.append(row(name, samples, seconds)));
+        out.append(row("TOTAL", total(), seconds));
+        return out.toString();
+    }
+
+    private static String row(String name, Samples samples, double seconds) {
+        return String.format("%-28s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8d%n",
+                name, samples.count(), samples.count() / seconds,
+                samples.percentileMillis(0.50), samples.percentileMillis(0.90), samples.percentileMillis(0.99),
+                samples.percentileMillis(0.999), samples.percentileMillis(1.0), samples.failures());
+    }
+
+    /**
+     * Latências (nanos) e status de um endpoint; cresce sem cópia por amostra (array dobrado).
+     */
+    public static class Samples {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private long failures;
+        private boolean sorted;
+
+        void record(long latencyNanos, int status) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = latencyNanos;
+            if (status < 200 || status >= 300) failures++;
+            sorted = false;
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            failures += other.failures;
+            sorted = false;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public long failures() {
+            return failures;
+        }
+
+        public double percentileMillis(double quantile) {
+            if (count == 0) return 0;
+            if (!sorted) {
+                Arrays.sort(nanos, 0, count);
+                sorted = true;
+            }
+            int index = (int) Math.min(count - 1, Math.max(0, Math.ceil(quantile * count) - 1));
+            return nanos[index] / 1e6;
+        }
+    }
+}
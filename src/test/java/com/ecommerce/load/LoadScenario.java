@@ -0,0 +1,20 @@
+package com.ecommerce.load;
+
+import java.net.http.HttpRequest;
+import java.util.Random;
+
+/**
+ * Um tipo de requisição da mistura de carga: nome (linha do relatório), peso no sorteio
+ * e a fábrica da próxima requisição para o usuário virtual {@code user}.
+ */
+public record LoadScenario(
+        String name,
+        int weight,
+        RequestFactory requests
+) {
+
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest next(int user, Random random);
+    }
+}
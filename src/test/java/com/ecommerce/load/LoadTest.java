@@ -0,0 +1,163 @@
+package com.ecommerce.load;
+
+import com.ecommerce.api.mapper.ProductMapper;
+import com.ecommerce.common.id.TimeOrderedUuids;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.user.UserRepository;
+import com.ecommerce.security.JwtService;
+import com.ecommerce.service.order.OrderService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe a aplicação inteira sem infraestrutura externa — H2 em modo MySQL, Kafka embutido e
+ * Elasticsearch simulado ({@link StubElasticsearch}) — e roda a mistura de carga:
+ * navegação/busca, histórico de pedidos e checkout em flash sale disputando um único produto.
+ * Imprime vazão e percentis por endpoint e confere que o flash sale não vendeu além do estoque.
+ * <p>
+ * Só roda com {@code mvn -Pload-test test}; tamanho da carga em {@code -Dload.*} (ver pom.xml).
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "load"})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Import(StubElasticsearchConfiguration.class)
+class LoadTest {
+
+    private static final int CATEGORIES = 20;
+    private static final int PRODUCTS_PER_CATEGORY = 100;
+    private static final int ORDERS_PER_USER = 5;
+    private static final String[] TERMS = {"camiseta", "tenis", "notebook", "fone", "cadeira", "livro"};
+
+    private final int users = Integer.getInteger("load.users", 32);
+    private final int flashStock = Integer.getInteger("load.flash-stock", 1_000);
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private final Duration thinkTime = Duration.parse(System.getProperty("load.think-time", "PT0S"));
+
+    @LocalServerPort private int port;
+
+    @Autowired private ProductRepository productRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private OrderService orderService;
+    @Autowired private ProductMapper productMapper;
+    @Autowired private StubElasticsearch stubElasticsearch;
+    @Autowired private JwtService jwtService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        List<Product> catalog = seedCatalog();
+        Product flashProduct = productRepository.save(product("Flash sale", "flash", flashStock));
+        List<String> tokens = seedUsersWithHistory(catalog);
+
+        URI base = URI.create("http://localhost:" + port);
+        String flashOrder = "[{\"product\":{\"id\":\"" + flashProduct.getId() + "\"},\"quantity\":1}]";
+
+        List<LoadScenario> scenarios = List.of(
+                new LoadScenario("GET /api/products (search)", 30, (user, random) -> get(base,
+                        "/api/products?name=" + TERMS[random.nextInt(TERMS.length)]
+                                + "&category=category-" + random.nextInt(CATEGORIES)
+                                + "&page=" + random.nextInt(3), null)),
+                new LoadScenario("GET /api/products/{id}", 25, (user, random) -> get(base,
+                        "/api/products/" + catalog.get(random.nextInt(catalog.size())).getId(), null)),
+                new LoadScenario("GET /orders (history)", 25, (user, random) -> get(base,
+                        "/orders", tokens.get(user % tokens.size()))),
+                new LoadScenario("POST /orders (flash sale)", 20, (user, random) -> HttpRequest.newBuilder()
+                        .uri(base.resolve("/orders"))
+                        .header("Authorization", "Bearer " + tokens.get(user % tokens.size()))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(flashOrder))
+                        .build())
+        );
+
+        LoadReport report = new ClosedLoopLoadGenerator(users, warmup, duration, thinkTime).run(scenarios);
+        System.out.println(report.format());
+
+        assertTrue(report.total().count() > 0, "no requests completed");
+        assertEquals(0, report.endpoint("GET /api/products/{id}").failures());
+        assertEquals(0, report.endpoint("GET /orders (history)").failures());
+
+        // Flash sale: o que saiu do estoque é exatamente o que está nos pedidos, e nunca negativo
+        int stockLeft = productRepository.findById(flashProduct.getId()).orElseThrow().getStockQuantity();
+        Integer ordered = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ?",
+                Integer.class, TimeOrderedUuids.toBytes(flashProduct.getId()));
+        assertTrue(stockLeft >= 0, "flash sale oversold");
+        assertEquals(flashStock - stockLeft, ordered);
+    }
+
+    private List<Product> seedCatalog() {
+        List<Product> products = new ArrayList<>();
+        Random random = new Random(42);
+        for (int c = 0; c < CATEGORIES; c++) {
+            for (int p = 0; p < PRODUCTS_PER_CATEGORY; p++) {
+                products.add(product(TERMS[random.nextInt(TERMS.length)] + " " + c + "-" + p,
+                        "category-" + c, 1_000_000));
+            }
+        }
+        List<Product> saved = productRepository.saveAll(products);
+        stubElasticsearch.index(saved.stream().map(productMapper::toDocument).toList());
+        return saved;
+    }
+
+    private List<String> seedUsersWithHistory(List<Product> catalog) {
+        Random random = new Random(7);
+        List<String> tokens = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            // Hash fixo: o BCrypt não entra no caminho medido (tokens gerados direto)
+            User user = userRepository.save(User.builder()
+                    .username("load-" + u + "-" + UUID.randomUUID())
+                    .password("{noop}unused")
+                    .role(Role.USER)
+                    .build());
+            for (int o = 0; o < ORDERS_PER_USER; o++) {
+                OrderItem item = OrderItem.builder()
+                        .product(Product.builder().id(catalog.get(random.nextInt(catalog.size())).getId()).build())
+                        .quantity(1 + random.nextInt(3))
+                        .build();
+                orderService.createOrder(user, List.of(item));
+            }
+            tokens.add(jwtService.generateToken(user));
+        }
+        return tokens;
+    }
+
+    private static Product product(String name, String category, int stock) {
+        return Product.builder()
+                .name(name)
+                .description("Load test")
+                .category(category)
+                .price(new BigDecimal("49.90"))
+                .stockQuantity(stock)
+                .build();
+    }
+
+    private static HttpRequest get(URI base, String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path)).GET();
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return request.build();
+    }
+}
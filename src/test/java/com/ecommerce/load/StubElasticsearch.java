@@ -0,0 +1,94 @@
+package com.ecommerce.load;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.ecommerce.search.product.ProductDocument;
+import com.ecommerce.search.product.ProductSearchRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Elasticsearch em processo para a suíte de carga: toda busca espera {@code latency} (+ jitter
+ * uniforme) e devolve uma página dos documentos registrados, sem filtrar. Escritas são ignoradas.
+ * <p>
+ * Os mocks são {@code stubOnly}: não guardam as invocações, então não crescem durante a carga.
+ */
+public class StubElasticsearch {
+
+    private final List<ProductDocument> documents = new CopyOnWriteArrayList<>();
+    private final Map<Pageable, SearchHits<ProductDocument>> pages = new ConcurrentHashMap<>();
+    private final long latencyNanos;
+    private final long jitterNanos;
+
+    public StubElasticsearch(Duration latency, Duration jitter) {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+    }
+
+    public void index(List<ProductDocument> documents) {
+        this.documents.addAll(documents);
+        pages.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    public ElasticsearchOperations operations() {
+        ElasticsearchOperations operations = mock(ElasticsearchOperations.class, withSettings().stubOnly());
+        when(operations.search(any(Query.class), eq(ProductDocument.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            simulateLatency();
+            return pages.computeIfAbsent(query.getPageable(), this::page);
+        });
+        return operations;
+    }
+
+    public ElasticsearchClient client() {
+        return mock(ElasticsearchClient.class, withSettings().stubOnly());
+    }
+
+    public ProductSearchRepository repository() {
+        return mock(ProductSearchRepository.class, withSettings().stubOnly());
+    }
+
+    private void simulateLatency() {
+        long jitter = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0;
+        LockSupport.parkNanos(latencyNanos + jitter);
+        if (Thread.interrupted()) Thread.currentThread().interrupt();
+    }
+
+    @SuppressWarnings("unchecked")
+    private SearchHits<ProductDocument> page(Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), documents.size());
+        int to = Math.min(from + pageable.getPageSize(), documents.size());
+
+        List<SearchHit<ProductDocument>> hits = documents.subList(from, to).stream()
+                .map(document -> {
+                    SearchHit<ProductDocument> hit = mock(SearchHit.class, withSettings().stubOnly());
+                    when(hit.getId()).thenReturn(document.getId());
+                    when(hit.getContent()).thenReturn(document);
+                    return hit;
+                })
+                .toList();
+
+        SearchHits<ProductDocument> page = mock(SearchHits.class, withSettings().stubOnly());
+        when(page.getTotalHits()).thenReturn((long) documents.size());
+        when(page.getSearchHits()).thenReturn(hits);
+        when(page.stream()).thenAnswer(invocation -> hits.stream());
+        return page;
+    }
+}
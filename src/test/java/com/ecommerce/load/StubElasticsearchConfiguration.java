@@ -0,0 +1,39 @@
+package com.ecommerce.load;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.ecommerce.search.product.ProductSearchRepository;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+
+import java.time.Duration;
+
+/**
+ * Substitui o cliente Elasticsearch (auto-configuração excluída no profile {@code load})
+ * pelo {@link StubElasticsearch}. Latência: {@code -Dload.es.latency} e {@code -Dload.es.jitter}.
+ */
+@TestConfiguration
+public class StubElasticsearchConfiguration {
+
+    @Bean
+    public StubElasticsearch stubElasticsearch() {
+        return new StubElasticsearch(
+                Duration.parse(System.getProperty("load.es.latency", "PT0.005S")),
+                Duration.parse(System.getProperty("load.es.jitter", "PT0.003S")));
+    }
+
+    @Bean
+    public ElasticsearchOperations elasticsearchTemplate(StubElasticsearch stub) {
+        return stub.operations();
+    }
+
+    @Bean
+    public ElasticsearchClient elasticsearchClient(StubElasticsearch stub) {
+        return stub.client();
+    }
+
+    @Bean
+    public ProductSearchRepository productSearchRepository(StubElasticsearch stub) {
+        return stub.repository();
+    }
+}
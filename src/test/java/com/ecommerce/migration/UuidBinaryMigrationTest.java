@@ -0,0 +1,250 @@
+package com.ecommerce.migration;
+
+import com.ecommerce.support.MySqlContainerSupport;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the CHAR(36) → BINARY(16) conversion, cutover DDL included, against a legacy schema on a real MySQL 8,
+ * both as separate phases and through the Flyway sequence up to the partitioned tables.
+ * H2 doesn't implement multi-clause ALTER TABLE, ALGORITHM/LOCK or SQL triggers, so it can't stand in here.
+ */
+class UuidBinaryMigrationTest extends MySqlContainerSupport {
+
+    private static final String DATABASE = "uuid_migration";
+
+    private JdbcTemplate jdbc;
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> productIds = new ArrayList<>();
+    private final List<String> orderIds = new ArrayList<>();
+    private final List<String> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void createLegacySchema() {
+        JdbcTemplate root = new JdbcTemplate(dataSource(""));
+        root.execute("DROP DATABASE IF EXISTS " + DATABASE);
+        root.execute("CREATE DATABASE " + DATABASE);
+
+        jdbc = new JdbcTemplate(dataSource(DATABASE));
+        jdbc.execute("""
+                CREATE TABLE users (
+                    id CHAR(36) NOT NULL PRIMARY KEY,
+                    username VARCHAR(255) NOT NULL UNIQUE,
+                    password VARCHAR(255) NOT NULL,
+                    role VARCHAR(20)
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE products (
+                    id CHAR(36) NOT NULL PRIMARY KEY,
+                    name VARCHAR(100) NOT NULL,
+                    description VARCHAR(250) NOT NULL,
+                    category VARCHAR(80) NOT NULL,
+                    price DECIMAL(12, 2) NOT NULL,
+                    stock_quantity INT NOT NULL,
+                    created_at DATETIME(6) NOT NULL,
+                    updated_at DATETIME(6) NOT NULL
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE orders (
+                    id CHAR(36) NOT NULL PRIMARY KEY,
+                    user_id CHAR(36) NOT NULL,
+                    status VARCHAR(20) NOT NULL,
+                    total_value DECIMAL(12, 2) NOT NULL,
+                    created_at DATETIME(6) NOT NULL,
+                    updated_at DATETIME(6) NOT NULL,
+                    CONSTRAINT fk_legacy_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+                )
+                """);
+        jdbc.execute("""
+                CREATE TABLE order_items (
+                    id CHAR(36) NOT NULL PRIMARY KEY,
+                    order_id CHAR(36) NOT NULL,
+                    product_id CHAR(36) NOT NULL,
+                    product_name VARCHAR(150) NOT NULL,
+                    unit_price DECIMAL(12, 2) NOT NULL,
+                    quantity INT NOT NULL,
+                    subtotal DECIMAL(12, 2) NOT NULL,
+                    CONSTRAINT fk_legacy_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+                    CONSTRAINT fk_legacy_items_product FOREIGN KEY (product_id) REFERENCES products (id)
+                )
+                """);
+
+        for (int i = 0; i < 2; i++) insertUser("user-" + i);
+        for (int i = 0; i < 5; i++) insertProduct("Product " + i);
+        for (int i = 0; i < 3; i++) {
+            String orderId = insertOrder(userIds.get(i % userIds.size()));
+            for (int j = 0; j < 2; j++) insertItem(orderId, productIds.get((i + j) % productIds.size()));
+        }
+    }
+
+    @Test
+    void phasesConvertIdsAndForeignKeys() throws Exception {
+        migrate("all");
+        new UuidBinaryConversion(jdbc, 2, 0).cutover();
+
+        assertConverted();
+        assertEquals(3, foreignKeys());
+    }
+
+    @Test
+    void rowsWrittenByTheOldVersionBetweenPhasesAreKeptInSync() throws Exception {
+        migrate("prepare");
+
+        // The old version keeps writing CHAR(36) ids; the triggers fill the shadow columns
+        String productId = insertProduct("Written after prepare");
+        String orderId = insertOrder(userIds.get(0));
+        insertItem(orderId, productId);
+        assertEquals(UUID.fromString(productId), uuid(jdbc.queryForObject(
+                "SELECT id_bin FROM products WHERE id = ?", byte[].class, productId)));
+
+        migrate("backfill");
+        String lateUser = insertUser("written-after-backfill");
+        insertOrder(lateUser);
+        new UuidBinaryConversion(jdbc, 2, 0).cutover();
+
+        assertConverted();
+    }
+
+    @Test
+    void cutoverIsNotAPhaseOfTheRunner() {
+        assertThrows(IllegalArgumentException.class, () -> migrate("cutover"));
+    }
+
+    @Test
+    void flywayConvertsTheBaselinedSchemaBeforePartitioningIt() {
+        Flyway.configure()
+                .dataSource(dataSource(DATABASE))
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertConverted();
+        assertEquals(1, jdbc.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.partitions
+                 WHERE table_schema = DATABASE() AND table_name = 'orders' AND partition_name = 'p_future'
+                """, Integer.class));
+        // Partitioned tables can't keep FKs (V4 drops them by their V1 names)
+        assertEquals(0, foreignKeys());
+    }
+
+    private void assertConverted() {
+        for (UuidBinaryConversion.UuidColumn column : UuidBinaryConversion.COLUMNS) {
+            assertEquals("binary", jdbc.queryForObject("""
+                    SELECT data_type FROM information_schema.columns
+                     WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                    """, String.class, column.table(), column.name()), column.table() + "." + column.name());
+            assertEquals(0, jdbc.queryForObject("""
+                    SELECT COUNT(*) FROM information_schema.columns
+                     WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                    """, Integer.class, column.table(), column.shadow()), "shadow column left behind");
+        }
+
+        assertEquals(Set.copyOf(userIds), ids("SELECT id FROM users"));
+        assertEquals(Set.copyOf(productIds), ids("SELECT id FROM products"));
+        assertEquals(Set.copyOf(orderIds), ids("SELECT id FROM orders"));
+        assertEquals(Set.copyOf(itemIds), ids("SELECT id FROM order_items"));
+        assertEquals(orderIds.size(), jdbc.queryForObject(
+                "SELECT COUNT(*) FROM orders o JOIN users u ON u.id = o.user_id", Integer.class));
+        assertEquals(itemIds.size(), jdbc.queryForObject("""
+                SELECT COUNT(*) FROM order_items i
+                  JOIN orders o ON o.id = i.order_id
+                  JOIN products p ON p.id = i.product_id
+                """, Integer.class));
+
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.triggers WHERE trigger_schema = DATABASE()", Integer.class));
+    }
+
+    private int foreignKeys() {
+        int count = jdbc.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.referential_constraints
+                 WHERE constraint_schema = DATABASE() AND table_name IN ('orders', 'order_items')
+                """, Integer.class);
+        if (count > 0) {
+            assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+                    "INSERT INTO orders (id, user_id, status, total_value, created_at, updated_at) "
+                            + "VALUES (?, ?, 'PAID', 0, NOW(6), NOW(6))",
+                    bytes(UUID.randomUUID()), bytes(UUID.randomUUID())));
+        }
+        return count;
+    }
+
+    private void migrate(String phase) throws Exception {
+        UuidBinaryMigration migration = new UuidBinaryMigration(jdbc);
+        ReflectionTestUtils.setField(migration, "phase", phase);
+        ReflectionTestUtils.setField(migration, "chunkSize", 2);
+        ReflectionTestUtils.setField(migration, "pauseMs", 0L);
+        migration.run(new DefaultApplicationArguments());
+    }
+
+    private String insertUser(String username) {
+        String id = UUID.randomUUID().toString();
+        jdbc.update("INSERT INTO users (id, username, password, role) VALUES (?, ?, 'x', 'USER')", id, username);
+        userIds.add(id);
+        return id;
+    }
+
+    private String insertProduct(String name) {
+        String id = UUID.randomUUID().toString();
+        jdbc.update("INSERT INTO products (id, name, description, category, price, stock_quantity, created_at, updated_at) "
+                + "VALUES (?, ?, 'Legacy', 'legacy', 9.90, 10, NOW(6), NOW(6))", id, name);
+        productIds.add(id);
+        return id;
+    }
+
+    private String insertOrder(String userId) {
+        String id = UUID.randomUUID().toString();
+        jdbc.update("INSERT INTO orders (id, user_id, status, total_value, created_at, updated_at) "
+                + "VALUES (?, ?, 'PAID', 9.90, NOW(6), NOW(6))", id, userId);
+        orderIds.add(id);
+        return id;
+    }
+
+    private void insertItem(String orderId, String productId) {
+        String id = UUID.randomUUID().toString();
+        jdbc.update("INSERT INTO order_items (id, order_id, product_id, product_name, unit_price, quantity, subtotal) "
+                + "VALUES (?, ?, ?, 'Legacy', 9.90, 1, 9.90)", id, orderId, productId);
+        itemIds.add(id);
+    }
+
+    private Set<String> ids(String sql) {
+        Set<String> ids = new HashSet<>();
+        for (byte[] id : jdbc.queryForList(sql, byte[].class)) ids.add(uuid(id).toString());
+        return ids;
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    // With binary logging on, CREATE TRIGGER needs more than the application user's grants
+    private static DriverManagerDataSource dataSource(String database) {
+        return new DriverManagerDataSource(
+                "jdbc:mysql://" + MYSQL.getHost() + ":" + MYSQL.getMappedPort(3306) + "/" + database,
+                "root", MYSQL.getPassword());
+    }
+}
@@ -0,0 +1,231 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.reservation.ReservationStatus;
+import com.ecommerce.domain.user.UserRepository;
+import com.ecommerce.repository.order.OrderItemRepository;
+import com.ecommerce.repository.order.OrderRepository;
+import com.ecommerce.repository.reservation.StockReservationRepository;
+import com.ecommerce.support.MySqlContainerSupport;
+import com.ecommerce.support.SqlCapture;
+import com.ecommerce.support.SqlCaptureConfiguration;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa EXPLAIN em todo SQL gerado pelas consultas dos repositórios JPA, contra um MySQL real
+ * com o schema das migrações e dados suficientes para o otimizador preferir índices.
+ * Falha se alguma consulta fizer full table scan (type = ALL) ou se um método novo de
+ * repositório não estiver coberto aqui.
+ */
+@DataJpaTest
+@ActiveProfiles("it")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlCaptureConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryQueryPlanTest extends MySqlContainerSupport {
+
+    private static final int USERS = 20;
+    private static final int PRODUCTS = 5_000;
+    private static final int CATEGORIES = 50;
+    private static final int ORDERS = 5_000;
+    private static final int RESERVATIONS = 5_000;
+
+    private static final List<UUID> userIds = new ArrayList<>();
+    private static final List<UUID> productIds = new ArrayList<>();
+    private static final List<UUID> orderIds = new ArrayList<>();
+
+    @Autowired private DataSource dataSource;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private SqlCapture sqlCapture;
+
+    @Autowired private ProductRepository productRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private OrderItemRepository orderItemRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private StockReservationRepository reservationRepository;
+
+    @BeforeEach
+    void seed() {
+        if (!productIds.isEmpty()) return;
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UUID id = TimeOrderedUuids.next();
+            userIds.add(id);
+            users.add(new Object[]{TimeOrderedUuids.toBytes(id), "user-" + i, "x", "USER"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?)", users);
+
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            UUID id = TimeOrderedUuids.next();
+            productIds.add(id);
+            products.add(new Object[]{TimeOrderedUuids.toBytes(id), "Product " + i, "Description " + i,
+                    "category-" + (i % CATEGORIES), BigDecimal.valueOf(10 + i % 500), 100, now, now});
+        }
+        jdbc.batchUpdate("INSERT INTO products (id, name, description, category, price, stock_quantity, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", products);
+
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            UUID id = TimeOrderedUuids.next();
+            orderIds.add(id);
+            orders.add(new Object[]{TimeOrderedUuids.toBytes(id), TimeOrderedUuids.toBytes(userIds.get(i % USERS)),
+                    OrderStatus.values()[i % OrderStatus.values().length].name(), new BigDecimal("20.00"), now, now});
+            for (int j = 0; j < 2; j++) {
+                items.add(new Object[]{TimeOrderedUuids.toBytes(TimeOrderedUuids.next()), TimeOrderedUuids.toBytes(id),
+                        TimeOrderedUuids.toBytes(productIds.get((i * 2 + j) % PRODUCTS)), "Product", new BigDecimal("10.00"),
+                        1, new BigDecimal("10.00"), now});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO orders (id, user_id, status, total_value, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)", orders);
+        jdbc.batchUpdate("INSERT INTO order_items (id, order_id, product_id, product_name, unit_price, quantity, subtotal, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", items);
+
+        List<Object[]> reservations = new ArrayList<>();
+        ReservationStatus[] statuses = ReservationStatus.values();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            reservations.add(new Object[]{TimeOrderedUuids.toBytes(TimeOrderedUuids.next()),
+                    TimeOrderedUuids.toBytes(userIds.get(i % USERS)), TimeOrderedUuids.toBytes(productIds.get(i % PRODUCTS)),
+                    1, statuses[i % statuses.length].name(), Timestamp.from(Instant.now().plusSeconds(i - RESERVATIONS / 2)), now});
+        }
+        jdbc.batchUpdate("INSERT INTO stock_reservations (id, user_id, product_id, quantity, status, expires_at, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", reservations);
+
+        jdbc.execute("ANALYZE TABLE users, products, orders, order_items, stock_reservations");
+    }
+
+    @Test
+    void noRepositoryQueryDoesAFullTableScan() throws Exception {
+        Map<String, Runnable> calls = repositoryCalls();
+
+        List<String> uncovered = new ArrayList<>();
+        for (Class<?> repository : List.of(ProductRepository.class, OrderRepository.class,
+                OrderItemRepository.class, UserRepository.class, StockReservationRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) continue;
+                String key = repository.getSimpleName() + "." + method.getName();
+                if (!calls.containsKey(key)) uncovered.add(key);
+            }
+        }
+        assertTrue(uncovered.isEmpty(), "Repository queries without a plan check: " + uncovered);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<String> fullScans = new ArrayList<>();
+
+        try (Connection connection = MYSQL.createConnection("")) {
+            for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+                sqlCapture.start();
+                tx.executeWithoutResult(status -> {
+                    call.getValue().run();
+                    status.setRollbackOnly();
+                });
+
+                for (SqlCapture.CapturedQuery query : sqlCapture.stop()) {
+                    for (String table : fullScanTables(connection, query)) {
+                        fullScans.add(call.getKey() + " scans " + table + ": " + query.sql());
+                    }
+                }
+            }
+        }
+
+        assertTrue(fullScans.isEmpty(), "Full table scans:\n" + String.join("\n", fullScans));
+    }
+
+    private Map<String, Runnable> repositoryCalls() {
+        UUID product = productIds.get(PRODUCTS / 2);
+        List<UUID> someProducts = productIds.subList(100, 150);
+        UUID lo = productIds.get(1_000);
+        UUID hi = productIds.get(1_100);
+        UUID orderId = orderIds.get(ORDERS / 2);
+        List<UUID> someOrders = orderIds.subList(200, 250);
+        Instant now = Instant.now();
+
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("ProductRepository.findAllById", () -> productRepository.findAllById(someProducts));
+        calls.put("ProductRepository.findIdsByCategoryAfter",
+                () -> productRepository.findIdsByCategoryAfter("category-7", new UUID(0, 0), PageRequest.of(0, 100)));
+        calls.put("ProductRepository.multiplyPrice", () -> productRepository.multiplyPrice(someProducts, BigDecimal.ONE, now));
+        calls.put("ProductRepository.addStock", () -> productRepository.addStock(someProducts, 1, now));
+        calls.put("ProductRepository.setStock", () -> productRepository.setStock(someProducts, 5, now));
+        calls.put("ProductRepository.restock", () -> productRepository.restock(product, 1, now));
+        calls.put("ProductRepository.checksumRange", () -> productRepository.checksumRange(lo, hi));
+        calls.put("ProductRepository.findByIdBetween", () -> productRepository.findByIdBetween(lo, hi));
+
+        calls.put("OrderRepository.findById", () -> orderRepository.findById(orderId));
+        calls.put("OrderRepository.findByUserOrderByCreatedAtDesc",
+                () -> orderRepository.findByUserOrderByCreatedAtDesc(userRepository.getReferenceById(userIds.get(3))));
+        calls.put("OrderRepository.transition",
+                () -> orderRepository.transition(orderId, OrderStatus.CREATED, OrderStatus.PAID, now));
+        calls.put("OrderRepository.findArchivableIds",
+                () -> orderRepository.findArchivableIds(EnumSet.of(OrderStatus.SHIPPED, OrderStatus.CANCELED),
+                        now, PageRequest.of(0, 500)));
+        calls.put("OrderRepository.findWithItemsByIdIn", () -> orderRepository.findWithItemsByIdIn(someOrders));
+        calls.put("OrderRepository.deleteByIds", () -> orderRepository.deleteByIds(someOrders));
+
+        calls.put("OrderItemRepository.findByOrder",
+                () -> orderItemRepository.findByOrder(orderRepository.getReferenceById(orderId)));
+        calls.put("OrderItemRepository.deleteByOrderIds", () -> orderItemRepository.deleteByOrderIds(someOrders));
+
+        calls.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user-5"));
+
+        calls.put("StockReservationRepository.findHolds",
+                () -> reservationRepository.findHolds(userRepository.getReferenceById(userIds.get(3)),
+                        ReservationStatus.ACTIVE, someProducts, now));
+        calls.put("StockReservationRepository.findExpiredIds",
+                () -> reservationRepository.findExpiredIds(ReservationStatus.ACTIVE, now, PageRequest.of(0, 500)));
+        return calls;
+    }
+
+    private static List<String> fullScanTables(Connection connection, SqlCapture.CapturedQuery query) throws Exception {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (ParameterSetOperation operation : query.parameters()) {
+                operation.getMethod().invoke(explain, operation.getArgs());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    if ("ALL".equalsIgnoreCase(plan.getString("type"))) tables.add(plan.getString("table"));
+                }
+            }
+        }
+        return tables;
+    }
+}
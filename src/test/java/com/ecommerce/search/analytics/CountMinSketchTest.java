@@ -0,0 +1,55 @@
+package com.ecommerce.search.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void countsExactlyWithoutCollisions() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int i = 0; i < 7; i++) sketch.add(42);
+        sketch.add(43);
+
+        assertEquals(7, sketch.estimate(42));
+        assertEquals(1, sketch.estimate(43));
+        assertEquals(0, sketch.estimate(44));
+        assertEquals(8, sketch.total());
+    }
+
+    @Test
+    void neverUnderestimatesAndStaysWithinTheErrorBound() {
+        int width = 256;
+        CountMinSketch sketch = new CountMinSketch(4, width);
+        Random random = new Random(11);
+        Map<Long, Integer> exact = new HashMap<>();
+
+        // Skewed stream over far more keys than counters per row
+        for (int i = 0; i < 50_000; i++) {
+            long key = (long) Math.floor(Math.pow(random.nextDouble(), 3) * 5_000);
+            sketch.add(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+
+        // With depth 4, overestimating by more than e·n/width has probability below e^-4 per key
+        double bound = Math.E * sketch.total() / width;
+        int outside = 0;
+        for (Map.Entry<Long, Integer> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), "underestimated key " + entry.getKey());
+            if (estimate - entry.getValue() > bound) outside++;
+        }
+        assertTrue(outside <= exact.size() * 0.05, outside + " of " + exact.size() + " keys above the bound");
+        assertEquals(50_000, sketch.total());
+    }
+
+    @Test
+    void widthMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 1000));
+    }
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.search.analytics;
+
+import com.ecommerce.domain.product.ProductField;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The drain thread is never started here: tests call {@link SearchAnalytics#drain()} themselves.
+ */
+class SearchAnalyticsTest {
+
+    private static final long MICROS_100 = 100_000;
+
+    @Test
+    void equivalentSearchesAreCountedAsOne() {
+        SearchAnalytics analytics = analytics(64, 5);
+        analytics.record(query("  Caneca   Azul "), MICROS_100);
+        analytics.record(query("caneca azul"), MICROS_100);
+        analytics.record(query("CANECA AZUL"), MICROS_100);
+        analytics.drain();
+
+        List<SearchAnalyticsReport.TopQuery> top = analytics.topQueries(5);
+        assertEquals(1, top.size());
+        assertEquals("caneca azul", top.get(0).query().name());
+        assertEquals(3, top.get(0).estimatedCount());
+    }
+
+    @Test
+    void heavyHittersSurviveALongTailOfOneOffSearches() {
+        // top-k 5 keeps 20 candidates
+        SearchAnalytics analytics = analytics(8192, 5);
+        List<String> hot = List.of("caneca", "camiseta", "mochila");
+
+        for (int i = 0; i < 6_000; i++) {
+            String name = i % 10 < 3 ? hot.get(i % 10) : "rara " + i;
+            analytics.record(query(name), MICROS_100);
+        }
+        analytics.drain();
+
+        List<SearchAnalyticsReport.TopQuery> top = analytics.topQueries(3);
+        assertEquals(Set.copyOf(hot), Set.of(top.get(0).query().name(), top.get(1).query().name(), top.get(2).query().name()));
+        for (SearchAnalyticsReport.TopQuery query : top) assertTrue(query.estimatedCount() >= 600);
+
+        SearchAnalyticsReport report = analytics.report();
+        assertEquals(6_000, report.recorded());
+        assertEquals(0, report.dropped());
+        assertEquals(5, report.topQueries().size());
+    }
+
+    @Test
+    void lappedEntriesAreDroppedAndTheRestOfTheRingIsStillCounted() {
+        SearchAnalytics analytics = analytics(8, 50);
+        for (int i = 0; i < 20; i++) analytics.record(query("busca " + i), MICROS_100);
+        analytics.drain();
+
+        SearchAnalyticsReport report = analytics.report();
+        assertEquals(12, report.dropped());
+        assertEquals(8, report.recorded());
+        List<String> counted = new ArrayList<>();
+        for (SearchAnalyticsReport.TopQuery query : report.topQueries()) counted.add(query.query().name());
+        for (int i = 12; i < 20; i++) assertTrue(counted.contains("busca " + i), "busca " + i + " was skipped");
+    }
+
+    @Test
+    void drainResumesWhereItStopped() {
+        SearchAnalytics analytics = analytics(8, 50);
+        for (int i = 0; i < 6; i++) analytics.record(query("a"), MICROS_100);
+        analytics.drain();
+        for (int i = 0; i < 6; i++) analytics.record(query("b"), MICROS_100);
+        analytics.drain();
+
+        SearchAnalyticsReport report = analytics.report();
+        assertEquals(12, report.recorded());
+        assertEquals(0, report.dropped());
+    }
+
+    @Test
+    void concurrentProducersLappingTheRingAreEitherCountedOrDropped() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        SearchAnalytics analytics = analytics(256, 5);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            SearchQuery query = query("produtor " + p);
+            threads.add(new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) analytics.record(query, MICROS_100);
+            }));
+        }
+        Thread drainer = new Thread(() -> {
+            await(start);
+            while (producing.get()) analytics.drain();
+        });
+        threads.forEach(Thread::start);
+        drainer.start();
+
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        producing.set(false);
+        drainer.join();
+        // Positions still pending are only given up on the drain after they were seen pending
+        analytics.drain();
+        analytics.drain();
+
+        SearchAnalyticsReport report = analytics.report();
+        assertEquals((long) producers * perProducer, report.recorded() + report.dropped());
+        for (SearchAnalyticsReport.TopQuery query : report.topQueries()) {
+            assertTrue(query.query().name().startsWith("produtor "), "corrupted slot: " + query.query());
+        }
+    }
+
+    @Test
+    void latencyIsReportedPerSearchShape() {
+        SearchAnalytics analytics = analytics(64, 5);
+        analytics.record(query("caneca"), 1_500_000);
+        analytics.record(new SearchQuery(null, "cozinha", null, null, 0, 10, ProductField.ALL), MICROS_100);
+
+        List<SearchAnalyticsReport.ShapeLatency> shapes = analytics.report().shapes();
+        SearchAnalyticsReport.ShapeLatency byName = shapes.stream()
+                .filter(s -> s.shape().equals("name")).findFirst().orElseThrow();
+        assertEquals(1, byName.count());
+        // 1 500 µs falls in the [1024, 2048) µs bucket
+        assertEquals(2048, byName.maxMicros());
+        assertTrue(shapes.stream().anyMatch(s -> s.shape().equals("category")));
+    }
+
+    @Test
+    void ringSizeMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> analytics(100, 5));
+    }
+
+    private static SearchAnalytics analytics(int ringSize, int topK) {
+        return new SearchAnalytics(ringSize, 4, 1024, topK, Duration.ofMillis(100));
+    }
+
+    private static SearchQuery query(String name) {
+        return new SearchQuery(name, null, null, null, 0, 10, ProductField.ALL);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.search.product;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.routing.RoutingResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ProductIndexWriterTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchOperations routedOperations;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ProductSearchRepository searchRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(elasticsearchOperations.withRouting(any(RoutingResolver.class))).thenReturn(routedOperations);
+        when(elasticsearchOperations.getIndexCoordinatesFor(ProductDocument.class)).thenReturn(IndexCoordinates.of("products"));
+        when(elasticsearchClient.bulk(any(BulkRequest.class)))
+                .thenReturn(BulkResponse.of(r -> r.errors(false).items(List.of()).took(1)));
+    }
+
+    @Test
+    void categoryChangeDeletesTheDocumentFromTheOldShardBeforeIndexing() {
+        ProductIndexWriter writer = writer(true);
+
+        writer.reindex(document("p1", "livros"), "canecas");
+
+        ArgumentCaptor<RoutingResolver> routing = ArgumentCaptor.forClass(RoutingResolver.class);
+        var order = inOrder(elasticsearchOperations, routedOperations);
+        order.verify(elasticsearchOperations).withRouting(routing.capture());
+        order.verify(routedOperations).delete("p1", ProductDocument.class);
+        order.verify(elasticsearchOperations).bulkIndex(indexQueries("livros"), eq(ProductDocument.class));
+        assertEquals("canecas", routing.getValue().getRouting());
+    }
+
+    @Test
+    void sameCategoryOnlyReindexes() {
+        ProductIndexWriter writer = writer(true);
+
+        writer.reindex(document("p1", "livros"), "livros");
+
+        verify(elasticsearchOperations, never()).withRouting(any());
+        verify(searchRepository, never()).deleteById(anyString());
+        verify(elasticsearchOperations).bulkIndex(indexQueries("livros"), eq(ProductDocument.class));
+    }
+
+    @Test
+    void withoutCategoryRoutingACategoryChangeIsAPlainReindex() {
+        ProductIndexWriter writer = writer(false);
+
+        writer.reindex(document("p1", "livros"), "canecas");
+
+        verify(elasticsearchOperations, never()).withRouting(any());
+        verify(searchRepository, never()).deleteById(anyString());
+        verify(searchRepository).saveAll(anyList());
+    }
+
+    @Test
+    void staleHitsFromDifferentShardsAreDeletedInOneBulkRequest() throws Exception {
+        ProductIndexWriter writer = writer(true);
+
+        writer.deleteAll(List.of(hit("p1", "canecas"), hit("p2", "livros"), hit("p3", null), hit("p1", "livros")));
+
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient, times(1)).bulk(request.capture());
+        List<String> deletes = new ArrayList<>();
+        for (BulkOperation operation : request.getValue().operations()) {
+            assertTrue(operation.isDelete());
+            assertEquals("products", operation.delete().index());
+            deletes.add(operation.delete().id() + "@" + operation.delete().routing());
+        }
+        assertEquals(List.of("p1@canecas", "p2@livros", "p3@null", "p1@livros"), deletes);
+    }
+
+    @Test
+    void nothingToDeleteSendsNoRequest() throws Exception {
+        writer(true).deleteAll(List.of());
+
+        verify(elasticsearchClient, never()).bulk(any(BulkRequest.class));
+    }
+
+    private ProductIndexWriter writer(boolean categoryRouting) {
+        return new ProductIndexWriter(elasticsearchOperations, elasticsearchClient, searchRepository, categoryRouting);
+    }
+
+    private static List<IndexQuery> indexQueries(String... routings) {
+        return argThat(queries -> queries.size() == routings.length
+                && queries.stream().map(IndexQuery::getRouting).toList().equals(Arrays.asList(routings)));
+    }
+
+    private static ProductDocument document(String id, String category) {
+        return ProductDocument.builder().id(id).name("Produto " + id).category(category).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SearchHit<ProductDocument> hit(String id, String routing) {
+        SearchHit<ProductDocument> hit = mock(SearchHit.class);
+        when(hit.getId()).thenReturn(id);
+        when(hit.getRouting()).thenReturn(routing);
+        return hit;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1);
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void runsTasksOffTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+
+        String thread = executor.submit(() -> Thread.currentThread() == caller ? "caller" : Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(thread.startsWith("password-hash-"), thread);
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediatelyWith503() throws Exception {
+        CompletableFuture<String> busy = executor.submit(this::blockUntilReleased);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = executor.submit(() -> "queued");
+
+        PasswordHashingOverloadedException e =
+                assertThrows(PasswordHashingOverloadedException.class, () -> executor.submit(() -> "rejected"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getClass().getAnnotation(ResponseStatus.class).value());
+
+        // Accepted work still completes once the pool frees up
+        release.countDown();
+        assertEquals("done", busy.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("again", executor.submit(() -> "again").get(5, TimeUnit.SECONDS));
+    }
+
+    private String blockUntilReleased() {
+        running.countDown();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
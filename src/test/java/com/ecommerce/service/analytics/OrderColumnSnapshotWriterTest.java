@@ -0,0 +1,309 @@
+package com.ecommerce.service.analytics;
+
+import com.ecommerce.common.id.TimeOrderedUuids;
+import com.ecommerce.common.money.Money;
+import com.ecommerce.config.datasource.ReplicaHealthMonitor;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.BasketSizeDistribution;
+import com.ecommerce.service.analytics.OrderAnalyticsResults.RepeatBuyerStats;
+import com.ecommerce.service.order.OrderArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Escreve snapshots a partir das tabelas do H2, mapeia de volta e roda as consultas de analytics.
+ * Os pedidos semeados ficam numa janela fixa no passado (com categorias próprias), então pedidos
+ * que outros testes deixam no banco compartilhado não aparecem nos resultados verificados.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderArchive.class)
+class OrderColumnSnapshotWriterTest {
+
+    private static final Instant HOUR = Instant.parse("2001-03-04T10:00:00Z");
+    private static final Instant WINDOW_END = HOUR.plus(2, ChronoUnit.HOURS);
+
+    @TempDir
+    Path directory;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private OrderArchive orderArchive;
+    @Autowired private TestEntityManager entityManager;
+
+    private OrderAnalyticsService analytics;
+    private String mugs;
+    private String books;
+    private User ana;
+    private Product mug;
+    private Product book;
+
+    @BeforeEach
+    void seed() {
+        analytics = new OrderAnalyticsService(directory.toString(), 2);
+        mugs = "canecas-" + UUID.randomUUID();
+        books = "livros-" + UUID.randomUUID();
+        ana = user();
+        User bia = user();
+        mug = product(mugs, "10.00");
+        book = product(books, "5.00");
+
+        // Hora 0: ana compra 2 canecas + 1 livro, bia 4 livros; hora 1: ana 1 caneca
+        hotOrder(ana, OrderStatus.PAID, HOUR.plus(10, ChronoUnit.MINUTES), item(mug, 2), item(book, 1));
+        hotOrder(bia, OrderStatus.SHIPPED, HOUR.plus(20, ChronoUnit.MINUTES), item(book, 4));
+        hotOrder(ana, OrderStatus.PAID, HOUR.plus(70, ChronoUnit.MINUTES), item(mug, 1));
+        // Não pago: fica de fora
+        hotOrder(bia, OrderStatus.CREATED, HOUR.plus(30, ChronoUnit.MINUTES), item(mug, 5));
+        // Arquivado, de um terceiro comprador: hora 0, 1 caneca
+        archivedOrder(HOUR.plus(40, ChronoUnit.MINUTES), item(mug, 1));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void shutdown() {
+        analytics.destroy();
+    }
+
+    @Test
+    void snapshotReadsBackTheColumnsAndDictionaries() throws Exception {
+        OrderColumnSnapshot snapshot = OrderColumnSnapshot.open(writer(true).write(null));
+
+        assertTrue(snapshot.products().containsAll(List.of(mug.getId(), book.getId())));
+        assertTrue(snapshot.categories().containsAll(List.of(mugs, books)));
+        assertEquals(snapshot.orders(), snapshot.orderUnits.capacity());
+        assertEquals(snapshot.items(), snapshot.itemSubtotal.capacity());
+
+        Set<String> items = new HashSet<>();
+        for (int row = 0; row < snapshot.items(); row++) {
+            long second = snapshot.itemCreated.get(row);
+            if (second < HOUR.getEpochSecond() || second >= WINDOW_END.getEpochSecond()) continue;
+            int order = snapshot.itemOrder.get(row);
+            assertEquals(second, snapshot.orderCreated.get(order));
+            items.add(snapshot.products().get(snapshot.itemProduct.get(row)) + " "
+                    + snapshot.categories().get(snapshot.itemCategory.get(row)) + " x"
+                    + snapshot.itemQuantity.get(row) + " = " + snapshot.itemSubtotal.get(row));
+        }
+        assertEquals(Set.of(
+                mug.getId() + " " + mugs + " x2 = 2000",
+                book.getId() + " " + books + " x1 = 500",
+                book.getId() + " " + books + " x4 = 2000",
+                mug.getId() + " " + mugs + " x1 = 1000"), items);
+    }
+
+    @Test
+    void queriesAggregateHotAndArchivedOrders() throws Exception {
+        analytics.publish(OrderColumnSnapshot.open(writer(true).write(null)));
+
+        assertEquals(Set.of(
+                mugs + " @0: 30.00 / 3",
+                books + " @0: 25.00 / 5",
+                mugs + " @1: 10.00 / 1"), revenue(HOUR, WINDOW_END));
+
+        BasketSizeDistribution baskets = analytics.basketSizes(HOUR, WINDOW_END);
+        assertEquals(4, baskets.orders());
+        assertEquals(9.0 / 4, baskets.meanUnits(), 1e-9);
+        assertEquals(List.of(new BasketSizeDistribution.Bucket(1, 2), new BasketSizeDistribution.Bucket(3, 1),
+                new BasketSizeDistribution.Bucket(4, 1)), baskets.buckets());
+
+        RepeatBuyerStats buyers = analytics.repeatBuyers(HOUR, WINDOW_END);
+        assertEquals(3, buyers.buyers());
+        assertEquals(1, buyers.repeatBuyers());
+    }
+
+    @Test
+    void incrementAppendsNewOrdersToTheCopiedColumns() throws Exception {
+        OrderColumnSnapshotWriter writer = writer(true);
+        Path base = writer.write(null);
+        OrderColumnSnapshot full = OrderColumnSnapshot.open(base);
+
+        Order late = hotOrder(ana, OrderStatus.PAID, null, item(book, 3));
+        entityManager.flush();
+        OrderColumnSnapshot next = OrderColumnSnapshot.open(writer.write(base));
+
+        // Só o pedido novo é lido; o arquivo frio não é lido de novo
+        assertEquals(full.orders() + 1, next.orders());
+        assertEquals(full.items() + 1, next.items());
+        assertEquals(full.users(), next.users());
+        assertEquals(full.products(), next.products());
+        assertEquals(full.categories(), next.categories());
+        assertTrue(next.takenAt().isAfter(full.takenAt()));
+
+        analytics.publish(next);
+        assertEquals(Set.of(
+                mugs + " @0: 30.00 / 3",
+                books + " @0: 25.00 / 5",
+                mugs + " @1: 10.00 / 1"), revenue(HOUR, WINDOW_END));
+        Instant lateHour = late.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+        assertEquals(Set.of(books + " @0: 15.00 / 3"), revenue(lateHour, lateHour.plus(1, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    void firstBuildWaitsForAReplicaUnlessThePrimaryIsAllowed() throws Exception {
+        writer(false).refresh();
+
+        assertTrue(OrderColumnSnapshotWriter.snapshots(directory).isEmpty());
+        assertThrows(AnalyticsSnapshotUnavailableException.class, analytics::info);
+
+        writer(true).refresh();
+
+        assertEquals(1, OrderColumnSnapshotWriter.snapshots(directory).size());
+        assertNotNull(analytics.info().takenAt());
+    }
+
+    @Test
+    void refreshWithNothingSettledSinceTheLatestSnapshotDoesNotRepublishIt() throws Exception {
+        writer(true).refresh();
+        AtomicInteger published = new AtomicInteger();
+        OrderAnalyticsService counting = new OrderAnalyticsService(directory.toString(), 1) {
+            @Override
+            void publish(OrderColumnSnapshot snapshot) {
+                published.incrementAndGet();
+                super.publish(snapshot);
+            }
+        };
+
+        try {
+            // O settle delay põe o novo corte antes do corte do último snapshot
+            new OrderColumnSnapshotWriter(jdbcTemplate, transactionManager, orderArchive, counting,
+                    new DefaultListableBeanFactory().getBeanProvider(ReplicaHealthMonitor.class),
+                    directory.toString(), 2, Duration.ofHours(1), Duration.ofMinutes(2), Duration.ofDays(1),
+                    Duration.ofHours(1), true).refresh();
+
+            assertEquals(0, published.get());
+            assertEquals(1, OrderColumnSnapshotWriter.snapshots(directory).size());
+            assertNotNull(counting.info().takenAt(), "the latest snapshot stays loaded");
+        } finally {
+            counting.destroy();
+        }
+    }
+
+    @Test
+    void emptyInvertedOrTooLongPeriodsAreBadRequests() {
+        List<Executable> queries = List.of(
+                () -> analytics.revenueByCategoryPerHour(WINDOW_END, HOUR),
+                () -> analytics.basketSizes(HOUR, HOUR),
+                () -> analytics.repeatBuyers(WINDOW_END, HOUR),
+                () -> analytics.revenueByCategoryPerHour(HOUR, HOUR.plus(Duration.ofDays(400))));
+
+        for (Executable query : queries) {
+            InvalidAnalyticsPeriodException e = assertThrows(InvalidAnalyticsPeriodException.class, query);
+            assertEquals(HttpStatus.BAD_REQUEST, e.getClass().getAnnotation(ResponseStatus.class).value());
+        }
+    }
+
+    private Set<String> revenue(Instant from, Instant to) {
+        Set<String> rows = new HashSet<>();
+        for (var row : analytics.revenueByCategoryPerHour(from, to)) {
+            if (!row.category().equals(mugs) && !row.category().equals(books)) continue;
+            long hour = Duration.between(from, row.hour()).toHours();
+            rows.add(row.category() + " @" + hour + ": " + row.revenue().toPlainString() + " / " + row.units());
+        }
+        return rows;
+    }
+
+    private OrderColumnSnapshotWriter writer(boolean allowPrimary) {
+        return new OrderColumnSnapshotWriter(jdbcTemplate, transactionManager, orderArchive, analytics,
+                new DefaultListableBeanFactory().getBeanProvider(ReplicaHealthMonitor.class),
+                directory.toString(), 2, Duration.ofHours(1), Duration.ofMinutes(2), Duration.ofDays(1),
+                Duration.ZERO, allowPrimary);
+    }
+
+    private User user() {
+        return entityManager.persist(User.builder()
+                .username("analytics-" + UUID.randomUUID())
+                .password("x")
+                .role(Role.USER)
+                .build());
+    }
+
+    private Product product(String category, String price) {
+        return entityManager.persist(Product.builder()
+                .name("Produto " + category)
+                .description("Analytics")
+                .category(category)
+                .price(new BigDecimal(price))
+                .stockQuantity(100)
+                .build());
+    }
+
+    // createdAt é definido no persist (e não é atualizável), então os pedidos semeados vão para a janela via SQL
+    private Order hotOrder(User user, OrderStatus status, Instant createdAt, OrderItem... items) {
+        Order order = Order.builder().user(user).status(status).totalValue(Money.zero()).build();
+        Money total = Money.zero();
+        for (OrderItem item : items) {
+            order.addItem(item);
+            total = total.plus(item.getSubtotal());
+        }
+        order.setTotalValue(total);
+        entityManager.persist(order);
+        if (createdAt == null) return order;
+
+        entityManager.flush();
+        byte[] id = TimeOrderedUuids.toBytes(order.getId());
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", Timestamp.from(createdAt), id);
+        jdbcTemplate.update("UPDATE order_items SET created_at = ? WHERE order_id = ?", Timestamp.from(createdAt), id);
+        return order;
+    }
+
+    private void archivedOrder(Instant createdAt, OrderItem... items) {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .user(User.builder().id(UUID.randomUUID()).build())
+                .status(OrderStatus.SHIPPED)
+                .totalValue(Money.zero())
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        for (OrderItem item : items) {
+            item.setId(UUID.randomUUID());
+            order.addItem(item);
+        }
+        orderArchive.store(List.of(order));
+    }
+
+    private static OrderItem item(Product product, int quantity) {
+        Money unitPrice = Money.of(product.getPrice());
+        return OrderItem.builder()
+                .product(product)
+                .productName(product.getName())
+                .unitPrice(unitPrice)
+                .quantity(quantity)
+                .subtotal(unitPrice.times(quantity))
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.service.auth;
+
+import com.ecommerce.api.dto.AuthRequestDTO;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.user.UserRepository;
+import com.ecommerce.security.JwtService;
+import com.ecommerce.security.PasswordHashingExecutor;
+import com.ecommerce.security.PasswordHashingOverloadedException;
+import com.ecommerce.security.UserDetailsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Login runs through a real {@link DaoAuthenticationProvider} wired like Spring Boot does
+ * (BCrypt encoder + {@link UserDetailsServiceImpl} as the password upgrade service).
+ */
+class AuthServiceTest {
+
+    private static final int CURRENT_COST = 5;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(CURRENT_COST);
+    private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 4);
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jwtService.generateToken(any(UserDetails.class))).thenReturn("token");
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        authService = new AuthService(userRepository, passwordEncoder, new ProviderManager(provider),
+                hashingExecutor, jwtService);
+    }
+
+    @AfterEach
+    void shutdown() {
+        hashingExecutor.destroy();
+    }
+
+    @Test
+    void registerRejectsPasswordsLongerThan72BytesEvenUnder72Characters() {
+        // 37 × "é" = 37 characters, 74 bytes: passes @Size(max = 72) but BCrypt would drop the tail
+        AuthRequestDTO request = new AuthRequestDTO("maria", "é".repeat(37));
+
+        assertThrows(PasswordTooLongException.class, () -> authService.register(request));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void registerAcceptsExactly72Bytes() throws Exception {
+        String password = "é".repeat(36);
+        when(userRepository.findByUsername("maria")).thenReturn(Optional.empty());
+
+        assertEquals("token", authService.register(new AuthRequestDTO("maria", password)).get(5, TimeUnit.SECONDS).token());
+
+        verify(userRepository).save(argThat(user -> passwordEncoder.matches(password, user.getPassword())));
+    }
+
+    @Test
+    void loginRehashesAPasswordStoredWithALowerCost() throws Exception {
+        User user = user(new BCryptPasswordEncoder(CURRENT_COST - 1).encode("senha-antiga"));
+
+        assertEquals("token", authService.login(new AuthRequestDTO("maria", "senha-antiga")).get(5, TimeUnit.SECONDS).token());
+
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("$2a$0" + CURRENT_COST + "$"), user.getPassword());
+        assertTrue(passwordEncoder.matches("senha-antiga", user.getPassword()));
+    }
+
+    @Test
+    void loginWithTheCurrentCostDoesNotRehash() throws Exception {
+        String stored = passwordEncoder.encode("senha-atual");
+        User user = user(stored);
+
+        authService.login(new AuthRequestDTO("maria", "senha-atual")).get(5, TimeUnit.SECONDS);
+
+        verify(userRepository, never()).save(any(User.class));
+        assertEquals(stored, user.getPassword());
+    }
+
+    @Test
+    void wrongPasswordFailsWithoutTouchingTheStoredHash() {
+        String stored = new BCryptPasswordEncoder(CURRENT_COST - 1).encode("senha-antiga");
+        user(stored);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> authService.login(new AuthRequestDTO("maria", "outra-senha")).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InvalidCredentialsException.class, e.getCause());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void saturatedHashingPoolFailsTheCallImmediately() {
+        PasswordHashingExecutor saturated = mock(PasswordHashingExecutor.class);
+        when(saturated.submit(any(Supplier.class))).thenThrow(new PasswordHashingOverloadedException());
+        AuthService service = new AuthService(userRepository, passwordEncoder, mock(ProviderManager.class), saturated, jwtService);
+        when(userRepository.findByUsername("maria")).thenReturn(Optional.empty());
+
+        // Thrown on the request thread, so the controller answers 503 without waiting on a future
+        assertThrows(PasswordHashingOverloadedException.class, () -> service.login(new AuthRequestDTO("maria", "senha-atual")));
+        assertThrows(PasswordHashingOverloadedException.class, () -> service.register(new AuthRequestDTO("maria", "senha-atual")));
+    }
+
+    private User user(String passwordHash) {
+        User user = User.builder().username("maria").password(passwordHash).role(Role.USER).build();
+        when(userRepository.findByUsername("maria")).thenReturn(Optional.of(user));
+        return user;
+    }
+}
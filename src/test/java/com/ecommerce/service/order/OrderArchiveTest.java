@@ -0,0 +1,83 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.common.money.Money;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.support.SqlCapture;
+import com.ecommerce.support.SqlCaptureConfiguration;
+import com.ecommerce.support.StatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderArchive.class, SqlCaptureConfiguration.class})
+class OrderArchiveTest {
+
+    private static final int ORDERS = 20;
+
+    @Autowired private OrderArchive orderArchive;
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private SqlCapture sqlCapture;
+
+    @Test
+    void storingABatchInsertsWithoutSelectingEachRowFirst() {
+        User user = User.builder().id(UUID.randomUUID()).build();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) orders.add(order(user));
+
+        StatementBudget.Result<Void> result = StatementBudget.measure(sqlCapture, () -> {
+            orderArchive.store(orders);
+            entityManager.flush();
+            return null;
+        });
+
+        assertTrue(result.queries().stream().noneMatch(SqlCapture.CapturedQuery::isSelect),
+                "archiving must not SELECT before INSERT: " + result.queries());
+        assertEquals(1, result.roundTrips(), "one JDBC batch for the whole archive batch");
+
+        entityManager.clear();
+        Order original = orders.get(0);
+        OrderSnapshot stored = orderArchive.find(original.getId()).orElseThrow();
+        assertEquals(OrderSnapshot.of(original), stored);
+    }
+
+    private static Order order(User user) {
+        Instant createdAt = Instant.now().minus(200, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .status(OrderStatus.SHIPPED)
+                .totalValue(Money.of(new BigDecimal("19.80")))
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        order.addItem(OrderItem.builder()
+                .id(UUID.randomUUID())
+                .product(Product.builder().id(UUID.randomUUID()).build())
+                .productName("Archived product")
+                .unitPrice(Money.of(new BigDecimal("9.90")))
+                .quantity(2)
+                .subtotal(Money.of(new BigDecimal("19.80")))
+                .build());
+        return order;
+    }
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.common.money.Money;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderExportService.class, OrderArchive.class})
+class OrderExportServiceTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired private OrderExportService exportService;
+    @Autowired private OrderArchive orderArchive;
+    @Autowired private TestEntityManager entityManager;
+
+    private User user;
+    private Order withItems;
+    private Order withoutItems;
+
+    @BeforeEach
+    void seed() {
+        user = entityManager.persist(User.builder()
+                .username("export-" + UUID.randomUUID())
+                .password("x")
+                .role(Role.USER)
+                .build());
+        Product product = entityManager.persist(Product.builder()
+                .name("Export product")
+                .description("Export")
+                .category("export")
+                .price(new BigDecimal("9.90"))
+                .stockQuantity(10)
+                .build());
+
+        withItems = order();
+        withItems.addItem(item(product, "Caneca, \"azul\"", 2));
+        withItems.addItem(item(product, "Export product", 1));
+        withItems.setTotalValue(Money.of(new BigDecimal("29.70")));
+        entityManager.persist(withItems);
+
+        withoutItems = order();
+        entityManager.persist(withoutItems);
+        entityManager.flush();
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerOrderWithNestedItems() throws Exception {
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertEquals(2, lines.size());
+        JsonNode first = mapper.readTree(lines.get(0));
+        assertEquals(withItems.getId().toString(), first.get("id").asText());
+        assertEquals(user.getId().toString(), first.get("userId").asText());
+        assertEquals("PAID", first.get("status").asText());
+        assertEquals(0, new BigDecimal("29.70").compareTo(first.get("totalValue").decimalValue()));
+        assertEquals(2, first.get("items").size());
+        JsonNode item = first.get("items").get(0);
+        assertEquals("Caneca, \"azul\"", item.get("productName").asText());
+        assertEquals(2, item.get("quantity").asInt());
+        assertEquals(0, new BigDecimal("19.80").compareTo(item.get("subtotal").decimalValue()));
+
+        // Pedidos sem itens saem com a lista vazia, não são descartados
+        JsonNode second = mapper.readTree(lines.get(1));
+        assertEquals(withoutItems.getId().toString(), second.get("id").asText());
+        assertEquals(0, second.get("items").size());
+    }
+
+    @Test
+    void csvWritesOneRowPerItemAndEscapesText() {
+        List<String> lines = export(ExportFormat.CSV);
+
+        assertEquals(3, lines.size());
+        String[] first = lines.get(0).split(",", 6);
+        assertEquals(withItems.getId().toString(), first[0]);
+        assertEquals("PAID", first[2]);
+        assertEquals("29.70", first[3]);
+        assertTrue(lines.get(0).endsWith(",\"Caneca, \"\"azul\"\"\",9.90,2,19.80"), lines.get(0));
+        assertTrue(lines.get(1).endsWith(",Export product,9.90,1,9.90"), lines.get(1));
+        assertTrue(lines.get(2).startsWith(withoutItems.getId().toString() + ","), lines.get(2));
+        assertTrue(lines.get(2).endsWith(",,,,,"), lines.get(2));
+        assertEquals(11, lines.get(2).split(",", -1).length);
+    }
+
+    @Test
+    void csvStartsWithAHeader() {
+        String csv = write(ExportFormat.CSV);
+
+        assertTrue(csv.startsWith("order_id,user_id,status,order_total,created_at,"
+                + "item_id,product_id,product_name,unit_price,quantity,subtotal\n"));
+    }
+
+    @Test
+    void archivedOrdersInThePeriodAreExportedFirst() throws Exception {
+        Instant createdAt = Instant.now().minus(30, ChronoUnit.MINUTES);
+        Order archived = Order.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .status(OrderStatus.SHIPPED)
+                .totalValue(Money.of(new BigDecimal("9.90")))
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        OrderItem item = item(Product.builder().id(UUID.randomUUID()).build(), "Arquivado", 1);
+        item.setId(UUID.randomUUID());
+        archived.addItem(item);
+        orderArchive.store(List.of(archived));
+        entityManager.flush();
+
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertEquals(3, lines.size());
+        JsonNode first = mapper.readTree(lines.get(0));
+        assertEquals(archived.getId().toString(), first.get("id").asText());
+        assertEquals("SHIPPED", first.get("status").asText());
+        assertEquals(createdAt.toString(), first.get("createdAt").asText());
+        assertEquals("Arquivado", first.get("items").get(0).get("productName").asText());
+        assertEquals(withItems.getId().toString(), mapper.readTree(lines.get(1)).get("id").asText());
+
+        List<String> csv = export(ExportFormat.CSV);
+        assertEquals(4, csv.size());
+        assertTrue(csv.get(0).startsWith(archived.getId() + ","), csv.get(0));
+    }
+
+    @Test
+    void emptyOrInvertedPeriodIsABadRequest() {
+        Instant now = Instant.now();
+
+        InvalidExportPeriodException e = assertThrows(InvalidExportPeriodException.class,
+                () -> exportService.export(now, now, ExportFormat.CSV, new ByteArrayOutputStream()));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getClass().getAnnotation(ResponseStatus.class).value());
+    }
+
+    @Test
+    void unknownFormatIsABadRequest() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromName("csv"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromName("NDJson"));
+
+        UnsupportedExportFormatException e =
+                assertThrows(UnsupportedExportFormatException.class, () -> ExportFormat.fromName("xml"));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getClass().getAnnotation(ResponseStatus.class).value());
+    }
+
+    // Outros testes compartilham o banco em memória, então só ficam os pedidos deste teste
+    private List<String> export(ExportFormat format) {
+        return write(format).lines()
+                .filter(line -> line.contains(user.getId().toString()))
+                .toList();
+    }
+
+    private String write(ExportFormat format) {
+        Instant now = Instant.now();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(now.minus(1, ChronoUnit.HOURS), now.plus(1, ChronoUnit.HOURS), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Order order() {
+        return Order.builder()
+                .user(user)
+                .status(OrderStatus.PAID)
+                .totalValue(Money.zero())
+                .build();
+    }
+
+    private static OrderItem item(Product product, String name, int quantity) {
+        Money unitPrice = Money.of(new BigDecimal("9.90"));
+        return OrderItem.builder()
+                .product(product)
+                .productName(name)
+                .unitPrice(unitPrice)
+                .quantity(quantity)
+                .subtotal(unitPrice.times(quantity))
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.product.StockLedger;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.user.UserRepository;
+import com.ecommerce.service.reservation.StockReservationService;
+import com.ecommerce.support.SqlCapture;
+import com.ecommerce.support.SqlCaptureConfiguration;
+import com.ecommerce.support.StatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A gravação de um pedido precisa custar um número constante de idas ao banco, qualquer que seja o
+ * número de linhas: um SELECT de produtos, um SELECT de reservas do carrinho, um decremento
+ * condicional de estoque em batch e inserts em batch (pedido, itens).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, OrderArchive.class, StockReservationService.class, StockLedger.class, SqlCaptureConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderServiceStatementBudgetTest {
+
+    private static final int CREATE_ORDER_BUDGET = 5;
+
+    @Autowired private OrderService orderService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private SqlCapture sqlCapture;
+
+    @Test
+    void createOrderStatementCountDoesNotGrowWithLines() {
+        User user = userRepository.save(User.builder()
+                .username("budget-" + UUID.randomUUID())
+                .password("x")
+                .role(Role.USER)
+                .build());
+
+        // Os produtos são criados fora da janela medida para os INSERTs deles não contarem
+        List<OrderItem> oneLine = lines(1);
+        List<OrderItem> thirtyLines = lines(30);
+
+        int single = StatementBudget.measure(sqlCapture, () -> orderService.createOrder(user, oneLine)).roundTrips();
+        int thirty = StatementBudget.measure(sqlCapture, () -> orderService.createOrder(user, thirtyLines)).roundTrips();
+
+        assertTrue(single <= CREATE_ORDER_BUDGET, "1-line order used " + single + " round-trips");
+        assertEquals(single, thirty, "30-line order must cost the same as a 1-line order");
+    }
+
+    private List<OrderItem> lines(int count) {
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Product product = productRepository.save(Product.builder()
+                    .name("Budget product " + i)
+                    .description("Statement budget")
+                    .category("budget")
+                    .price(new BigDecimal("9.90"))
+                    .stockQuantity(100)
+                    .build());
+            items.add(OrderItem.builder()
+                    .product(Product.builder().id(product.getId()).build())
+                    .quantity(1)
+                    .build());
+        }
+        return items;
+    }
+}
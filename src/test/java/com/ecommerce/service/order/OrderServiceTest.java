@@ -1,23 +1,30 @@
 package com.ecommerce.service.order;
 
+import com.ecommerce.common.money.Money;
 import com.ecommerce.domain.order.*;
 import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.user.Role;
 import com.ecommerce.domain.user.User;
 import com.ecommerce.repository.order.OrderItemRepository;
 import com.ecommerce.repository.order.OrderRepository;
-import com.ecommerce.repository.product.ProductRepository;
-import jakarta.persistence.EntityNotFoundException;
+import com.ecommerce.service.reservation.StockReservationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OrderServiceTest {
@@ -31,6 +38,15 @@ class OrderServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private StockReservationService reservationService;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -43,15 +59,17 @@ class OrderServiceTest {
 
         user = User.builder()
                 .id(UUID.randomUUID())
-                .name("Thiago")
-                .email("thiago@email.com")
+                .username("thiago")
+                .password("x")
+                .role(Role.USER)
                 .build();
 
         product = Product.builder()
                 .id(UUID.randomUUID())
                 .name("Gaming Laptop")
+                .category("computers")
                 .price(new BigDecimal("5000.00"))
-                .quantity(10)
+                .stockQuantity(10)
                 .build();
     }
 
@@ -59,37 +77,40 @@ class OrderServiceTest {
     void shouldCreateOrderSuccessfully() {
         // Arrange
         OrderItem item = OrderItem.builder()
-                .product(product)
+                .product(Product.builder().id(product.getId()).build())
                 .quantity(2)
                 .build();
 
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
+        when(reservationService.allocate(eq(user), anyMap())).thenReturn(List.of());
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         Order order = orderService.createOrder(user, List.of(item));
 
         // Assert
-        assertNotNull(order.getId());
         assertEquals(OrderStatus.CREATED, order.getStatus());
-        assertEquals(new BigDecimal("10000.00"), order.getTotalValue());
-        assertEquals(8, product.getQuantity()); // updated stock
+        assertEquals(Money.of(new BigDecimal("10000.00")), order.getTotalValue());
+        assertEquals(1, order.getItems().size());
+        assertEquals("Gaming Laptop", order.getItems().get(0).getProductName());
+        verify(reservationService).allocate(user, Map.of(product.getId(), 2));
     }
 
     @Test
     void shouldThrowErrorWhenCreatingOrderWithInsufficientStock() {
         // Arrange
-        product.setQuantity(1);
         OrderItem item = OrderItem.builder()
-                .product(product)
-                .quantity(2)
+                .product(Product.builder().id(product.getId()).build())
+                .quantity(20)
                 .build();
 
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product));
+        when(reservationService.allocate(eq(user), anyMap())).thenReturn(List.of(product.getId()));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () ->
                 orderService.createOrder(user, List.of(item)));
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -102,78 +123,87 @@ class OrderServiceTest {
     @Test
     void shouldUpdateStatusToPaidSuccessfully() {
         // Arrange
-        Order order = Order.builder()
-                .id(UUID.randomUUID())
-                .user(user)
-                .status(OrderStatus.CREATED)
-                .totalValue(new BigDecimal("500.00"))
-                .build();
+        Order order = order(OrderStatus.CREATED);
 
         when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.transition(eq(order.getId()), eq(OrderStatus.CREATED), eq(OrderStatus.PAID), any(Instant.class)))
+                .thenReturn(1);
 
         // Act
-        Order updated = orderService.updateStatus(order.getId(), OrderStatus.PAID, user);
+        orderService.updateStatus(order.getId(), OrderStatus.PAID, user);
 
         // Assert
-        assertEquals(OrderStatus.PAID, updated.getStatus());
+        verify(orderRepository).transition(eq(order.getId()), eq(OrderStatus.CREATED), eq(OrderStatus.PAID), any(Instant.class));
+        verify(events).publishEvent(new OrderPaidEvent(order.getId(), List.of(product.getId())));
+    }
+
+    @Test
+    void shouldFailWhenAnotherRequestChangedTheStatusFirst() {
+        // Arrange
+        Order order = order(OrderStatus.CREATED);
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(orderRepository.transition(any(), any(), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(OrderConflictException.class, () ->
+                orderService.updateStatus(order.getId(), OrderStatus.PAID, user));
+        verify(events, never()).publishEvent(any());
     }
 
     @Test
     void shouldThrowErrorWhenUpdatingPaidOrderBackToCreated() {
         // Arrange
-        Order order = Order.builder()
-                .id(UUID.randomUUID())
-                .user(user)
-                .status(OrderStatus.PAID)
-                .totalValue(new BigDecimal("100.00"))
-                .build();
+        Order order = order(OrderStatus.PAID);
 
         when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
 
         // Act & Assert
         assertThrows(IllegalStateException.class, () ->
                 orderService.updateStatus(order.getId(), OrderStatus.CREATED, user));
+        verify(orderRepository, never()).transition(any(), any(), any(), any());
     }
 
     @Test
     void shouldCancelOrderSuccessfully() {
         // Arrange
-        Order order = Order.builder()
-                .id(UUID.randomUUID())
-                .user(user)
-                .status(OrderStatus.CREATED)
-                .items(List.of(OrderItem.builder()
-                        .product(product)
-                        .quantity(2)
-                        .build()))
-                .build();
+        Order order = order(OrderStatus.CREATED);
 
         when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(orderRepository.transition(eq(order.getId()), eq(OrderStatus.CREATED), eq(OrderStatus.CANCELED), any(Instant.class)))
+                .thenReturn(1);
 
         // Act
-        Order canceled = orderService.cancelOrder(order.getId(), user);
+        orderService.cancelOrder(order.getId(), user);
 
         // Assert
-        assertEquals(OrderStatus.CANCELED, canceled.getStatus());
-        assertEquals(12, product.getQuantity()); // stock restored
+        verify(productRepository).restock(eq(product.getId()), eq(2), any(Instant.class)); // stock restored
     }
 
     @Test
     void shouldThrowErrorWhenCancelingAlreadyPaidOrder() {
         // Arrange
-        Order order = Order.builder()
-                .id(UUID.randomUUID())
-                .user(user)
-                .status(OrderStatus.PAID)
-                .build();
+        Order order = order(OrderStatus.PAID);
 
         when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
 
         // Act & Assert
         assertThrows(IllegalStateException.class, () ->
                 orderService.cancelOrder(order.getId(), user));
+        verify(productRepository, never()).restock(any(), anyInt(), any());
+    }
+
+    private Order order(OrderStatus status) {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .status(status)
+                .totalValue(Money.of(new BigDecimal("10000.00")))
+                .build();
+        order.addItem(OrderItem.builder()
+                .product(product)
+                .quantity(2)
+                .build());
+        return order;
     }
 }
@@ -0,0 +1,126 @@
+package com.ecommerce.service.order;
+
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.product.ProductRepository;
+import com.ecommerce.domain.product.StockLedger;
+import com.ecommerce.domain.user.Role;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.domain.user.UserRepository;
+import com.ecommerce.repository.order.OrderRepository;
+import com.ecommerce.service.reservation.StockReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispara pagamento, cancelamento e envio nos mesmos pedidos ao mesmo tempo e verifica que cada
+ * pedido termina num único estado consistente e que o estoque volta exatamente uma vez por cancelamento.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderService.class, OrderArchive.class, StockReservationService.class, StockLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStateMachineStressTest {
+
+    private static final int ORDERS = 40;
+    private static final int QUANTITY_PER_ORDER = 3;
+    private static final int INITIAL_STOCK = 1_000;
+
+    @Autowired private OrderService orderService;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void concurrentTransitionsLeaveConsistentStatesAndStock() throws Exception {
+        User user = userRepository.save(User.builder()
+                .username("stress-" + UUID.randomUUID())
+                .password("x")
+                .role(Role.USER)
+                .build());
+
+        Product product = productRepository.save(Product.builder()
+                .name("Stress Product")
+                .description("Concurrent transitions")
+                .category("stress")
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(INITIAL_STOCK)
+                .build());
+
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            OrderItem item = OrderItem.builder()
+                    .product(Product.builder().id(product.getId()).build())
+                    .quantity(QUANTITY_PER_ORDER)
+                    .build();
+            orderIds.add(orderService.createOrder(user, List.of(item)).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(12);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger cancels = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (UUID id : orderIds) {
+            futures.add(pool.submit(attempt(start, () -> orderService.updateStatus(id, OrderStatus.PAID, user))));
+            futures.add(pool.submit(attempt(start, () -> {
+                orderService.cancelOrder(id, user);
+                cancels.incrementAndGet();
+                return null;
+            })));
+            futures.add(pool.submit(attempt(start, () -> orderService.updateStatus(id, OrderStatus.SHIPPED, user))));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        int canceled = 0;
+        for (UUID id : orderIds) {
+            Order order = orderRepository.findById(id).orElseThrow();
+            assertNotEquals(OrderStatus.CREATED, order.getStatus(), "pay or cancel must always win");
+            if (order.getStatus() == OrderStatus.CANCELED) canceled++;
+        }
+
+        assertEquals(canceled, cancels.get(), "each canceled order is canceled exactly once");
+
+        int sold = (ORDERS - canceled) * QUANTITY_PER_ORDER;
+        int stock = productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+        assertEquals(INITIAL_STOCK - sold, stock, "stock restored exactly once per canceled order");
+    }
+
+    private static Callable<Object> attempt(CountDownLatch start, Callable<Object> action) {
+        return () -> {
+            start.await();
+            try {
+                return action.call();
+            } catch (IllegalStateException e) {
+                // Perdeu o compare-and-set (OrderConflictException) ou a transição ainda não é permitida
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Registra os statements JDBC executados (SQL, parâmetros e round-trips) enquanto a captura está ativa.
+ * Instalado no DataSource por {@link SqlCaptureConfiguration}.
+ */
+public class SqlCapture implements QueryExecutionListener {
+
+    private final List<CapturedQuery> queries = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean active;
+    private volatile int roundTrips;
+
+    public void start() {
+        queries.clear();
+        roundTrips = 0;
+        active = true;
+    }
+
+    public List<CapturedQuery> stop() {
+        active = false;
+        synchronized (queries) {
+            return List.copyOf(queries);
+        }
+    }
+
+    /** Quantas vezes o driver foi ao banco (um batch JDBC conta como um). */
+    public int roundTrips() {
+        return roundTrips;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!active) return;
+        roundTrips++;
+        for (QueryInfo info : queryInfoList) {
+            List<List<ParameterSetOperation>> parameters = info.getParametersList();
+            List<ParameterSetOperation> first = parameters.isEmpty() ? List.of() : parameters.get(0);
+            queries.add(new CapturedQuery(info.getQuery(), List.copyOf(first), Math.max(1, parameters.size()),
+                    execInfo.isBatch()));
+        }
+    }
+
+    /**
+     * Um statement executado. {@code parameters} traz os valores da primeira execução;
+     * {@code executions} é o tamanho do batch (1 fora de batch).
+     */
+    public record CapturedQuery(String sql, List<ParameterSetOperation> parameters, int executions, boolean batch) {
+
+        public boolean isSelect() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        }
+    }
+}
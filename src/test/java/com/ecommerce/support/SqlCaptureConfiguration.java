@@ -0,0 +1,38 @@
+package com.ecommerce.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação com o datasource-proxy para que os testes possam
+ * inspecionar os statements via {@link SqlCapture}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlCaptureConfiguration {
+
+    @Bean
+    public SqlCapture sqlCapture() {
+        return new SqlCapture();
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlCaptureDataSourceWrapper(ObjectProvider<SqlCapture> capture) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(capture.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.support;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Falha o teste quando uma chamada executa mais round-trips SQL do que o orçamento
+ * (um batch JDBC conta como um). Útil para pegar regressões N+1.
+ *
+ * <pre>
+ * Order order = StatementBudget.atMost(sqlCapture, 4, () -> orderService.createOrder(user, items));
+ * </pre>
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {}
+
+    public static <T> T atMost(SqlCapture capture, int budget, Supplier<T> action) {
+        Result<T> result = measure(capture, action);
+        if (result.roundTrips() > budget) {
+            fail("Expected at most " + budget + " SQL round-trips but got " + result.roundTrips() + ":\n"
+                    + result.describe());
+        }
+        return result.value();
+    }
+
+    public static void atMost(SqlCapture capture, int budget, Runnable action) {
+        atMost(capture, budget, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> Result<T> measure(SqlCapture capture, Supplier<T> action) {
+        capture.start();
+        T value;
+        List<SqlCapture.CapturedQuery> queries;
+        try {
+            value = action.get();
+        } finally {
+            queries = capture.stop();
+        }
+        return new Result<>(value, capture.roundTrips(), queries);
+    }
+
+    public record Result<T>(T value, int roundTrips, List<SqlCapture.CapturedQuery> queries) {
+
+        String describe() {
+            return queries.stream()
+                    .map(q -> (q.batch() ? "[batch x" + q.executions() + "] " : "") + q.sql())
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestLogTest {
+
+    @Test
+    void returnsTheMostRecentFirstUpToTheLimit() {
+        SlowRequestLog log = new SlowRequestLog(10);
+        for (int i = 0; i < 4; i++) log.add(request("/r" + i));
+
+        assertEquals(List.of("/r3", "/r2", "/r1", "/r0"), uris(log.recent(20)));
+        assertEquals(List.of("/r3", "/r2"), uris(log.recent(2)));
+    }
+
+    @Test
+    void oldestEntriesAreOverwrittenWhenTheBufferWraps() {
+        SlowRequestLog log = new SlowRequestLog(3);
+        for (int i = 0; i < 7; i++) log.add(request("/r" + i));
+
+        assertEquals(List.of("/r6", "/r5", "/r4"), uris(log.recent(10)));
+    }
+
+    @Test
+    void nonPositiveLimitReturnsNothing() {
+        SlowRequestLog log = new SlowRequestLog(3);
+        log.add(request("/r0"));
+
+        assertEquals(List.of(), log.recent(0));
+        assertEquals(List.of(), log.recent(-5));
+        assertEquals(List.of(), new SlowRequestLog(3).recent(10));
+    }
+
+    private static SlowRequest request(String uri) {
+        return new SlowRequest("GET", uri, 200, Instant.now(), 600, true, 0, 0, false,
+                new SlowRequest.SpanView("GET " + uri, 0, 600, 0, 0, List.of()), List.of());
+    }
+
+    private static List<String> uris(List<SlowRequest> requests) {
+        return requests.stream().map(SlowRequest::uri).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracingFilterTest {
+
+    private final SlowRequestLog slowRequests = new SlowRequestLog(100);
+
+    @Test
+    void fullSampleRateTracesEveryRequest() throws Exception {
+        TracingFilter filter = filter(1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            assertNotNull(RequestTrace.current());
+            try (RequestTrace.Scope ignored = RequestTrace.span("work")) {
+                assertNotNull(RequestTrace.current());
+            }
+        });
+
+        assertNotNull(request.getAttribute(RequestTrace.ATTRIBUTE));
+        assertNull(RequestTrace.current(), "the trace must not outlive the request");
+        SlowRequest slow = slowRequests.recent(1).get(0);
+        assertEquals("/api/products", slow.uri());
+        assertEquals("work", slow.root().children().get(0).name());
+    }
+
+    @Test
+    void zeroSampleRateLeavesRequestsUntracedButStillLogsTheSlowOnes() throws Exception {
+        TracingFilter filter = filter(0.0);
+
+        for (int i = 0; i < 100; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                    (req, res) -> assertNull(RequestTrace.current()));
+        }
+
+        List<SlowRequest> slow = slowRequests.recent(100);
+        assertEquals(100, slow.size());
+        assertTrue(slow.stream().noneMatch(SlowRequest::traced));
+        assertNull(slow.get(0).root());
+        assertEquals("/api/products", slow.get(0).uri());
+        assertEquals(200, slow.get(0).status());
+    }
+
+    @Test
+    void unsampledRequestsUnderTheThresholdAreNotLogged() throws Exception {
+        TracingFilter filter = new TracingFilter(slowRequests, Duration.ofMinutes(1), 1_000, 200, 0.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                (req, res) -> {});
+
+        assertEquals(0, slowRequests.recent(10).size());
+    }
+
+    @Test
+    void asyncRequestsAreTimedUntilTheyComplete() throws Exception {
+        TracingFilter filter = filter(1.0);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertNull(RequestTrace.current(), "the trace must not stay on the container thread");
+        assertEquals(0, slowRequests.recent(10).size(), "not finished before the async work completes");
+
+        Thread.sleep(20);
+        response.setStatus(401);
+        request.getAsyncContext().complete();
+
+        SlowRequest slow = slowRequests.recent(1).get(0);
+        assertTrue(slow.traced());
+        assertEquals(401, slow.status());
+        assertTrue(slow.durationMillis() >= 20, slow.durationMillis() + " ms");
+    }
+
+    @Test
+    void partialSampleRateTracesRoughlyThatFraction() throws Exception {
+        TracingFilter filter = filter(0.25);
+        AtomicInteger traced = new AtomicInteger();
+
+        for (int i = 0; i < 4_000; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                    (req, res) -> {
+                        if (RequestTrace.current() != null) traced.incrementAndGet();
+                    });
+        }
+
+        assertTrue(traced.get() > 800 && traced.get() < 1_200, traced + " of 4000 traced");
+    }
+
+    @Test
+    void sampleRateOutsideZeroToOneIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> filter(1.5));
+        assertThrows(IllegalArgumentException.class, () -> filter(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> filter(Double.NaN));
+    }
+
+    // Limite 0: toda requisição entra no log de lentas
+    private TracingFilter filter(double sampleRate) {
+        return new TracingFilter(slowRequests, Duration.ZERO, 1_000, 200, sampleRate);
+    }
+}
@@ -0,0 +1,305 @@
+package db.migration;
+
+import com.ecommerce.common.money.Money;
+import com.ecommerce.common.money.MoneyConverter;
+import com.ecommerce.domain.order.Order;
+import com.ecommerce.domain.order.OrderItem;
+import com.ecommerce.domain.order.OrderStatus;
+import com.ecommerce.domain.product.Product;
+import com.ecommerce.domain.user.User;
+import com.ecommerce.service.order.OrderPartitionMaintainer;
+import com.ecommerce.support.MySqlContainerSupport;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parte de um schema gerado pelo próprio Hibernate com o mapeamento da versão antiga
+ * (ddl-auto update, ids UUID em CHAR(36) ou BINARY(16)), aplica o Flyway com o baseline
+ * da aplicação e usa as entidades atuais sobre o resultado.
+ */
+class LegacySchemaMigrationTest extends MySqlContainerSupport {
+
+    private static final String DATABASE = "legacy_schema";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"CHAR", "BINARY"})
+    void baselinedLegacySchemaRunsTheMigrationsAndServesTheCurrentEntities(String uuidType) {
+        JdbcTemplate root = new JdbcTemplate(dataSource(""));
+        root.execute("DROP DATABASE IF EXISTS " + DATABASE);
+        root.execute("CREATE DATABASE " + DATABASE);
+
+        UUID orderId;
+        try (SessionFactory legacy = legacySessionFactory(uuidType)) {
+            orderId = legacy.fromTransaction(session -> {
+                LegacyUser user = new LegacyUser();
+                user.username = "legacy";
+                user.password = "x";
+                user.role = LegacyRole.USER;
+                session.persist(user);
+
+                LegacyProduct product = new LegacyProduct();
+                product.name = "Caneca";
+                product.description = "Legado";
+                product.category = "canecas";
+                product.price = new BigDecimal("10.00");
+                product.stockQuantity = 5;
+                product.createdAt = Instant.now();
+                product.updatedAt = product.createdAt;
+                session.persist(product);
+
+                LegacyOrder order = new LegacyOrder();
+                order.user = user;
+                order.status = LegacyStatus.PAID;
+                order.totalValue = new BigDecimal("20.00");
+                order.createdAt = Instant.now();
+                order.updatedAt = order.createdAt;
+                LegacyOrderItem item = new LegacyOrderItem();
+                item.order = order;
+                item.product = product;
+                item.productName = product.name;
+                item.unitPrice = product.price;
+                item.quantity = 2;
+                item.subtotal = new BigDecimal("20.00");
+                order.items.add(item);
+                session.persist(order);
+                return order.id;
+            });
+        }
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource(DATABASE))
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        assertTrue(flyway.migrate().success);
+        assertEquals(0, flyway.info().pending().length);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource(DATABASE));
+        assertEquals("binary", jdbc.queryForObject("""
+                SELECT data_type FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'orders' AND column_name = 'user_id'
+                """, String.class));
+        assertEquals(List.of("ck_order_items_quantity", "ck_orders_status", "ck_orders_total",
+                "ck_products_price", "ck_products_stock", "ck_users_role", "uk_users_username"), jdbc.queryForList("""
+                SELECT constraint_name FROM information_schema.table_constraints
+                 WHERE constraint_schema = DATABASE() AND table_name IN ('users', 'products', 'orders', 'order_items')
+                   AND constraint_type IN ('CHECK', 'UNIQUE')
+                 ORDER BY constraint_name
+                """, String.class));
+        assertThrows(Exception.class, () -> jdbc.update("UPDATE orders SET status = 'LOST'"));
+
+        // V7: partições até MONTHS_AHEAD meses depois do mês corrente, nas duas tabelas
+        String lastMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(OrderPartitionMaintainer.MONTHS_AHEAD)
+                .format(DateTimeFormatter.ofPattern("'p'yyyyMM"));
+        assertEquals(2, jdbc.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.partitions
+                 WHERE table_schema = DATABASE() AND table_name IN ('orders', 'order_items') AND partition_name = ?
+                """, Integer.class, lastMonth));
+
+        try (SessionFactory current = currentSessionFactory()) {
+            current.inTransaction(session -> {
+                Order order = session.find(Order.class, orderId);
+                assertEquals("legacy", order.getUser().getUsername());
+                assertEquals(1, order.getItems().size());
+                assertEquals(Money.of(new BigDecimal("20.00")), order.getTotalValue());
+                assertEquals(0L, order.getVersion());
+                order.setStatus(OrderStatus.SHIPPED);
+
+                OrderItem item = order.getItems().get(0);
+                Order next = Order.builder().user(order.getUser()).status(OrderStatus.CREATED)
+                        .totalValue(item.getUnitPrice()).build();
+                next.addItem(OrderItem.builder().product(item.getProduct()).productName(item.getProductName())
+                        .unitPrice(item.getUnitPrice()).quantity(1).subtotal(item.getUnitPrice()).build());
+                session.persist(next);
+            });
+            current.inTransaction(session -> {
+                Order order = session.find(Order.class, orderId);
+                assertEquals(OrderStatus.SHIPPED, order.getStatus());
+                assertEquals(1L, order.getVersion());
+            });
+        }
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+    }
+
+    // Mesmas configurações do profile dev antigo: MySQL8Dialect e ddl-auto update
+    private static SessionFactory legacySessionFactory(String uuidType) {
+        return connection(new Configuration())
+                .addAnnotatedClass(LegacyUser.class)
+                .addAnnotatedClass(LegacyProduct.class)
+                .addAnnotatedClass(LegacyOrder.class)
+                .addAnnotatedClass(LegacyOrderItem.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL8Dialect")
+                .setProperty("hibernate.hbm2ddl.auto", "update")
+                .setProperty("hibernate.type.preferred_uuid_jdbc_type", uuidType)
+                .buildSessionFactory();
+    }
+
+    private static SessionFactory currentSessionFactory() {
+        return connection(new Configuration())
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(OrderItem.class)
+                .addAnnotatedClass(MoneyConverter.class)
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+    }
+
+    private static Configuration connection(Configuration configuration) {
+        return configuration
+                .setProperty("hibernate.connection.url", url(DATABASE))
+                .setProperty("hibernate.connection.username", "root")
+                .setProperty("hibernate.connection.password", MYSQL.getPassword());
+    }
+
+    private static DriverManagerDataSource dataSource(String database) {
+        return new DriverManagerDataSource(url(database), "root", MYSQL.getPassword());
+    }
+
+    private static String url(String database) {
+        return "jdbc:mysql://" + MYSQL.getHost() + ":" + MYSQL.getMappedPort(3306) + "/" + database;
+    }
+
+    // ==========================
+    // Mapeamento da versão antiga (antes do Flyway), só para gerar o schema legado
+    // ==========================
+
+    enum LegacyRole { ADMIN, USER }
+
+    enum LegacyStatus { CREATED, PAID, SHIPPED, CANCELED }
+
+    @Entity(name = "LegacyUser")
+    @Table(name = "users")
+    static class LegacyUser {
+        @Id
+        @GeneratedValue
+        UUID id;
+
+        @Column(unique = true, nullable = false)
+        String username;
+
+        @Column(nullable = false)
+        String password;
+
+        @Enumerated(EnumType.STRING)
+        LegacyRole role;
+    }
+
+    @Entity(name = "LegacyProduct")
+    @Table(name = "products")
+    static class LegacyProduct {
+        @Id
+        @GeneratedValue
+        @UuidGenerator
+        UUID id;
+
+        @Column(nullable = false, length = 100)
+        String name;
+
+        @Column(nullable = false, length = 250)
+        String description;
+
+        @Column(nullable = false, length = 80)
+        String category;
+
+        @Column(nullable = false, precision = 12, scale = 2)
+        BigDecimal price;
+
+        @Column(nullable = false)
+        Integer stockQuantity;
+
+        @Column(nullable = false, updatable = false)
+        Instant createdAt;
+
+        @Column(nullable = false)
+        Instant updatedAt;
+    }
+
+    @Entity(name = "LegacyOrder")
+    @Table(name = "orders")
+    static class LegacyOrder {
+        @Id
+        @GeneratedValue
+        @UuidGenerator
+        UUID id;
+
+        @ManyToOne(optional = false, fetch = FetchType.LAZY)
+        @JoinColumn(name = "user_id", nullable = false)
+        LegacyUser user;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 20)
+        LegacyStatus status;
+
+        @Column(nullable = false, precision = 12, scale = 2)
+        BigDecimal totalValue;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+        List<LegacyOrderItem> items = new ArrayList<>();
+
+        @Column(nullable = false)
+        Instant createdAt;
+
+        @Column(nullable = false)
+        Instant updatedAt;
+    }
+
+    @Entity(name = "LegacyOrderItem")
+    @Table(name = "order_items")
+    static class LegacyOrderItem {
+        @Id
+        @GeneratedValue
+        @UuidGenerator
+        UUID id;
+
+        @ManyToOne(optional = false, fetch = FetchType.LAZY)
+        @JoinColumn(name = "order_id", nullable = false)
+        LegacyOrder order;
+
+        @ManyToOne(optional = false, fetch = FetchType.LAZY)
+        @JoinColumn(name = "product_id", nullable = false)
+        LegacyProduct product;
+
+        @Column(nullable = false, length = 150)
+        String productName;
+
+        @Column(nullable = false, precision = 12, scale = 2)
+        BigDecimal unitPrice;
+
+        @Column(nullable = false)
+        Integer quantity;
+
+        @Column(nullable = false, precision = 12, scale = 2)
+        BigDecimal subtotal;
+    }
+}